@@ -36,6 +36,19 @@ public class ClientMain extends JFrame {
         gamePanel.requestFocusInWindow(); 
     }
 
+    // 리플레이 재생 화면: 서버 대신 ReplayClient가 상태를 공급하고, 같은 GamePanel로 그림
+    public void showReplay(ReplayClient replayClient, String title) {
+        GamePanel gamePanel = new GamePanel(this, replayClient, new GameState(), title);
+        gamePanel.addSideControl(new ReplayControlPanel(replayClient));
+        setContentPane(gamePanel);
+
+        revalidate();
+        repaint();
+
+        gamePanel.requestFocusInWindow();
+        replayClient.start();
+    }
+
     
     // Swing은 EDT라는 스레드에서만 UI를 생성하고 수정
     // SwingUtilities.invokeLater()는 Swing에서 UI렌더링을 안전하게 처리하기 위해 전용 스레드에서 실행하도록 예약하는 역할
@@ -54,6 +54,10 @@ public class GameOverPanel extends JPanel {
             add(player);
         }
 
+        // 서버에 저장된 최고 점수 (서버가 보내주지 않았으면 생략)
+        addBoard("오늘 최고 점수", networkClient.getTodayBest());
+        addBoard("역대 최고 점수", networkClient.getAllTimeBest());
+
         JButton exitBtn = new JButton("나가기");
         exitBtn.setAlignmentX(CENTER_ALIGNMENT);
         exitBtn.setBackground(new Color(255, 80, 80));
@@ -77,4 +81,25 @@ public class GameOverPanel extends JPanel {
         
         add(Box.createVerticalGlue()); 
     }
+
+    private void addBoard(String title, java.util.Map<String, Integer> scores) {
+        if (scores.isEmpty()) return;
+
+        JLabel label = new JLabel(title);
+        label.setAlignmentX(CENTER_ALIGNMENT);
+        label.setForeground(new Color(255, 215, 0));
+        label.setFont(new Font("SansSerif", Font.BOLD, 20));
+        add(Box.createVerticalStrut(20));
+        add(label);
+
+        int rank = 1;
+        for (var entry : scores.entrySet()) {
+            JLabel row = new JLabel(rank++ + ". " + entry.getKey() + " : " + entry.getValue() + "점");
+            row.setAlignmentX(CENTER_ALIGNMENT);
+            row.setForeground(Color.LIGHT_GRAY);
+            row.setFont(new Font("SansSerif", Font.PLAIN, 16));
+            add(Box.createVerticalStrut(6));
+            add(row);
+        }
+    }
 }
\ No newline at end of file
@@ -25,6 +25,8 @@ import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.border.LineBorder;
 
+import protocol.ItemCodec;
+
 public class GamePanel extends JPanel implements GameStateListener {
 
     private final NetworkClient networkClient;
@@ -128,6 +130,12 @@ public class GamePanel extends JPanel implements GameStateListener {
         sidePanel.appendSystemMessage(msg);
     }
     
+    // PING/입력 순번으로 잰 지연을 사이드 패널에 표시
+    @Override
+    public void onLatencyUpdated(long rttMs, long jitterMs, long inputMs) {
+        sidePanel.updateLatency(rttMs, jitterMs, inputMs);
+    }
+
     // 서버에서 GAMEOVER 메시지를 받으면 오른쪽 로그창에 출력하기 위한 전달자 역할
     @Override
     public void onGameOver(GameState finalState) {
@@ -145,6 +153,11 @@ public class GamePanel extends JPanel implements GameStateListener {
         });
     }
 
+    // 리플레이 조작 패널처럼 모드별 추가 UI를 사이드 영역 아래에 붙임
+    public void addSideControl(javax.swing.JComponent control) {
+        sidePanel.addControl(control);
+    }
+
     @Override
     public void removeNotify() {
         networkClient.removeListener(this);
@@ -172,23 +185,50 @@ public class GamePanel extends JPanel implements GameStateListener {
 
             if (gameState.snakeBodies.isEmpty()) return;
 
-            // 사과
-            g.setColor(Color.RED);
-            g.fillOval(gameState.appleX, gameState.appleY, 20, 20);
+            // 사과 / 아이템
+            if (gameState.items.length == 0) {
+                g.setColor(Color.RED);
+                g.fillOval(gameState.appleX, gameState.appleY, 20, 20);
+            }
+            for (int i = 0; i < gameState.items.length; i += 3) {
+                paintItem(g, gameState.items[i], gameState.items[i + 1], gameState.items[i + 2]);
+            }
 
             // 모든 뱀을 가져온 뒤 생존 여부를 확인 후 화면에 표시
             for (String name : gameState.snakeBodies.keySet()) {
                 boolean alive = gameState.snakeAlive.get(name);
                 if (!alive) continue;
 
-                java.util.List<Point> body = gameState.snakeBodies.get(name);
+                SnakeInfo body = gameState.snakeBodies.get(name);
                 Color snakeColor = gameState.snakeColors.getOrDefault(name, Color.GREEN);
                 
                 g.setColor(alive ? snakeColor : Color.GRAY);
 
-                for (Point p : body) {
-                    g.fillRect(p.x, p.y, 20, 20);
-                }
+                body.paint(g, 20); // 직선 구간마다 사각형 하나
+            }
+        }
+
+        // 사과: 빨간 원, 남은 먹이: 작은 주황 원, 부스트: 노란 마름모, 축소: 보라 사각형
+        private void paintItem(Graphics g, int x, int y, int type) {
+            switch (type) {
+                case ItemCodec.APPLE:
+                    g.setColor(Color.RED);
+                    g.fillOval(x, y, 20, 20);
+                    break;
+                case ItemCodec.DROP:
+                    g.setColor(Color.ORANGE);
+                    g.fillOval(x + 5, y + 5, 10, 10);
+                    break;
+                case ItemCodec.BOOST:
+                    g.setColor(Color.YELLOW);
+                    g.fillPolygon(new int[] { x + 10, x + 20, x + 10, x }, new int[] { y, y + 10, y + 20, y + 10 }, 4);
+                    break;
+                case ItemCodec.SHRINK:
+                    g.setColor(Color.MAGENTA);
+                    g.fillRect(x + 3, y + 3, 14, 14);
+                    break;
+                default:
+                    break;
             }
         }
     }
@@ -198,6 +238,7 @@ public class GamePanel extends JPanel implements GameStateListener {
 
         private final DefaultListModel<String> rankModel;
         private final JTextArea systemLog;
+        private final JLabel latencyLabel;
         private final NetworkClient networkClient;
 
         // NetworkClient를 SidePanel에도 전달하여 나가기할 때 기존 networkClient.close로 정상 종료
@@ -249,11 +290,20 @@ public class GamePanel extends JPanel implements GameStateListener {
             gbc.fill = GridBagConstraints.BOTH;
             add(logScroll, gbc);
 
+            // 지연 표시: "핑 23ms (±3) | 입력 150ms"
+            latencyLabel = new JLabel("핑 -", SwingConstants.CENTER);
+            latencyLabel.setForeground(Color.LIGHT_GRAY);
+
+            gbc.gridy = 3;
+            gbc.weighty = 0;
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            add(latencyLabel, gbc);
+
             JButton exitButton = new JButton("나가기");
             exitButton.setBackground(new Color(255, 70, 70));
             exitButton.setForeground(Color.WHITE);
 
-            gbc.gridy = 3;
+            gbc.gridy = 4;
             gbc.weighty = 0;
             add(exitButton, gbc);
 
@@ -266,6 +316,17 @@ public class GamePanel extends JPanel implements GameStateListener {
             });
         }
 
+        public void addControl(javax.swing.JComponent control) {
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.gridx = 0;
+            gbc.gridy = 5;
+            gbc.weightx = 1.0;
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            gbc.insets = new Insets(0, 10, 10, 10);
+            add(control, gbc);
+            revalidate();
+        }
+
         public void updateRanking(List<String> names) {
             rankModel.clear();
             for (int i = 0; i < names.size(); i++) {
@@ -273,6 +334,12 @@ public class GamePanel extends JPanel implements GameStateListener {
             }
         }
 
+        public void updateLatency(long rttMs, long jitterMs, long inputMs) {
+            String text = rttMs < 0 ? "핑 -" : "핑 " + rttMs + "ms (±" + jitterMs + ")";
+            if (inputMs >= 0) text += " | 입력 " + inputMs + "ms";
+            latencyLabel.setText(text);
+        }
+
         
         // JTextArea에 메시지를 추가하는 기능
         public void appendSystemMessage(String msg) {
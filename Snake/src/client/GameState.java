@@ -5,8 +5,8 @@ import java.util.*;
 
 public class GameState {
 
-    // (플레이어 이름, 뱀 몸 리스트 (픽셀 좌표))
-    public Map<String, java.util.List<Point>> snakeBodies = new HashMap<>();
+    // (플레이어 이름, 뱀 몸통 (머리 픽셀 좌표 + 구간 목록))
+    public Map<String, SnakeInfo> snakeBodies = new HashMap<>();
 
     // (플레이어 이름, 생존 여부)
     public Map<String, Boolean> snakeAlive = new HashMap<>();
@@ -17,7 +17,16 @@ public class GameState {
     // (플레이어 이름, 색상)
     public Map<String, Color> snakeColors = new HashMap<>();
 
-    // 사과 좌표
+    // (플레이어 이름, 이 상태에 반영된 마지막 MOVE 순번) - 서버가 @순번으로 보내줌
+    public Map<String, Integer> inputAcks = new HashMap<>();
+
+    // 사과 좌표 (예전 서버용. 아이템 목록이 있으면 그것을 그림)
     public int appleX;
     public int appleY;
+
+    // 보드 위 아이템: x, y(픽셀), 종류(protocol.ItemCodec) 3개씩
+    public int[] items = new int[0];
+
+    // 서버 틱 번호 (MOVE에 "보던 틱"으로 붙여 보냄, 예전 서버면 -1)
+    public long tick = -1;
 }
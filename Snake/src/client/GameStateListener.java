@@ -5,4 +5,6 @@ public interface GameStateListener {
     void onGameStateUpdated(GameState state);
     default void onChatMessage(String msg) {};
     void onGameOver(GameState finalState);
+    // 지연 측정값 (ms, 아직 모르면 -1): 서버 왕복 시간, 지터, 방향키 → 화면 반영까지
+    default void onLatencyUpdated(long rttMs, long jitterMs, long inputMs) {};
 }
@@ -1,20 +1,54 @@
 package client;
 
 import java.awt.Color;
-import java.awt.Point;
-import java.io.*;
-import java.net.Socket;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.swing.SwingUtilities;
 
+import protocol.ItemCodec;
+import protocol.Protocol;
+import protocol.StateCodec;
+import protocol.StateCompressor;
+import transport.Connection;
+import transport.NioTransport;
+import transport.TcpTransport;
+
 public class NetworkClient {
 
-    private Socket socket;
-    private BufferedReader in;
-    private PrintWriter out;
+    // 서버 연결 (-Dsnake.transport=nio 이면 SocketChannel, 아니면 Socket. 벤치마크는 메모리 연결을 직접 넘김)
+    // 로비 라우터가 REDIRECT를 보내면 다른 게임 서버 연결로 바뀌므로 volatile (핑 스레드도 사용)
+    private volatile Connection connection;
+
+    // 라우터 주소로 접속하면 "REDIRECT 호스트 포트"를 받고 그 노드로 다시 접속해서 첫 메시지를 다시 보냄
+    // 방이 다른 서버로 옮겨질 때는 "REDIRECT 호스트 포트 이름" → 그 이름으로 JOIN해서 자기 지렁이를 되찾음
+    // (이미 죽어서 보고 있던 중이면 새 서버에도 관전자로 들어감)
+    private static final int MAX_REDIRECTS = 3; // STATE를 한 번도 못 받고 연달아 옮겨지는 횟수 제한
+    private String firstMessage;
+    private int redirects = 0;
+    private volatile boolean gameOver = false;
+
+    // 킬캠: 서버가 GAMEOVER 직전에 보내는 "KILLCAM <상태>" 줄들(죽기 직전 몇 틱)을 모았다가
+    // GAMEOVER를 받으면 KILLCAM_FRAME_MS 간격으로 다시 보여준 뒤 게임 오버 화면으로 넘어감
+    // 재생하는 동안 들어오는 관전 STATE는 화면에 넘기지 않음 (lastGameState만 갱신)
+    private static final long KILLCAM_FRAME_MS = 120;
+    private final List<GameState> killcam = new ArrayList<>();
+    private volatile boolean playingKillcam = false;
+
+    // 서버에 저장된 최고 점수 (GAMEOVER 직전에 HISCORE로 받음, 높은 순). GameOverPanel이 읽음
+    private volatile Map<String, Integer> allTimeBest = new LinkedHashMap<>();
+    private volatile Map<String, Integer> todayBest = new LinkedHashMap<>();
+
+    // 보드 위 아이템: 서버가 ITEMS로 바뀐 것만 보내므로 여기서 모아 둠 (픽셀 좌표 (x << 16 | y) → 종류, 수신 스레드만 사용)
+    // 화면에는 바뀔 때만 새로 만든 사본(itemView)을 STATE마다 붙여서 넘김 (ReplayClient는 재생 스레드)
+    private final Map<Integer, Integer> items = new HashMap<>();
+    private long itemsVersion = -1;
+    volatile int[] itemView = new int[0];
 
     // CopyOnWriteArrayList는 여러 스레드에서 동시에 add/remove해도 안전한 리스트
     private final List<GameStateListener> listeners = new CopyOnWriteArrayList<>();
@@ -22,6 +56,35 @@ public class NetworkClient {
     
     public GameState lastGameState;
 
+    // -Dsnake.udp=true 이면 JOIN 후 STATE를 UDP로 받도록 요청 (JOIN/CHAT/GAMEOVER는 계속 TCP)
+    private final boolean useUdp = Boolean.getBoolean("snake.udp");
+    private String host;
+    private UdpStateReceiver udpReceiver;
+
+    // -Dsnake.deflate=true 이면 JOIN에 +deflate를 붙여 STATE를 압축(Z 줄)으로 받음
+    private final boolean useDeflate = Boolean.getBoolean("snake.deflate");
+
+    // -Dsnake.rle=true 이면 JOIN에 +rle를 붙여 몸통을 구간 형식으로 받음 (긴 지렁이가 많을 때 STATE가 훨씬 작음)
+    private final boolean useRle = Boolean.getBoolean("snake.rle");
+    private final StateCompressor decompressor = new StateCompressor();
+
+    // 지연 측정
+    // RTT: 1초마다 "PING <보낸 시각>" → 서버가 바로 "PONG <같은 값>". 평활 RTT(1/8)와 지터(1/16)는 TCP/RTP 방식
+    // 입력 지연: MOVE마다 순번을 붙이고, 서버가 STATE에 "그 순번이 반영됐다"(@순번)고 알려주면 키 입력 시각과의 차이
+    // 지난번 측정값은 다음 PING에 실어 보내서 서버도 백분위수로 집계
+    private static final long PING_INTERVAL_MS = 1000;
+    private static final int MOVE_HISTORY = 64; // 순번 → 보낸 시각 (2의 제곱수)
+    private String myName;
+    // 서버가 JOINED로 알려준 내 이름 (같은 닉네임이 있으면 "이름#2"). 받기 전에는 null → 입력 지연을 재지 않음
+    // (입력한 닉네임으로 찾으면 같은 이름의 다른 사람 @순번을 읽게 됨)
+    private volatile String joinedName;
+    private int moveSeq = 0;
+    private final long[] moveSentAt = new long[MOVE_HISTORY];
+    private int lastAckedSeq = 0;
+    private long rttNanos = -1;
+    private long jitterNanos = -1;
+    private long inputNanos = -1;
+
     
     // 네트워크 패킷을 처리해서 UI에 반영할 때, GamePanel처럼 GameState를 수신해야 하는 객체를 등록
     public void addListener(GameStateListener listener) {
@@ -35,14 +98,46 @@ public class NetworkClient {
     // StartPanel에서 호출: 서버 접속 + JOIN 전송
     // 텍스트 기반 프로토콜을 사용하기 때문에 PrintWriter로 메시지를 쉽게 보내기 위해 사용
     public void connect(String host, int port, String nickname) throws IOException {
-        socket = new Socket(host, port);
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true);
+        // 간단한 텍스트 프로토콜 예시: "JOIN 닉네임"
+        this.myName = nickname;
+        this.host = host;
+        open(dial(host, port), joinMessage(nickname));
+        if (useUdp) {
+            send(Protocol.UDP); // 서버가 "UDP <포트> <토큰>"으로 응답
+        }
+    }
+
+    // 이미 열린 연결로 입장 (같은 JVM 안의 LoopbackTransport 등, UDP 없음)
+    public void connect(Connection connection, String nickname) throws IOException {
+        this.myName = nickname;
+        open(connection, joinMessage(nickname));
+    }
+
+    // 관전자로 접속: 지렁이 없이 게임 화면만 받음 (서버의 관전 중계가 전송)
+    public void connectAsSpectator(String host, int port) throws IOException {
+        this.host = host;
+        open(dial(host, port), Protocol.SPECTATE);
+    }
+
+    // "JOIN 닉네임 +deflate +rle" (서버가 모르는 옵션은 무시)
+    private String joinMessage(String nickname) {
+        return Protocol.JOIN + nickname + (useDeflate ? " +deflate" : "") + (useRle ? " +rle" : "");
+    }
+
+    private static Connection dial(String host, int port) throws IOException {
+        if ("nio".equalsIgnoreCase(System.getProperty("snake.transport"))) {
+            return NioTransport.connect(host, port);
+        }
+        return TcpTransport.connect(host, port);
+    }
+
+    private void open(Connection connection, String firstMessage) throws IOException {
+        this.connection = connection;
+        this.firstMessage = firstMessage;
 
         running = true;
 
-        // 간단한 텍스트 프로토콜 예시: "JOIN 닉네임"
-        out.println("JOIN " + nickname);
+        connection.writeLine(firstMessage);
 
         // 서버로부터 데이터를 받기위한 수신 스레드 시작
         //Thread receiveThread = new Thread(this::receiveLoop, "Client-Receive-Thread");
@@ -50,21 +145,94 @@ public class NetworkClient {
         receiveThread.setName("Client-Receive-Thread");
         receiveThread.setDaemon(true);
         receiveThread.start();
+
+        Thread pingThread = new Thread(() -> pingLoop());
+        pingThread.setName("Client-Ping-Thread");
+        pingThread.setDaemon(true);
+        pingThread.start();
     }
 
     // 방향키 입력 시 호출
     public void sendMove(String direction) {
-        if (out != null) {
-            // 예: "MOVE UP", "MOVE LEFT"
-            out.println("MOVE " + direction);
+        if (connection != null) {
+            // 예: "MOVE UP 17 1234" (입력 순번 → 입력 지연 측정용, 그때 보던 STATE의 틱 → 서버 지연 보정용)
+            int seq;
+            synchronized (moveSentAt) {
+                seq = ++moveSeq;
+                moveSentAt[seq & (MOVE_HISTORY - 1)] = System.nanoTime();
+            }
+            GameState viewing = lastGameState;
+            send(Protocol.move(direction, seq, viewing != null ? viewing.tick : -1));
+        }
+    }
+
+    private void pingLoop() {
+        while (running) {
+            // 보낸 시각은 서버가 그대로 돌려주므로 클라이언트 시계 값이어도 됨. 뒤의 세 값은 지난 측정값(us, 모르면 -1)
+            send(Protocol.PING + System.nanoTime() + " " + toMicros(rttNanos) + " " + toMicros(jitterNanos)
+                    + " " + toMicros(inputNanos));
+            try {
+                Thread.sleep(PING_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // 보내기 실패는 무시 (끊기면 수신 스레드가 readLine에서 알게 됨)
+    private void send(String line) {
+        try {
+            connection.writeLine(line);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1000;
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1_000_000;
+    }
+
+    private void handlePong(String sentAt) {
+        long sample;
+        try {
+            sample = System.nanoTime() - Long.parseLong(sentAt.trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (rttNanos < 0) {
+            rttNanos = sample;
+            jitterNanos = sample / 2;
+        } else {
+            jitterNanos += (Math.abs(sample - rttNanos) - jitterNanos) / 16;
+            rttNanos += (sample - rttNanos) / 8;
         }
+        notifyLatency();
+    }
+
+    // 내 지렁이의 @순번이 늘었으면 그 MOVE를 보낸 뒤 처음 화면에 반영되는 상태가 도착한 것
+    private void checkInputAck(GameState state) {
+        String name = joinedName;
+        if (name == null) return;
+        Integer acked = state.inputAcks.get(name);
+        if (acked == null) return;
+        long sample;
+        synchronized (moveSentAt) {
+            if (acked <= lastAckedSeq || acked > moveSeq || moveSeq - acked >= MOVE_HISTORY) return;
+            lastAckedSeq = acked;
+            sample = System.nanoTime() - moveSentAt[acked & (MOVE_HISTORY - 1)];
+        }
+        inputNanos = inputNanos < 0 ? sample : inputNanos + (sample - inputNanos) / 4;
+        notifyLatency();
     }
 
     
     private void receiveLoop() {
         try {
             String line;
-            while ((line = in.readLine()) != null) {
+            while ((line = connection.readLine()) != null) {
 
             	// 서버에서 받은 모든 텍스트를 콘솔에 출력하는 디버깅용 코드
                 //System.out.println("RECV >>> " + line);  
@@ -75,43 +243,87 @@ public class NetworkClient {
                 // 3. parseState(payload) 호출 -> payload에서 뱀, 사과, 점수 정보를 각각 분해해서 GameState에 넣음
                 // 4. notifyStateUpdated(state) - UI 스레드에서 안전하게 실행되도록 invokeLater로 전달
                 // 5. GamePanel.onGameStateUpdated(state) - 새 상태로 UI 갱신
-                if (line.startsWith("STATE") || line.startsWith("STATE_UPDATE")) {
-
-                    String payload = line.substring(line.indexOf(" ") + 1).trim();
-                    //System.out.println("⚠ RAW STATE = " + payload);
-
-                    GameState state = parseState(payload);
-                    
-                    // lastGameState에 최신 상태를 계속 받아 갱신
-                    lastGameState = state;
-                    notifyStateUpdated(state);
+                if (line.startsWith(Protocol.STATE)) {
+                    redirects = 0;
+                    handleState(line);
+                }
+                // 압축된 STATE: "Z <base64>" → 풀어서 같은 처리
+                else if (line.startsWith(StateCompressor.PREFIX)) {
+                    handleState(decompressor.decompress(line.substring(StateCompressor.PREFIX.length())));
+                }
+                // 입장 확인: "JOINED 이름" → 이후 STATE에서 자기 입력 확인(@순번)은 이 이름으로 찾음
+                else if (line.startsWith(Protocol.JOINED)) {
+                    joinedName = line.substring(Protocol.JOINED.length());
+                }
+                // RTT 측정 응답: "PONG <PING에 보낸 값>"
+                else if (line.startsWith(Protocol.PONG)) {
+                    handlePong(line.substring(Protocol.PONG.length()));
+                }
+                // UDP 협상 응답: "UDP <포트> <토큰>" 이면 UDP 수신 시작, "UDP OFF" 이면 TCP로 복귀
+                else if (line.startsWith(Protocol.UDP + " ")) {
+                    handleUdpReply(line.substring(4).trim());
                 }
                 // 서버 메시지 처리 흐름
                 // 1. 서버가 CHAT 메시지를 보냄
                 // 2. 클라이언트에서 수신
                 // 3. GameStateListener에 있는 onChatMessage 메서드로 Listener에게 전달
                 // 4. GamePanel에서 메시지 표시
-                else if (line.startsWith("CHAT")) {
-                    notifyChatMessage(line.substring(5));
+                else if (line.startsWith(Protocol.CHAT)) {
+                    notifyChatMessage(line.substring(Protocol.CHAT.length()));
+                }
+                // 로비 라우터가 배정한 게임 서버로 옮김: "REDIRECT 호스트 포트"
+                else if (line.startsWith(Protocol.REDIRECT)) {
+                    followRedirect(line.substring(Protocol.REDIRECT.length()).trim());
+                }
+                // 서버가 접속을 받을 수 없음: "BUSY FULL"(인원 초과) / "BUSY RATE"(너무 자주 접속)
+                // / "BUSY NAME"(닉네임에 쓸 수 없는 글자) → 서버가 바로 연결을 닫음
+                else if (line.startsWith(Protocol.BUSY)) {
+                    notifyChatMessage(line.contains("NAME")
+                            ? "[서버] 닉네임에 쓸 수 없는 글자가 있습니다: " + StateCodec.NAME_RESERVED
+                            : line.contains("RATE")
+                            ? "[서버] 접속 시도가 너무 잦습니다. 잠시 후 다시 시도하세요."
+                            : "[서버] 접속 인원이 가득 찼습니다. 잠시 후 다시 시도하세요.");
                 }
                 
+                // 아이템 변경: "ITEMS 버전 기준|x,y,종류;..." (기준이 -1이면 전체 목록)
+                else if (line.startsWith(Protocol.ITEMS)) {
+                    handleItems(line.substring(Protocol.ITEMS.length()));
+                }
+
+                // 최고 점수: "HISCORE 전체|오늘"
+                else if (line.startsWith(Protocol.HISCORE)) {
+                    String[] boards = line.substring(Protocol.HISCORE.length()).split("\\|", -1);
+                    allTimeBest = parseScores(boards[0]);
+                    todayBest = parseScores(boards.length > 1 ? boards[1] : "");
+                }
+                // 킬캠 프레임: GAMEOVER가 올 때까지 모아둠
+                // 아이템은 킬캠 시점의 것을 따로 받지 않으므로 지금 가진 목록으로 그림 (2초 남짓이라 거의 같음)
+                else if (line.startsWith(Protocol.KILLCAM)) {
+                    GameState frame = parseState(line.substring(Protocol.KILLCAM.length()));
+                    frame.items = itemView;
+                    killcam.add(frame);
+                }
+
                 // 서버 게임 종료 처리 흐름
                 // 1. 서버가 GAMEOVER 메시지를 보냄
                 // 2. 클라이언트에서 수신
                 // 3. GameStateListener에 있는 onGameOver 메서드로 Listener에게 전달
                 // 4. GamePanel에서 GameOverPanel로 변경
-                else if (line.startsWith("GAMEOVER")) {
-                    String payload = null;
-
-                    if (line.contains(" ")) {
-                        payload = line.substring(line.indexOf(" ") + 1).trim();
-                    }
+                else if (line.startsWith(Protocol.GAMEOVER)) {
+                    gameOver = true;
+                    String payload = Protocol.payload(line);
 
                     GameState finalState = (payload != null)
                             ? parseState(payload)
                             : this.lastGameState; // 마지막 STATE 백업본 사용
+                    if (payload != null) finalState.items = itemView;
 
-                    notifyGameOver(finalState);
+                    if (killcam.isEmpty()) {
+                        notifyGameOver(finalState);
+                    } else {
+                        playKillcam(new ArrayList<>(killcam), finalState);
+                        killcam.clear();
+                    }
                 }
             }
         } catch (Exception e) {
@@ -119,94 +331,179 @@ public class NetworkClient {
         }
     }
 
-    
-    private void notifyChatMessage(String msg) {
-        for (GameStateListener l : listeners) {
-            SwingUtilities.invokeLater(() -> l.onChatMessage(msg));
-        }
+    // TCP/UDP 어느 쪽으로 온 STATE든 같은 방식으로 처리
+    private void handleState(String line) {
+        String payload = Protocol.payload(line);
+        //System.out.println("⚠ RAW STATE = " + payload);
+
+        GameState state = parseState(payload);
+        state.items = itemView;
+        
+        // lastGameState에 최신 상태를 계속 받아 갱신
+        lastGameState = state;
+        checkInputAck(state);
+        if (!playingKillcam) notifyStateUpdated(state);
     }
 
-    private void notifyGameOver(GameState finalState) {
-        for (GameStateListener l : listeners) {
-            SwingUtilities.invokeLater(() -> l.onGameOver(finalState));
+    // 가진 버전이 기준과 다르면(관전 중계가 밀려 놓친 변경이 있음) 다음 전체 목록까지 무시
+    // ReplayClient도 재생 중인 시뮬레이션의 전체 목록을 여기로 넘김
+    void handleItems(String payload) {
+        ItemCodec.Items update = ItemCodec.decode(payload);
+        if (update == null) return;
+        if (update.base < 0) {
+            items.clear();
+        } else if (update.base != itemsVersion) {
+            return;
+        }
+        for (int i = 0; i < update.count; i++) {
+            int key = (update.xs[i] << 16) | (update.ys[i] & 0xFFFF);
+            if (update.types[i] == ItemCodec.NONE) {
+                items.remove(key);
+            } else {
+                items.put(key, update.types[i]);
+            }
+        }
+        itemsVersion = update.version;
+
+        int[] view = new int[items.size() * 3];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> item : items.entrySet()) {
+            view[i++] = item.getKey() >> 16;
+            view[i++] = (short) (int) item.getKey();
+            view[i++] = item.getValue();
         }
+        itemView = view;
     }
 
+    // "이름=점수,이름=점수" → 순서 그대로
+    private static Map<String, Integer> parseScores(String list) {
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        for (String entry : list.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) continue;
+            try {
+                scores.put(entry.substring(0, eq), Integer.parseInt(entry.substring(eq + 1).trim()));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return scores;
+    }
 
-    private GameState parseState(String payload) {
-
-        GameState gs = new GameState();
-        if (payload == null || payload.isEmpty()) return gs;
-
-        String[] parts = payload.split("\\|");
-
-        /** -------------- [0]  뱀 정보 ------------------ */
-        if (parts.length > 0) {
-            String[] players = parts[0].split(";");
-
-            for (String p : players) {
+    public Map<String, Integer> getAllTimeBest() {
+        return allTimeBest;
+    }
 
-                if (!p.contains(":")) continue;
+    public Map<String, Integer> getTodayBest() {
+        return todayBest;
+    }
 
-                String name = p.substring(0, p.indexOf(":"));
-                String bodyStr = p.substring(p.indexOf(":") + 1, p.indexOf("("));
-                boolean alive = p.contains("(A)");
-                
-                
-                // 색상 파싱
-                int colorStart = p.indexOf("[");
-                int colorEnd = p.indexOf("]");
-                Color color = Color.GREEN;
-
-                if (colorStart != -1 && colorEnd != -1) {
-                    try {
-                        String[] rgb = p.substring(colorStart + 1, colorEnd).split(",");
-                        int r = Integer.parseInt(rgb[0]);
-                        int g = Integer.parseInt(rgb[1]);
-                        int b = Integer.parseInt(rgb[2]);
-                        color = new Color(r, g, b);
-                    } catch (Exception ignored) {}
+    // 수신 루프를 막지 않도록 별도 스레드에서 재생
+    private void playKillcam(List<GameState> frames, GameState finalState) {
+        playingKillcam = true;
+        Thread player = new Thread(() -> {
+            try {
+                for (GameState frame : frames) {
+                    notifyStateUpdated(frame);
+                    Thread.sleep(KILLCAM_FRAME_MS);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                notifyGameOver(finalState);
+                playingKillcam = false;
+            }
+        }, "Killcam");
+        player.setDaemon(true);
+        player.start();
+    }
 
-                gs.snakeColors.put(name, color);
-
+    // 라우터 연결을 닫고 배정된 노드로 다시 접속 (수신 루프는 바뀐 connection에서 계속 읽음)
+    private void followRedirect(String target) throws IOException {
+        if (++redirects > MAX_REDIRECTS) throw new IOException("REDIRECT가 너무 많습니다: " + target);
+        String[] parts = target.split(" ", 3); // 이름에는 공백이 있을 수 있음
+        if (gameOver) {
+            firstMessage = Protocol.SPECTATE;
+        } else if (parts.length > 2 && firstMessage.startsWith(Protocol.JOIN)) {
+            myName = parts[2]; // 서버가 정해준 이름 (같은 닉네임이 있어서 "이름#2"가 됐을 수 있음)
+            firstMessage = joinMessage(myName);
+        }
+        joinedName = null; // 새 서버가 JOINED로 다시 알려줌
+        Connection previous = connection;
+        this.host = parts[0];
+        this.connection = dial(host, Integer.parseInt(parts[1]));
+        previous.close();
+        connection.writeLine(firstMessage);
+        if (useUdp && firstMessage.startsWith(Protocol.JOIN)) {
+            send(Protocol.UDP); // 라우터에 보낸 UDP 요청은 버려졌으므로 노드에 다시
+        }
+    }
 
-                List<Point> body = new ArrayList<>();
-                String[] pts = bodyStr.split(",");
+    private void handleUdpReply(String reply) {
+        if (reply.equals("OFF")) {
+            closeUdp();
+            return;
+        }
+        try {
+            String[] parts = reply.split(" ");
+            udpReceiver = new UdpStateReceiver(host, Integer.parseInt(parts[0]), Long.parseLong(parts[1]),
+                    this::handleState);
+            udpReceiver.start();
+        } catch (Exception e) {
+            System.out.println("UDP 연결 실패, TCP로 계속 받습니다: " + e.getMessage());
+        }
+    }
 
-                for (int i = 0; i < pts.length - 1; i += 2) {
-                    body.add(new Point(
-                            Integer.parseInt(pts[i]),
-                            Integer.parseInt(pts[i + 1])
-                    ));
-                }
+    private void closeUdp() {
+        if (udpReceiver != null) {
+            udpReceiver.close();
+            udpReceiver = null;
+        }
+    }
 
-                gs.snakeBodies.put(name, body);
-                gs.snakeAlive.put(name, alive);
-            }
+    private void notifyLatency() {
+        long rtt = toMillis(rttNanos), jitter = toMillis(jitterNanos), input = toMillis(inputNanos);
+        for (GameStateListener l : listeners) {
+            SwingUtilities.invokeLater(() -> l.onLatencyUpdated(rtt, jitter, input));
         }
+    }
 
-        /** -------------- [1]  사과 정보 ------------------ */
-        if (parts.length > 1 && parts[1].startsWith("A:")) {
-            String[] xy = parts[1].substring(2).split(",");
-            gs.appleX = Integer.parseInt(xy[0]);
-            gs.appleY = Integer.parseInt(xy[1]);
+    
+    private void notifyChatMessage(String msg) {
+        for (GameStateListener l : listeners) {
+            SwingUtilities.invokeLater(() -> l.onChatMessage(msg));
         }
+    }
 
-        /** -------------- [2]  점수 정보 ------------------ */
-        if (parts.length > 2 && parts[2].startsWith("S:")) {
-            String[] scoreData = parts[2].substring(2).split(",");
-            for (String s : scoreData) {
-                String[] kv = s.split("=");
-                if (kv.length == 2) {
-                    gs.scores.put(kv[0], Integer.parseInt(kv[1]));
-                }
-            }
+    protected void notifyGameOver(GameState finalState) {
+        for (GameStateListener l : listeners) {
+            SwingUtilities.invokeLater(() -> l.onGameOver(finalState));
         }
-        
-        //System.out.println("⚠ RAW STATE = " + payload);
+    }
 
 
+    // 리플레이 재생(ReplayClient)도 같은 STATE 문자열을 쓰므로 static으로 공유
+    // 문자열 해석은 서버와 같은 protocol.StateCodec이 하고, 여기서는 화면용 GameState로 옮기기만 함
+    static GameState parseState(String payload) {
+        GameState gs = new GameState();
+        StateCodec.State state = StateCodec.decode(payload);
+
+        for (StateCodec.Snake snake : state.snakes) {
+            SnakeInfo body = new SnakeInfo(snake.name);
+            body.headX = snake.headX;
+            body.headY = snake.headY;
+            body.runs = snake.runs;
+            body.alive = snake.alive;
+            gs.snakeBodies.put(snake.name, body);
+            gs.snakeAlive.put(snake.name, snake.alive);
+            gs.snakeColors.put(snake.name, snake.rgb >= 0 ? new Color(snake.rgb) : Color.GREEN);
+            if (snake.ackedSeq > 0) gs.inputAcks.put(snake.name, snake.ackedSeq);
+        }
+        if (state.hasApple) {
+            gs.appleX = state.appleX;
+            gs.appleY = state.appleY;
+        }
+        gs.scores.putAll(state.scores);
+        gs.tick = state.tick;
         return gs;
     }
 
@@ -214,7 +511,7 @@ public class NetworkClient {
 
     // receiveLoop 안에서 바로 panel.repaint() 같은 걸 부르면 UI 스레드 충돌 발생 가능
     // invokeLater()로 UI 스레드로 안전하게 게임 상태를 전달하는 코드를 예약
-    private void notifyStateUpdated(GameState state) {
+    protected void notifyStateUpdated(GameState state) {
         for (GameStateListener l : listeners) {
             // UI 스레드에서 그리도록 SwingUtilities 사용
             javax.swing.SwingUtilities.invokeLater(() -> l.onGameStateUpdated(state));
@@ -223,8 +520,7 @@ public class NetworkClient {
 
     public void close() {
         running = false;
-        try { if (in != null) in.close(); } catch (IOException ignored) {}
-        if (out != null) out.close();
-        try { if (socket != null) socket.close(); } catch (IOException ignored) {}
+        closeUdp();
+        if (connection != null) connection.close();
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package client;
+
+import java.io.File;
+import java.io.IOException;
+
+import protocol.Protocol;
+import server.ReplayPlayer;
+
+// 서버 대신 리플레이 파일(.snkr)에서 게임 상태를 만들어내는 NetworkClient
+// GamePanel 입장에서는 서버에 접속한 것과 똑같이 STATE가 들어오므로 그리기 코드를 그대로 사용
+//
+// 재생 속도는 1x ~ 64x, 화면 갱신은 FRAME_MS마다 한 번만 (고속 재생 시 여러 틱을 진행한 뒤 마지막 상태만 그림)
+// 방향키: ←/→ 10초 뒤로/앞으로, ↑/↓ 재생 속도 2배/절반
+public class ReplayClient extends NetworkClient {
+
+    public static final int[] SPEEDS = { 1, 2, 4, 8, 16, 32, 64 };
+    private static final int FRAME_MS = 16;
+    private static final int SKIP_SECONDS = 10;
+
+    private final ReplayPlayer player;
+    private volatile int speedIndex = 0;
+    private volatile boolean paused = false;
+    private volatile boolean active = true;
+
+    // 재생 위치가 바뀔 때마다 컨트롤 패널에 알리기 위한 콜백
+    private volatile Runnable progressListener;
+
+    public ReplayClient(File file) throws IOException {
+        this.player = new ReplayPlayer(file);
+    }
+
+    public void start() {
+        publish(); // 첫 화면
+        Thread playbackThread = new Thread(() -> playbackLoop());
+        playbackThread.setName("Replay-Playback-Thread");
+        playbackThread.setDaemon(true);
+        playbackThread.start();
+    }
+
+    private void playbackLoop() {
+        double pendingTicks = 0; // 경과 시간만큼 진행해야 할 틱 수 (소수점 누적)
+        long last = System.nanoTime();
+
+        while (active) {
+            long now = System.nanoTime();
+            if (!paused) {
+                pendingTicks += (now - last) / 1_000_000.0 / player.getTickRateMs() * getSpeed();
+            }
+            last = now;
+
+            int steps = (int) pendingTicks;
+            pendingTicks -= steps;
+            boolean advanced = false;
+            for (int i = 0; i < steps; i++) {
+                if (!player.step()) {
+                    paused = true; // 끝까지 재생하면 일시정지
+                    pendingTicks = 0;
+                    break;
+                }
+                advanced = true;
+            }
+            if (advanced) publish();
+
+            try {
+                Thread.sleep(FRAME_MS);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    // 현재 시뮬레이션 상태를 STATE 문자열 -> GameState로 바꿔서 GamePanel에 전달
+    // 아이템은 STATE의 A:(사과 하나)가 아니라 시뮬레이션의 전체 목록으로 채움 (서버 접속 때의 ITEMS와 같은 경로)
+    // 탐색(seek)이 재생 스레드와 겹쳐도 상태와 아이템이 같은 틱이 되도록 player를 잡고 함께 읽음
+    private synchronized void publish() {
+        String state;
+        String items;
+        synchronized (player) {
+            state = player.currentState();
+            items = player.currentItems();
+        }
+        handleItems(items.substring(Protocol.ITEMS.length()));
+        GameState gs = parseState(Protocol.payload(state));
+        gs.items = itemView;
+        lastGameState = gs;
+        notifyStateUpdated(gs);
+
+        Runnable listener = progressListener;
+        if (listener != null) listener.run();
+    }
+
+    public void seek(int tick) {
+        player.seek(tick);
+        publish();
+    }
+
+    public int getCurrentTick() {
+        return player.getCurrentTick();
+    }
+
+    public int getTotalTicks() {
+        return player.getTotalTicks();
+    }
+
+    public int getTickRateMs() {
+        return player.getTickRateMs();
+    }
+
+    public int getSpeed() {
+        return SPEEDS[speedIndex];
+    }
+
+    public void setSpeedIndex(int index) {
+        speedIndex = Math.max(0, Math.min(SPEEDS.length - 1, index));
+        Runnable listener = progressListener;
+        if (listener != null) listener.run();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        // 끝에서 다시 재생하면 처음부터
+        if (!paused && player.getCurrentTick() >= player.getTotalTicks()) {
+            seek(0);
+        }
+        this.paused = paused;
+    }
+
+    public void setProgressListener(Runnable listener) {
+        this.progressListener = listener;
+    }
+
+    // GamePanel의 방향키 입력을 재생 조작으로 사용
+    @Override
+    public void sendMove(String direction) {
+        int skipTicks = SKIP_SECONDS * 1000 / player.getTickRateMs();
+        switch (direction) {
+            case "LEFT" -> seek(getCurrentTick() - skipTicks);
+            case "RIGHT" -> seek(getCurrentTick() + skipTicks);
+            case "UP" -> setSpeedIndex(speedIndex + 1);
+            case "DOWN" -> setSpeedIndex(speedIndex - 1);
+        }
+    }
+
+    @Override
+    public void close() {
+        active = false;
+        player.close();
+    }
+}
@@ -0,0 +1,90 @@
+package client;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GridLayout;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+// 리플레이 재생 시 SidePanel 아래에 붙는 조작 패널 (재생/일시정지, 속도, 탐색 슬라이더)
+public class ReplayControlPanel extends JPanel {
+
+    private final ReplayClient replayClient;
+    private final JSlider slider;
+    private final JLabel timeLabel;
+    private final JButton playButton;
+    private final JButton speedButton;
+
+    // 재생 스레드가 슬라이더를 옮길 때는 탐색(seek)하지 않도록 구분
+    private boolean updatingSlider = false;
+
+    public ReplayControlPanel(ReplayClient replayClient) {
+        this.replayClient = replayClient;
+
+        setBackground(Color.BLACK);
+        setLayout(new GridLayout(3, 1, 0, 4));
+
+        timeLabel = new JLabel("", SwingConstants.CENTER);
+        timeLabel.setForeground(Color.WHITE);
+        timeLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        add(timeLabel);
+
+        slider = new JSlider(0, Math.max(1, replayClient.getTotalTicks()), 0);
+        slider.setBackground(Color.BLACK);
+        slider.setFocusable(false); // 방향키는 GameCanvas가 받아야 함
+        slider.addChangeListener(e -> {
+            if (!updatingSlider) {
+                replayClient.seek(slider.getValue());
+            }
+        });
+        add(slider);
+
+        JPanel buttons = new JPanel(new GridLayout(1, 2, 4, 0));
+        buttons.setBackground(Color.BLACK);
+
+        playButton = new JButton();
+        playButton.setFocusable(false);
+        playButton.addActionListener(e -> {
+            replayClient.setPaused(!replayClient.isPaused());
+            refresh();
+        });
+        buttons.add(playButton);
+
+        speedButton = new JButton();
+        speedButton.setFocusable(false);
+        speedButton.addActionListener(e -> {
+            // 1x -> 2x -> ... -> 64x -> 1x 순환
+            int next = 0;
+            for (int i = 0; i < ReplayClient.SPEEDS.length; i++) {
+                if (ReplayClient.SPEEDS[i] == replayClient.getSpeed()) next = (i + 1) % ReplayClient.SPEEDS.length;
+            }
+            replayClient.setSpeedIndex(next);
+        });
+        buttons.add(speedButton);
+        add(buttons);
+
+        replayClient.setProgressListener(() -> SwingUtilities.invokeLater(this::refresh));
+        refresh();
+    }
+
+    private void refresh() {
+        int tick = replayClient.getCurrentTick();
+        updatingSlider = true;
+        slider.setValue(tick);
+        updatingSlider = false;
+
+        timeLabel.setText(formatTime(tick) + " / " + formatTime(replayClient.getTotalTicks()));
+        playButton.setText(replayClient.isPaused() ? "재생" : "일시정지");
+        speedButton.setText(replayClient.getSpeed() + "x");
+    }
+
+    private String formatTime(int tick) {
+        long seconds = (long) tick * replayClient.getTickRateMs() / 1000;
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+}
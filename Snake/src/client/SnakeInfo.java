@@ -1,17 +1,18 @@
 package client;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+
+import protocol.StateCodec;
 
 public class SnakeInfo {
     public String playerName;
     
-    // 리스트 형태 사용 이유
-    	// 뱀은 여러 칸으로 이루어진 객체이기 때문에 전체 몸통 좌표를 저장하기 위해 
-    	// 뱀처럼 자연스러운 움직임 구현 목적
-    // Point는 하나의 격좌 좌표를 표현(뱀의 한 조각)
-    public List<Point> segments = new ArrayList<>(); // 머리부터 꼬리까지 좌표
+    // 몸통 = 머리 좌표(픽셀) + 머리에서 꼬리 쪽으로 (방향, 칸 수) 구간 목록 (StateCodec.run 형식)
+    	// 예전에는 칸마다 Point 하나였는데, 긴 지렁이는 대부분 직선이라 구간 몇 개면 충분
+    	// 그릴 때도 구간 하나를 사각형 하나로 그림
+    public int headX;
+    public int headY;
+    public int[] runs = new int[0];
     public boolean alive = true;
     public int score = 0;
 
@@ -25,4 +26,20 @@ public class SnakeInfo {
     public void setColor(Color color) {
         this.color = color;
     }
+
+    // 머리 칸 + 구간마다 사각형 하나 (같은 칸에 겹친 꼬리 구간은 그릴 것이 없음)
+    public void paint(Graphics g, int cellPx) {
+        int x = headX, y = headY;
+        g.fillRect(x, y, cellPx, cellPx);
+        for (int run : runs) {
+            int span = StateCodec.runLength(run) * cellPx;
+            switch (StateCodec.runDirection(run)) {
+                case 0: g.fillRect(x, y - span, cellPx, span); y -= span; break; // UP
+                case 1: g.fillRect(x, y + cellPx, cellPx, span); y += span; break; // DOWN
+                case 2: g.fillRect(x - span, y, span, cellPx); x -= span; break; // LEFT
+                case 3: g.fillRect(x + cellPx, y, span, cellPx); x += span; break; // RIGHT
+                default: break;
+            }
+        }
+    }
 }
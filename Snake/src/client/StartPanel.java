@@ -4,6 +4,8 @@ import javax.swing.*;
 import javax.swing.border.AbstractBorder;
 import java.awt.*;
 
+import protocol.StateCodec;
+
 public class StartPanel extends JPanel {
     private JTextField nameField;
     private JTextField hostField;
@@ -94,6 +96,10 @@ public class StartPanel extends JPanel {
                 JOptionPane.showMessageDialog(this, "이름을 입력하세요!");
                 return;
             }
+            if (!StateCodec.isValidName(name)) {
+                JOptionPane.showMessageDialog(this, "이름에 다음 글자는 쓸 수 없습니다: " + StateCodec.NAME_RESERVED);
+                return;
+            }
 
             int port;
             try {
@@ -121,6 +127,75 @@ public class StartPanel extends JPanel {
         gbcStartButton.gridwidth = 2;
         gbcStartButton.insets = new Insets(40, 10, 10, 10); 
         add(startButton, gbcStartButton);
+
+        
+        // 관전: 이름 없이 현재 서버의 게임을 보기만 함
+        JButton spectateButton = new JButton("SPECTATE");
+        spectateButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        spectateButton.setBackground(Color.BLACK);
+        spectateButton.setForeground(new Color(0, 255, 128));
+        spectateButton.setFocusPainted(false);
+        spectateButton.setBorder(new RoundedBorder(new Color(0, 255, 128), 2, 20));
+        spectateButton.setPreferredSize(new Dimension(150, 35));
+
+        spectateButton.addActionListener(e -> {
+            String host = hostField.getText().trim();
+            int port;
+            try {
+                port = Integer.parseInt(portField.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "포트 번호가 올바르지 않습니다.");
+                return;
+            }
+
+            try {
+                networkClient.connectAsSpectator(host, port);
+                frame.showGame(networkClient, new GameState(), "관전자");
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                JOptionPane.showMessageDialog(this,
+                        "서버에 연결할 수 없습니다: " + ex.getMessage());
+            }
+        });
+
+        GridBagConstraints gbcSpectateButton = new GridBagConstraints();
+        gbcSpectateButton.gridx = 0;
+        gbcSpectateButton.gridy = 5;
+        gbcSpectateButton.gridwidth = 2;
+        gbcSpectateButton.insets = new Insets(10, 10, 0, 10);
+        add(spectateButton, gbcSpectateButton);
+
+        
+        // 서버가 저장한 리플레이 파일(.snkr) 재생
+        JButton replayButton = new JButton("REPLAY");
+        replayButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        replayButton.setBackground(Color.BLACK);
+        replayButton.setForeground(new Color(0, 255, 128));
+        replayButton.setFocusPainted(false);
+        replayButton.setBorder(new RoundedBorder(new Color(0, 255, 128), 2, 20));
+        replayButton.setPreferredSize(new Dimension(150, 35));
+
+        replayButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(new java.io.File("replays"));
+            chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Snake Royale 리플레이 (*.snkr)", "snkr"));
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+            java.io.File file = chooser.getSelectedFile();
+            try {
+                networkClient.close(); // 리플레이 중에는 서버 연결을 쓰지 않음
+                frame.showReplay(new ReplayClient(file), "[REPLAY] " + file.getName());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                JOptionPane.showMessageDialog(this, "리플레이를 열 수 없습니다: " + ex.getMessage());
+            }
+        });
+
+        GridBagConstraints gbcReplayButton = new GridBagConstraints();
+        gbcReplayButton.gridx = 0;
+        gbcReplayButton.gridy = 6;
+        gbcReplayButton.gridwidth = 2;
+        gbcReplayButton.insets = new Insets(10, 10, 10, 10);
+        add(replayButton, gbcReplayButton);
     }
 
     
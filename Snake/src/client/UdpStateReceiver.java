@@ -0,0 +1,109 @@
+package client;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// 서버 UdpStateChannel의 클라이언트 쪽
+// HELLO(토큰)를 보내 서버가 내 UDP 주소를 알게 하고, 이후 STATE 데이터그램을 받을 때마다 ACK 전송
+// 순번이 이미 받은 것보다 작거나 같으면(늦게 도착/중복) 버림 → 항상 최신 STATE만 화면에 반영
+public class UdpStateReceiver {
+
+    private static final byte HELLO = 1;
+    private static final byte STATE = 2;
+    private static final byte ACK = 3;
+    private static final int HELLO_TRIES = 10;
+    private static final int HELLO_INTERVAL_MS = 300;
+
+    private final DatagramChannel channel;
+    private final long token;
+    private final Consumer<String> onState;
+    private volatile int lastSeq = -1;
+    private volatile boolean running = true;
+
+    // 통계 (유실/순서 뒤바뀜 확인용)
+    private volatile int received = 0;
+    private volatile int dropped = 0;
+
+    public UdpStateReceiver(String host, int port, long token, Consumer<String> onState) throws IOException {
+        this.channel = DatagramChannel.open();
+        this.channel.connect(new InetSocketAddress(host, port));
+        this.token = token;
+        this.onState = onState;
+    }
+
+    public void start() {
+        Thread receiveThread = new Thread(() -> receiveLoop());
+        receiveThread.setName("Client-Udp-Thread");
+        receiveThread.setDaemon(true);
+        receiveThread.start();
+
+        // 첫 STATE가 올 때까지 HELLO 재전송 (HELLO 자체도 유실될 수 있으므로)
+        Thread helloThread = new Thread(() -> {
+            for (int i = 0; i < HELLO_TRIES && running && lastSeq < 0; i++) {
+                sendControl(HELLO, -1);
+                try {
+                    Thread.sleep(HELLO_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        helloThread.setName("Client-Udp-Hello");
+        helloThread.setDaemon(true);
+        helloThread.start();
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buf = ByteBuffer.allocate(65535);
+        while (running) {
+            try {
+                buf.clear();
+                channel.receive(buf);
+                buf.flip();
+                if (buf.remaining() < 5 || buf.get() != STATE) continue;
+
+                int seq = buf.getInt();
+                sendControl(ACK, seq);
+                if (seq <= lastSeq) {
+                    dropped++; // 늦게 도착한 예전 STATE
+                    continue;
+                }
+                lastSeq = seq;
+                received++;
+                onState.accept(StandardCharsets.UTF_8.decode(buf).toString());
+            } catch (IOException e) {
+                if (running) System.out.println("UDP 수신 오류: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void sendControl(byte type, int seq) {
+        ByteBuffer buf = ByteBuffer.allocate(1 + 8 + 4);
+        buf.put(type).putLong(token);
+        if (type == ACK) buf.putInt(seq);
+        buf.flip();
+        try {
+            channel.write(buf);
+        } catch (IOException ignored) {
+            // UDP는 실패해도 다음 프레임에서 다시 ACK
+        }
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    public void close() {
+        running = false;
+        try { channel.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,71 @@
+package protocol;
+
+// ITEMS 문자열 만들기/읽기 (서버 ItemField, 클라이언트 NetworkClient가 같이 사용)
+//
+// "ITEMS 버전 기준|x,y,종류;x,y,종류;..."
+//   기준이 -1이면 전체 목록 → 가지고 있던 아이템을 모두 버리고 이것으로 바꿈
+//   아니면 기준 버전에서 버전까지 바뀐 칸들 (순서대로 적용, 종류 0 = 그 칸의 아이템이 없어짐)
+//   → 가진 버전이 기준과 다르면 무시하고 다음 전체 목록을 기다림 (서버는 클라이언트마다 가진 버전에 맞춰 보냄)
+//   좌표는 STATE와 같은 픽셀 (칸 × StateCodec.CELL_PX)
+public final class ItemCodec {
+
+    public static final int NONE = 0;
+    public static final int APPLE = 1;  // 점수 +1, 몸 +1 (먹으면 다른 곳에 다시 생김)
+    public static final int DROP = 2;   // 죽은 지렁이가 남긴 먹이. 사과와 같고 일정 시간 뒤 사라짐
+    public static final int BOOST = 3;  // 한동안 먹이 점수 2배
+    public static final int SHRINK = 4; // 꼬리가 몇 칸 줄어듦 (점수는 그대로)
+    public static final int TYPES = 5;
+
+    private ItemCodec() {
+    }
+
+    // ---------------- 만들기 (서버) ----------------
+
+    public static StringBuilder begin(long version, long base, int entries) {
+        return new StringBuilder(24 + entries * 12).append(Protocol.ITEMS).append(version).append(' ').append(base)
+                .append('|');
+    }
+
+    // (x, y)는 칸 단위
+    public static void append(StringBuilder sb, int x, int y, int type) {
+        sb.append(x * StateCodec.CELL_PX).append(',').append(y * StateCodec.CELL_PX).append(',').append(type)
+                .append(';');
+    }
+
+    // ---------------- 읽기 (클라이언트) ----------------
+
+    public static final class Items {
+        public long version;
+        public long base;  // -1이면 전체 목록
+        public int count;
+        public int[] xs;   // 픽셀
+        public int[] ys;
+        public int[] types;
+    }
+
+    // "ITEMS " 뒤의 내용. 형식이 맞지 않으면 null
+    public static Items decode(String payload) {
+        int space = payload.indexOf(' '), bar = payload.indexOf('|');
+        if (space < 0 || bar < space) return null;
+        Items items = new Items();
+        try {
+            items.version = Long.parseLong(payload.substring(0, space));
+            items.base = Long.parseLong(payload.substring(space + 1, bar));
+            String[] entries = payload.substring(bar + 1).split(";");
+            items.xs = new int[entries.length];
+            items.ys = new int[entries.length];
+            items.types = new int[entries.length];
+            for (String entry : entries) {
+                if (entry.isEmpty()) continue;
+                String[] f = entry.split(",");
+                items.xs[items.count] = Integer.parseInt(f[0]);
+                items.ys[items.count] = Integer.parseInt(f[1]);
+                items.types[items.count] = Integer.parseInt(f[2]);
+                items.count++;
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return items;
+    }
+}
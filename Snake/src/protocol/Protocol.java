@@ -0,0 +1,65 @@
+package protocol;
+
+// 서버/클라이언트가 주고받는 한 줄 메시지의 머리말 (형식 설명은 사용하는 쪽 주석 참고)
+// 클라이언트 → 서버
+//   JOIN 닉네임 [+deflate] [+rle] / SPECTATE / MOVE 방향 [순번 [보던 틱]] / CHAT 내용 / UDP / PING 값 [rttUs jitterUs inputUs]
+// 서버 → 클라이언트
+//   STATE 상태 (StateCodec) / Z 압축된 STATE / CHAT 내용 / GAMEOVER [상태] / UDP 포트 토큰 | UDP OFF / PONG 값 / BUSY 이유(FULL|RATE|NAME)
+//   KILLCAM 상태 (GAMEOVER 직전에 죽기 전 몇 틱을 오래된 것부터 한 줄씩)
+//   HISCORE 전체|오늘 (GAMEOVER 직전, 각각 "이름=점수,..." 높은 순 최대 10명. 서버 HighScoreStore)
+//   ITEMS 버전 기준|바뀐 아이템들 (ItemCodec, 바뀐 틱에만 STATE 앞에)
+//   JOINED 이름 (입장 후 첫 STATE 앞에 한 번. 같은 닉네임이 있었으면 서버가 바꾼 "이름#2" → STATE의 @순번은 이 이름으로 찾음)
+// 로비 라우터 (클러스터 모드)
+//   게임 서버 → 라우터: NODE 아이디 호스트 포트 방수 인원 최대인원 여유ms (1초마다)
+//   라우터 → 클라이언트: REDIRECT 호스트 포트 (그 게임 서버로 다시 접속해서 같은 JOIN/SPECTATE를 보냄)
+// 방 옮기기 (같은 PC의 관리 접속만)
+//   관리 도구 → 원래 서버: MIGRATE 호스트 포트 → MIGRATED 인원 ms | MIGRATE FAIL 이유
+//   원래 서버 → 새 서버: RESTORE base64(RoomCheckpoint) → RESTORED | RESTORE FAIL 이유
+//   원래 서버 → 플레이어: REDIRECT 호스트 포트 이름 (새 서버에 그 이름으로 JOIN → 자기 지렁이를 되찾음)
+public final class Protocol {
+
+    public static final String JOIN = "JOIN ";
+    public static final String SPECTATE = "SPECTATE";
+    public static final String MOVE = "MOVE ";
+    public static final String CHAT = "CHAT ";
+    public static final String UDP = "UDP";
+    public static final String PING = "PING ";
+
+    public static final String STATE = "STATE ";
+    public static final String GAMEOVER = "GAMEOVER";
+    public static final String KILLCAM = "KILLCAM ";
+    public static final String HISCORE = "HISCORE ";
+    public static final String ITEMS = "ITEMS ";
+    public static final String JOINED = "JOINED ";
+    public static final String PONG = "PONG ";
+    public static final String BUSY = "BUSY ";
+    public static final String REDIRECT = "REDIRECT ";
+
+    public static final String NODE = "NODE ";
+
+    public static final String MIGRATE = "MIGRATE";
+    public static final String MIGRATED = "MIGRATED ";
+    public static final String RESTORE = "RESTORE";
+    public static final String RESTORED = "RESTORED";
+
+    private Protocol() {
+    }
+
+    // "MOVE UP 17" (순번이 0이면 생략 → 예전 서버와도 호환)
+    public static String move(String direction, int seq) {
+        return seq > 0 ? MOVE + direction + " " + seq : MOVE + direction;
+    }
+
+    // "MOVE UP 17 1234": 키를 누를 때 화면에 보이던 STATE의 틱 (서버 지연 보정용, 모르면 생략)
+    public static String move(String direction, int seq, long viewTick) {
+        return seq > 0 && viewTick >= 0 ? move(direction, seq) + " " + viewTick : move(direction, seq);
+    }
+
+    // "STATE a|b|c" / "GAMEOVER a|b|c" → "a|b|c" (뒤에 아무것도 없으면 null)
+    public static String payload(String line) {
+        int space = line.indexOf(' ');
+        if (space < 0) return null;
+        String payload = line.substring(space + 1).trim();
+        return payload.isEmpty() ? null : payload;
+    }
+}
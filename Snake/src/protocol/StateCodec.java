@@ -0,0 +1,256 @@
+package protocol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// STATE 문자열 만들기/읽기 (서버 GameSnapshot, 클라이언트 NetworkClient/ReplayClient가 같이 사용)
+//
+// "STATE 지렁이;지렁이;...|A:사과x,사과y|S:이름=점수,이름=점수|T:틱"
+//   지렁이: "이름:x0,y0,x1,y1,...(A)[r,g,b]@순번"  (머리부터, 좌표는 픽셀 = 칸 × CELL_PX)
+//     (A)/(D): 생존/사망, @순번: 그 플레이어의 마지막으로 반영된 MOVE 순번 (0이면 생략)
+//   구간 형식 (JOIN에 +rle를 붙인 클라이언트만): "이름:x0,y0/L12/U3/S5(A)[r,g,b]@순번"
+//     머리 좌표(픽셀) 뒤에 머리 → 꼬리 방향으로 "/방향 칸 수" (U/D/L/R, S = 같은 칸에 겹친 꼬리)
+//     → 수천 칸짜리 지렁이도 꺾인 횟수만큼의 구간 몇 개 (수십 바이트)
+//   사과가 없으면 |A: 부분 생략
+//   |T:틱 : 서버 틱 번호. 클라이언트가 MOVE에 "보던 틱"으로 붙여 보냄 (지연 보정, 서버 LagCompensation)
+//
+// 구간 하나는 int 하나: 위 4비트 방향(PlayerTable.UP/DOWN/LEFT/RIGHT, RUN_STAY) + 아래 28비트 칸 수
+// (서버 PlayerTable이 메모리에 들고 있는 형식 그대로)
+public final class StateCodec {
+
+    public static final int CELL_PX = 20; // GamePanel이 20px 단위로 그림
+
+    public static final int RUN_STAY = 4; // 앞 칸과 같은 칸 (킬 보상으로 늘어난 꼬리)
+    private static final int RUN_LENGTH_MASK = 0x0FFFFFFF;
+    private static final String RUN_LETTERS = "UDLRS";
+
+    // 닉네임에 쓸 수 없는 글자: STATE/HISCORE의 구분자 (이름 안에 있으면 읽는 쪽이 지렁이를 잘못 자름)
+    public static final String NAME_RESERVED = "():;|,[]@=";
+
+    private StateCodec() {
+    }
+
+    // 서버는 JOIN에서 이 검사를 통과하지 못한 닉네임을 거절 (BUSY NAME), 시작 화면도 보내기 전에 확인
+    public static boolean isValidName(String name) {
+        if (name.isEmpty()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            if (NAME_RESERVED.indexOf(name.charAt(i)) >= 0) return false;
+        }
+        return true;
+    }
+
+    // ---------------- 만들기 (서버) ----------------
+
+    // 몸통 구간을 순서대로 읽는 방법 (서버 스냅샷은 이전 틱과 배열을 나눠 쓰므로 배열 하나가 아닐 수 있음)
+    public interface Runs {
+        int runCount();
+
+        int run(int i);
+    }
+
+    public static int run(int direction, int length) {
+        return (direction << 28) | length;
+    }
+
+    public static int runDirection(int run) {
+        return run >>> 28;
+    }
+
+    public static int runLength(int run) {
+        return run & RUN_LENGTH_MASK;
+    }
+
+    // 머리 (headX, headY)(칸 단위)와 구간들. rle면 구간 그대로, 아니면 칸마다 좌표로 풀어서 씀
+    public static void appendSnake(StringBuilder sb, String name, int headX, int headY, Runs runs, boolean rle,
+            boolean alive, int rgb, int ackedSeq) {
+        sb.append(name).append(":");
+        sb.append(headX * CELL_PX).append(",").append(headY * CELL_PX);
+        int x = headX, y = headY;
+        for (int r = 0, count = runs.runCount(); r < count; r++) {
+            int run = runs.run(r);
+            int dir = runDirection(run), n = runLength(run);
+            if (rle) {
+                sb.append("/").append(RUN_LETTERS.charAt(dir)).append(n);
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                x += DX[dir];
+                y += DY[dir];
+                sb.append(",").append(x * CELL_PX).append(",").append(y * CELL_PX);
+            }
+        }
+        sb.append(alive ? "(A)" : "(D)");
+        sb.append("[")
+          .append((rgb >> 16) & 0xFF).append(",")
+          .append((rgb >> 8) & 0xFF).append(",")
+          .append(rgb & 0xFF)
+          .append("]");
+        if (ackedSeq > 0) sb.append("@").append(ackedSeq);
+        sb.append(";");
+    }
+
+    public static void appendApple(StringBuilder sb, int x, int y) {
+        sb.append("|A:").append(x * CELL_PX).append(",").append(y * CELL_PX);
+    }
+
+    public static void appendScores(StringBuilder sb, String[] names, int[] scores) {
+        sb.append("|S:");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(names[i]).append("=").append(scores[i]);
+        }
+    }
+
+    public static void appendTick(StringBuilder sb, long tick) {
+        sb.append("|T:").append(tick);
+    }
+
+    // ---------------- 읽기 (클라이언트) ----------------
+
+    // 방향별 한 칸 이동 (UP, DOWN, LEFT, RIGHT, STAY)
+    private static final int[] DX = { 0, 0, -1, 1, 0 };
+    private static final int[] DY = { -1, 1, 0, 0, 0 };
+
+    public static final class Snake {
+        public final String name;
+        public final int headX;    // 픽셀
+        public final int headY;
+        public final int[] runs;   // 머리 → 꼬리 구간 (어느 형식으로 받았든 구간으로 바꿔 둠)
+        public final boolean alive;
+        public final int rgb;      // 색이 없으면 -1
+        public final int ackedSeq; // 없으면 0
+
+        Snake(String name, int headX, int headY, int[] runs, boolean alive, int rgb, int ackedSeq) {
+            this.name = name;
+            this.headX = headX;
+            this.headY = headY;
+            this.runs = runs;
+            this.alive = alive;
+            this.rgb = rgb;
+            this.ackedSeq = ackedSeq;
+        }
+    }
+
+    public static final class State {
+        public final List<Snake> snakes = new ArrayList<>();
+        public boolean hasApple = false;
+        public int appleX;
+        public int appleY;
+        public final Map<String, Integer> scores = new LinkedHashMap<>();
+        public long tick = -1; // 예전 서버는 보내지 않음
+    }
+
+    // "STATE " 뒤의 내용. 잘못된 부분은 건너뜀 (화면 하나가 깨지는 것이 연결이 끊기는 것보다 나음)
+    public static State decode(String payload) {
+        State state = new State();
+        if (payload == null || payload.isEmpty()) return state;
+
+        String[] parts = payload.split("\\|");
+        if (parts.length == 0) return state; // "|||" 처럼 구분자만 있음
+
+        // [0] 지렁이
+        for (String p : parts[0].split(";")) {
+            int colon = p.indexOf(':');
+            int paren = p.indexOf('(');
+            if (colon < 0 || paren < colon) continue;
+
+            String name = p.substring(0, colon);
+            boolean alive = p.contains("(A)");
+
+            int rgb = -1;
+            int colorStart = p.indexOf('['), colorEnd = p.indexOf(']');
+            if (colorStart != -1 && colorEnd > colorStart) {
+                try {
+                    String[] c = p.substring(colorStart + 1, colorEnd).split(",");
+                    rgb = (Integer.parseInt(c[0]) << 16) | (Integer.parseInt(c[1]) << 8) | Integer.parseInt(c[2]);
+                } catch (RuntimeException ignored) {
+                }
+            }
+
+            int ackedSeq = 0;
+            int ackStart = p.indexOf("]@");
+            if (ackStart != -1) {
+                try {
+                    ackedSeq = Integer.parseInt(p.substring(ackStart + 2).trim());
+                } catch (NumberFormatException ignored) {
+                }
+            }
+
+            String body = p.substring(colon + 1, paren);
+            try {
+                state.snakes.add(body.indexOf('/') >= 0
+                        ? decodeRuns(name, body, alive, rgb, ackedSeq)
+                        : decodePoints(name, body, alive, rgb, ackedSeq));
+            } catch (RuntimeException e) {
+                // 깨진 지렁이 하나는 건너뜀
+            }
+        }
+
+        // [1..] 사과 / 점수 / 틱 (깨진 부분이나 점수 항목 하나는 건너뜀)
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i];
+            try {
+                if (part.startsWith("A:")) {
+                    String[] xy = part.substring(2).split(",");
+                    int x = Integer.parseInt(xy[0]);
+                    int y = Integer.parseInt(xy[1]);
+                    state.appleX = x;
+                    state.appleY = y;
+                    state.hasApple = true;
+                } else if (part.startsWith("S:")) {
+                    for (String s : part.substring(2).split(",")) {
+                        String[] kv = s.split("=");
+                        if (kv.length != 2) continue;
+                        try {
+                            state.scores.put(kv[0], Integer.parseInt(kv[1]));
+                        } catch (NumberFormatException ignored) {
+                        }
+                    }
+                } else if (part.startsWith("T:")) {
+                    state.tick = Long.parseLong(part.substring(2).trim());
+                }
+            } catch (RuntimeException e) {
+                // 깨진 부분 하나는 건너뜀
+            }
+        }
+        return state;
+    }
+
+    // "x0,y0/L12/U3" → 구간 그대로
+    private static Snake decodeRuns(String name, String body, boolean alive, int rgb, int ackedSeq) {
+        String[] parts = body.split("/");
+        String[] head = parts[0].split(",");
+        int[] runs = new int[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            int dir = RUN_LETTERS.indexOf(parts[i].charAt(0));
+            if (dir < 0) throw new IllegalArgumentException("구간 방향: " + parts[i]);
+            runs[i - 1] = run(dir, Integer.parseInt(parts[i].substring(1)));
+        }
+        return new Snake(name, Integer.parseInt(head[0]), Integer.parseInt(head[1]), runs, alive, rgb, ackedSeq);
+    }
+
+    // "x0,y0,x1,y1,..." (칸마다 좌표) → 이웃한 칸의 방향이 같으면 한 구간으로 합침
+    private static Snake decodePoints(String name, String body, boolean alive, int rgb, int ackedSeq) {
+        String[] pts = body.split(",");
+        int count = pts.length / 2;
+        int headX = Integer.parseInt(pts[0]), headY = Integer.parseInt(pts[1]);
+        int[] runs = new int[Math.max(0, count - 1)];
+        int runCount = 0;
+        int px = headX, py = headY;
+        for (int i = 1; i < count; i++) {
+            int x = Integer.parseInt(pts[i * 2]), y = Integer.parseInt(pts[i * 2 + 1]);
+            int dir = y < py ? 0 : y > py ? 1 : x < px ? 2 : x > px ? 3 : RUN_STAY;
+            if (runCount > 0 && runDirection(runs[runCount - 1]) == dir) {
+                runs[runCount - 1]++;
+            } else {
+                runs[runCount++] = run(dir, 1);
+            }
+            px = x;
+            py = y;
+        }
+        return new Snake(name, headX, headY, Arrays.copyOf(runs, runCount), alive, rgb, ackedSeq);
+    }
+}
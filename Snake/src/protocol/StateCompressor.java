@@ -0,0 +1,76 @@
+package protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// STATE 프레임 압축 (JOIN에 +deflate를 붙인 클라이언트만)
+// STATE 문자열은 이름, "(A)", RGB 값, 20의 배수 좌표가 계속 반복되므로
+// 자주 나오는 조각을 미리 넣어둔 사전(preset dictionary)으로 프레임마다 따로 압축
+// → 프레임끼리 의존하지 않으므로 서버는 프레임당 한 번만 압축해서 모든 클라이언트에게 같은 바이트를 보냄
+//
+// 텍스트 줄 프로토콜을 유지하기 위해 압축 결과는 Base64로 한 줄에 담아 "Z <base64>" 로 전송
+public class StateCompressor {
+
+    public static final String PREFIX = "Z ";
+
+    private static final byte[] DICTIONARY = buildDictionary();
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final Inflater inflater = new Inflater(true);
+    private byte[] buffer = new byte[64 * 1024];
+
+    // 자주 나오는 조각일수록 사전 끝쪽에 둠 (deflate는 가까운 거리를 더 짧게 표현)
+    private static byte[] buildDictionary() {
+        StringBuilder sb = new StringBuilder();
+        // 20px 단위 좌표 (보드 960x760)
+        for (int v = 0; v <= 960; v += 20) {
+            sb.append(v).append(',');
+        }
+        for (int v = 0; v <= 960; v += 20) {
+            sb.append(v).append(',').append(v + 20).append(',');
+        }
+        sb.append("=0,=1,=2,=3,=4,=5,=10,|S:|A:");
+        sb.append("(D)[(A)[255,0,0];(A)[");
+        sb.append("STATE ");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // "STATE ..." 한 줄을 "Z <base64>" 한 줄로
+    public String compress(String stateLine) {
+        byte[] input = stateLine.getBytes(StandardCharsets.UTF_8);
+        deflater.reset();
+        deflater.setDictionary(DICTIONARY);
+        deflater.setInput(input);
+
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            int n = deflater.deflate(buffer, length, buffer.length - length, Deflater.SYNC_FLUSH);
+            length += n;
+            if (length < buffer.length) break; // SYNC_FLUSH로 입력을 전부 내보냄
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(Arrays.copyOf(buffer, length));
+    }
+
+    // "Z " 뒤의 base64를 원래 "STATE ..." 한 줄로 (클라이언트 수신 스레드에서 사용)
+    public String decompress(String base64) throws DataFormatException {
+        byte[] input = Base64.getDecoder().decode(base64);
+        inflater.reset();
+        inflater.setDictionary(DICTIONARY);
+        inflater.setInput(input);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+        byte[] chunk = new byte[8 * 1024];
+        while (!inflater.needsInput()) {
+            int n = inflater.inflate(chunk);
+            if (n == 0 && (inflater.needsInput() || inflater.finished())) break;
+            out.write(chunk, 0, n);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
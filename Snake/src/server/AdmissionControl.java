@@ -0,0 +1,79 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import protocol.Protocol;
+import transport.Connection;
+
+// 접속 폭주(경기 시작 직후 수백~수천 명이 동시에 접속) 대비 입구 제한
+// accept 스레드에서 바로 판단해서, 받을 수 없는 접속은 스레드를 만들기 전에 "BUSY <이유>" 한 줄만 보내고 닫음
+//   - 최대 동시 접속 수 (-Dsnake.maxConnections, 기본 500)
+//   - IP별 접속 속도: 토큰 버킷 (-Dsnake.connectRate 초당 개수, 기본 5 / -Dsnake.connectBurst 순간 최대, 기본 10)
+// 받아들인 접속은 ClientHandler가 끝날 때 release()로 반납
+class AdmissionControl {
+
+    private static final long IDLE_BUCKET_MS = 60_000; // 이만큼 조용한 IP의 버킷은 정리
+
+    private final int maxConnections;
+    private final int rate;
+    private final int burst;
+
+    private int connections = 0;
+    private final Map<InetAddress, TokenBucket> buckets = new HashMap<>();
+    private long lastCleanup = System.currentTimeMillis();
+
+    AdmissionControl() {
+        this.maxConnections = Integer.getInteger("snake.maxConnections", 500);
+        this.rate = Integer.getInteger("snake.connectRate", 5);
+        this.burst = Integer.getInteger("snake.connectBurst", 10);
+    }
+
+    // 받아들이면 null, 거절하면 클라이언트에게 보낼 이유
+    synchronized String tryAdmit(InetAddress address) {
+        long now = System.currentTimeMillis();
+        cleanup(now);
+
+        if (connections >= maxConnections) return "FULL";
+
+        TokenBucket bucket = buckets.get(address);
+        if (bucket == null) {
+            bucket = new TokenBucket(rate, burst, now);
+            buckets.put(address, bucket);
+        }
+        if (!bucket.tryTake(now)) return "RATE";
+
+        connections++;
+        return null;
+    }
+
+    synchronized void release() {
+        connections--;
+    }
+
+    int getMaxConnections() {
+        return maxConnections;
+    }
+
+    synchronized int getConnections() {
+        return connections;
+    }
+
+    // 거절: 스레드 없이 accept 스레드에서 한 줄 보내고 바로 닫음
+    static void reject(Connection connection, String reason) {
+        try {
+            connection.writeLine(Protocol.BUSY + reason);
+        } catch (IOException ignored) {
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void cleanup(long now) {
+        if (now - lastCleanup < IDLE_BUCKET_MS) return;
+        lastCleanup = now;
+        buckets.values().removeIf(b -> now - b.getUpdatedAt() > IDLE_BUCKET_MS);
+    }
+}
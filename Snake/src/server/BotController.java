@@ -0,0 +1,158 @@
+package server;
+
+import java.util.Arrays;
+
+// 서버 AI 봇 (-Dsnake.bots=N : 사람 + 봇이 N명이 되도록 빈 자리를 봇으로 채움)
+// 봇은 handler가 없는 일반 플레이어라서 이동/충돌/점수 규칙은 GameLogic 그대로 적용됨
+// 봇이 하는 일은 틱 시작 전에 다음 방향을 정하는 것뿐 (리플레이에는 보통 플레이어처럼 JOIN/MOVE로 기록)
+//
+// 봇마다 길찾기를 하면 봇 수 × 보드 크기라서, 틱마다 보드 전체에 한 번만 BFS를 돌림
+//   1. 점유 격자: 살아있는 지렁이 몸통 칸 (이번 틱에 비워질 꼬리 칸은 제외)
+//   2. 거리장(flow field): 먹이 칸들(사과, 남은 먹이, 부스트. 축소는 제외)에서 시작하는 BFS → 칸마다 "가장 가까운 먹이까지 거리"
+//   3. 봇마다: 역방향을 뺀 3방향 중 막히지 않은 칸에서 거리가 가장 짧은 쪽으로
+//      (다른 지렁이 머리가 다음 틱에 들어올 수 있는 칸, 막다른 칸은 벌점 → 가까워도 피함)
+// → 틱당 비용은 보드 크기 + 봇 수에 비례 (봇 수백 마리도 틱 예산 안에 들어감)
+class BotController {
+
+    private static final int W = GameLogic.BOARD_WIDTH;
+    private static final int H = GameLogic.BOARD_HEIGHT;
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+    private static final int HEAD_RISK = W * H;       // 머리끼리 부딪힐 수 있는 칸
+    private static final int DEAD_END = W * H * 2;    // 들어가면 나갈 칸이 없음
+    private static final int SPAWN_PER_TICK = 4;      // 한 번에 몰려 들어오지 않도록 틱당 입장 수 제한
+
+    private static final int[] DX = { 0, 0, -1, 1 }; // PlayerTable.UP, DOWN, LEFT, RIGHT
+    private static final int[] DY = { -1, 1, 0, 0 };
+
+    private final GameLogic game;
+    private final int fill;
+    private int nextBotNumber = 1;
+
+    private final boolean[] blocked = new boolean[W * H];
+    private final byte[] headZone = new byte[W * H]; // 다음 틱에 머리가 들어올 수 있는 지렁이 수
+    private final int[] dist = new int[W * H];
+    private final int[] queue = new int[W * H];
+
+    BotController(GameLogic game, int fill) {
+        this.game = game;
+        this.fill = fill;
+        Log.info("봇 사용: 방 인원을 봇으로 채움", "fill", fill);
+    }
+
+    // GameLogic.updateGame() 처음(방향 확정 전)에 GameLogic 락 안에서 호출
+    void update(PlayerTable p, ItemField items) {
+        buildOccupancy(p);
+        adjustPopulation(p);
+        buildFlowField(items);
+        for (int s = 0; s < p.highWater; s++) {
+            if (p.used[s] && p.bot[s] && p.alive[s]) {
+                p.steer(s, null, chooseDirection(p, s), 0, -1);
+            }
+        }
+    }
+
+    // 사람이 들어오면 봇을 하나씩 빼고, 빈 자리는 봇으로 채움
+    private void adjustPopulation(PlayerTable p) {
+        int bots = 0;
+        int lastBot = -1;
+        for (int s = 0; s < p.highWater; s++) {
+            if (p.used[s] && p.bot[s]) {
+                bots++;
+                lastBot = s;
+            }
+        }
+        if (p.count > fill && bots > 0) {
+            game.removeBot(lastBot);
+            return;
+        }
+        for (int i = 0; i < SPAWN_PER_TICK && p.count < fill; i++) {
+            int slot = game.addBot("BOT-" + nextBotNumber++); // 자리는 SpawnPlanner가 고름
+            if (slot < 0) break; // 빈 자리 없음
+            for (int k = 0; k < p.length[slot]; k++) {
+                int cell = p.cell(slot, k);
+                blocked[PlayerTable.cellY(cell) * W + PlayerTable.cellX(cell)] = true;
+            }
+        }
+    }
+
+    private void buildOccupancy(PlayerTable p) {
+        Arrays.fill(blocked, false);
+        Arrays.fill(headZone, (byte) 0);
+        for (int s = 0; s < p.highWater; s++) {
+            if (!p.used[s] || !p.alive[s]) continue;
+            int len = p.length[s];
+            int solid = p.justAte[s] ? len : len - 1; // 안 먹었으면 꼬리 칸은 이번 이동에서 비워짐
+            for (int i = 0; i < solid; i++) {
+                int cell = p.cell(s, i);
+                int x = PlayerTable.cellX(cell), y = PlayerTable.cellY(cell);
+                if (x >= 0 && x < W && y >= 0 && y < H) blocked[y * W + x] = true;
+            }
+            int head = p.headCell(s);
+            int hx = PlayerTable.cellX(head), hy = PlayerTable.cellY(head);
+            for (int d = 0; d < 4; d++) {
+                int nx = hx + DX[d], ny = hy + DY[d];
+                if (nx >= 0 && nx < W && ny >= 0 && ny < H) headZone[ny * W + nx]++;
+            }
+        }
+    }
+
+    // 먹이 칸에서 시작하는 BFS (먹이가 여러 개여도 시작점만 늘리면 됨)
+    private void buildFlowField(ItemField items) {
+        Arrays.fill(dist, UNREACHABLE);
+        int tail = 0;
+        for (int i = 0, n = items.count(); i < n; i++) {
+            if (items.typeAtIndex(i) == ItemField.SHRINK) continue;
+            int cell = items.cellAt(i);
+            int idx = PlayerTable.cellY(cell) * W + PlayerTable.cellX(cell);
+            dist[idx] = 0;
+            queue[tail++] = idx;
+        }
+        for (int headIdx = 0; headIdx < tail; headIdx++) {
+            int idx = queue[headIdx];
+            int x = idx % W, y = idx / W;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || nx >= W || ny < 0 || ny >= H) continue;
+                int next = ny * W + nx;
+                if (blocked[next] || dist[next] != UNREACHABLE) continue;
+                dist[next] = dist[idx] + 1;
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    // 역방향을 뺀 3방향 중 비용이 가장 낮은 방향. 동점이면 지금 방향 유지
+    private byte chooseDirection(PlayerTable p, int s) {
+        byte current = p.direction[s];
+        int head = p.headCell(s);
+        int hx = PlayerTable.cellX(head), hy = PlayerTable.cellY(head);
+
+        byte best = current;
+        int bestCost = Integer.MAX_VALUE;
+        for (byte d = 0; d < 4; d++) {
+            if ((d ^ 1) == current) continue;
+            int nx = hx + DX[d], ny = hy + DY[d];
+            if (nx < 0 || nx >= W || ny < 0 || ny >= H) continue; // 벽
+            int idx = ny * W + nx;
+            if (blocked[idx]) continue; // 몸통
+
+            int cost = Math.min(dist[idx], UNREACHABLE);
+            if (headZone[idx] > 1) cost += HEAD_RISK; // 내 머리 말고도 들어올 수 있는 머리가 있음
+            if (freeNeighbours(nx, ny) == 0) cost += DEAD_END;
+            if (cost < bestCost || (cost == bestCost && d == current)) {
+                best = d;
+                bestCost = cost;
+            }
+        }
+        return best; // 갈 곳이 없으면 그대로 직진
+    }
+
+    private int freeNeighbours(int x, int y) {
+        int free = 0;
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (nx >= 0 && nx < W && ny >= 0 && ny < H && !blocked[ny * W + nx]) free++;
+        }
+        return free;
+    }
+}
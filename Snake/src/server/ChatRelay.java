@@ -0,0 +1,157 @@
+package server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// 채팅 전용 중계 (게임 STATE 전송 경로와 분리)
+// 예전에는 ClientHandler가 CHAT을 받자마자 server.broadcast()를 호출해서 STATE 전송과 같은 ServerMain 락을 두고 경쟁했음
+// → 채팅이 몰리면 게임 프레임이 밀림
+//
+// 이제 CHAT은 대기열에 넣기만 하고, 채팅 스레드가 flushMs(기본 120ms = 한 틱)마다 모인 줄을 한 번에 묶어 보냄
+//   - 플레이어별 토큰 버킷 (-Dsnake.chat.rate 초당 개수, 기본 2 / -Dsnake.chat.burst 순간 최대, 기본 5). 넘치면 버림
+//   - 대기열 전체 상한 MAX_PENDING (봇/폭주로 쌓여도 메모리와 한 묶음 크기가 일정)
+//   - 최근 채팅 기록 링 (-Dsnake.chat.history, 기본 50줄) → 새로 들어온 플레이어에게 한 번에 보내줌
+// 느린 클라이언트 때문에 전송이 막혀도 채팅만 늦어지고 게임 스레드/프레임 전송 스레드는 영향 없음
+class ChatRelay {
+
+    private static final int MAX_PENDING = 1024;   // 아직 안 보낸 줄 수 상한
+    private static final int MAX_PER_FLUSH = 100;  // 한 묶음에 보내는 최대 줄 수 (나머지는 다음 묶음)
+    private static final int MAX_LENGTH = Integer.getInteger("snake.chat.maxLength", 200); // 채팅 한 줄 최대 글자 수
+    private static final int RATE = Integer.getInteger("snake.chat.rate", 2);
+    private static final int BURST = Integer.getInteger("snake.chat.burst", 5);
+
+    private final ServerMain server;
+    private final long flushMs;
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Queue<ClientHandler> newcomers = new ConcurrentLinkedQueue<>(); // 기록을 받아야 할 새 플레이어
+    private final Thread thread;
+
+    // 최근 채팅 기록 (채팅 스레드만 읽고 씀)
+    private final String[] history;
+    private int historyNext = 0;
+    private int historySize = 0;
+
+    private long dropped = 0; // 대기열이 가득 차서 버린 줄 (채팅 스레드가 출력)
+    private final AtomicInteger overflow = new AtomicInteger();
+
+    ChatRelay(ServerMain server) {
+        this.server = server;
+        this.flushMs = Long.getLong("snake.chat.flushMs", 120);
+        this.history = new String[Math.max(1, Integer.getInteger("snake.chat.history", 50))];
+        this.thread = new Thread(() -> relayLoop(), "Chat-Relay");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+        Log.info("채팅 중계 시작", "flushMs", flushMs, "rate", RATE, "burst", BURST);
+    }
+
+    // ClientHandler마다 하나씩 (그 클라이언트의 읽기 스레드에서만 사용)
+    static TokenBucket newLimiter() {
+        return new TokenBucket(RATE, BURST, System.currentTimeMillis());
+    }
+
+    // 플레이어 채팅 (ClientHandler 읽기 스레드). 속도 제한에 걸리면 false
+    boolean say(ClientHandler from, TokenBucket limiter, String text) {
+        if (!limiter.tryTake(System.currentTimeMillis())) return false;
+        if (text.length() > MAX_LENGTH) text = text.substring(0, MAX_LENGTH);
+        enqueue("CHAT [" + from.getClientName() + "]: " + text);
+        return true;
+    }
+
+    // 서버 안내 (입장/퇴장 등, "CHAT ..." 한 줄). 속도 제한 없음
+    void announce(String line) {
+        enqueue(line);
+    }
+
+    // 입장한 플레이어에게 다음 묶음을 보낼 때 최근 기록을 먼저 보냄
+    void welcome(ClientHandler client) {
+        newcomers.add(client);
+        LockSupport.unpark(thread);
+    }
+
+    private void enqueue(String line) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            overflow.incrementAndGet();
+            return;
+        }
+        pending.add(line);
+        LockSupport.unpark(thread);
+    }
+
+    private void relayLoop() {
+        long lastFlush = 0;
+        while (true) {
+            if (pending.isEmpty() && newcomers.isEmpty()) {
+                LockSupport.park(this);
+                continue;
+            }
+            // 첫 줄이 들어온 뒤 flushMs가 지나기 전에 들어온 줄은 모두 같은 묶음으로
+            long wait = lastFlush + flushMs - System.currentTimeMillis();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            lastFlush = System.currentTimeMillis();
+            flush();
+        }
+    }
+
+    private void flush() {
+        // 1. 새 플레이어에게는 지금까지의 기록을 (이번 묶음은 아래에서 모두와 함께 받음)
+        ClientHandler newcomer;
+        String recent = historySize > 0 ? recentHistory() : null;
+        while ((newcomer = newcomers.poll()) != null) {
+            if (recent != null) newcomer.sendMessage(recent);
+        }
+
+        // 2. 모인 줄을 한 문자열(줄바꿈으로 구분)로 묶어서 클라이언트마다 한 번만 전송
+        StringBuilder batch = new StringBuilder();
+        int lines = 0;
+        String line;
+        while (lines < MAX_PER_FLUSH && (line = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            if (lines++ > 0) batch.append('\n');
+            batch.append(line);
+            remember(line);
+        }
+        if (lines == 0) return;
+
+        String message = batch.toString();
+        for (ClientHandler client : server.getClients()) {
+            client.sendMessage(message);
+        }
+        server.publishToSpectators(message);
+
+        int lost = overflow.getAndSet(0);
+        if (lost > 0) {
+            dropped += lost;
+            Log.warn("채팅 대기열이 가득 차서 버림", "lines", lost, "total", dropped);
+        }
+    }
+
+    private void remember(String line) {
+        history[historyNext] = line;
+        historyNext = (historyNext + 1) % history.length;
+        if (historySize < history.length) historySize++;
+    }
+
+    // 오래된 것부터 최근 것까지
+    private String recentHistory() {
+        StringBuilder sb = new StringBuilder();
+        int start = (historyNext - historySize + history.length) % history.length;
+        for (int i = 0; i < historySize; i++) {
+            if (i > 0) sb.append('\n');
+            sb.append(history[(start + i) % history.length]);
+        }
+        return sb.toString();
+    }
+}
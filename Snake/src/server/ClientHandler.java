@@ -1,34 +1,45 @@
 package server;
 
-import java.io.*;
-import java.net.Socket;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import protocol.Protocol;
+import protocol.StateCodec;
+import transport.Connection;
 
 // 각 클라이언트 통신 전담 스레드 (1:1 통신)
 // 수신된 메시지 파싱, 서버 로직 호출
 class ClientHandler extends Thread {
     
-    private Socket socket;          
+    private final Connection connection; // TCP/NIO 소켓 또는 메모리 연결 (transport 패키지)
     private ServerMain server;     
     private GameLogic gamelogic;
     
-    private BufferedReader in;
-    private PrintWriter out;
-    
-    private String clientName = "Unknown"; 
+    private volatile String clientName = "Unknown"; 
+    private volatile int slot = -1; // GameLogic 플레이어 표의 슬롯 번호 (입장 대기 중에는 -1)
     private volatile boolean running = true; // 스레드 종료 플래그
+    private volatile boolean spectator = false; // SPECTATE로 들어온 관전자 또는 죽은 뒤 관전 중인 플레이어 (지렁이 없음)
+    private volatile boolean dead = false;      // 게임 스레드가 사망 처리함 (슬롯은 이미 비었음, 퇴장 처리는 PlayerLifecycle이 대신)
+    private volatile boolean migrated = false;  // 방이 다른 서버로 옮겨짐 (슬롯은 이미 비었음, 새 서버로 다시 접속하므로 퇴장 안내 없음)
+    private boolean closed = false;             // 연결 종료 처리 시작 (this로 동기화, 관전 전환과 순서를 맞춤)
+    private volatile UdpStateChannel.Session udpSession; // STATE를 UDP로 받는 경우
+    private volatile boolean compressState = false; // JOIN에 +deflate → STATE를 압축(Z)해서 받음
+    private volatile boolean rleState = false;      // JOIN에 +rle → STATE의 몸통을 구간 형식으로 받음
+    private final TokenBucket chatLimiter = ChatRelay.newLimiter(); // 채팅 속도 제한 (이 읽기 스레드에서만 사용)
+    private boolean chatThrottled = false; // 속도 제한 안내를 이미 보냄 (다시 보낼 수 있을 때까지 한 번만)
+    private volatile long rttMicros = -1;    // 클라이언트가 PING으로 알려준 평활 RTT / 지터 (아직 모르면 -1)
+    private volatile long jitterMicros = -1;
+    private final Object itemsLock = new Object(); // 전송 스레드끼리 ITEMS 순서를 맞춤 (클라이언트를 맡는 스레드가 바뀔 수 있음)
+    private long itemsVersion = -1;                // 이 클라이언트에게 보낸 아이템 버전 (-1: 아직 없음 → 전체 목록)
+    private final AtomicReference<ServerMain.Frame> pendingFrame = new AtomicReference<>(); // 아직 못 보낸 가장 최신 프레임 (FramePipeline)
+    private final AtomicBoolean frameQueued = new AtomicBoolean(); // 전송 대기열에 있거나 전송 스레드가 보내는 중
+    private final AtomicBoolean nameUnsent = new AtomicBoolean(); // 입장했지만 JOINED(정해진 이름)를 아직 안 보냄
 
-    public ClientHandler(Socket socket, ServerMain server, GameLogic gamelogic) {
-        this.socket = socket;
+    public ClientHandler(Connection connection, ServerMain server, GameLogic gamelogic) {
+        this.connection = connection;
         this.server = server;
         this.gamelogic = gamelogic; // GameLogic 객체 전달받음
-        
-        try {
-            // 스트림 초기화 
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream()), true); // true: autoFlush
-        } catch (IOException e) {
-            System.out.println("스트림 초기화 오류: " + e.getMessage());
-        }
     }
 
     // 클라이언트로부터 메시지 수신
@@ -37,69 +48,254 @@ class ClientHandler extends Thread {
         try {
             // 1. 입장 프로토콜 처리
         	// 첫 번째 메시지는 "JOIN 닉네임" 프로토콜로 처리
-            String line = in.readLine(); 
-            if (line != null && line.startsWith("JOIN ")) {
-                this.clientName = line.substring(5).trim();
-
-                gamelogic.addPlayer(clientName, this);
-                System.out.println("[" + clientName + "] 님이 입장했습니다.");
-                // 모든 클라이언트에게 입장 메시지 전송 (클라이언트는 "CHAT "으로 시작하는 메시지 파싱)
-                server.broadcast("CHAT [" + clientName + "] 님이 입장했습니다.");
+            String line = connection.readLine(); 
+            if (line != null && line.startsWith(Protocol.JOIN)) {
+                // "JOIN 닉네임 +옵션..." : 끝에 붙은 +옵션은 기능 협상용
+                String joinArgs = line.substring(5).trim();
+                while (joinArgs.contains(" +")) {
+                    String option = joinArgs.substring(joinArgs.lastIndexOf(" +") + 2);
+                    if (option.equals("deflate")) compressState = true;
+                    if (option.equals("rle")) rleState = true;
+                    joinArgs = joinArgs.substring(0, joinArgs.lastIndexOf(" +")).trim();
+                }
+                if (!StateCodec.isValidName(joinArgs)) {
+                    // 괄호/쌍점 등이 든 이름은 STATE를 깨뜨려서 다른 클라이언트까지 지렁이를 못 읽음
+                    Log.warn("쓸 수 없는 닉네임", "name", joinArgs);
+                    sendMessage(Protocol.BUSY + "NAME");
+                    return;
+                }
+                this.clientName = joinArgs;
+
+                // 입장 대기열에 넣기만 함. 게임 루프가 다음 틱 경계에서 한꺼번에 입장시키고 joined()로 슬롯을 알려줌
+                // (입장 안내 CHAT도 그때 묶어서 한 번만 전송)
+                gamelogic.requestJoin(this);
+                server.getChat().welcome(this); // 최근 채팅 기록 받기
+            } else if (line != null && line.equals(Protocol.SPECTATE)) {
+                // 관전자: 지렁이를 만들지 않고 관전 중계로 게임 화면만 받음
+                this.spectator = true;
+                this.clientName = "관전자";
+                server.addSpectator(this);
+            } else if (line != null && (line.startsWith(Protocol.MIGRATE) || line.startsWith(Protocol.RESTORE))) {
+                // 방 옮기기 관리 요청: 게임 화면/채팅을 받지 않도록 목록에서 빼고 응답 한 줄만
+                server.removeClient(this);
+                sendMessage(handleAdmin(line));
+                return;
             } else {
-                System.out.println("프로토콜 오류: JOIN 메시지 필요.");
+                Log.warn("프로토콜 오류: JOIN 메시지 필요", "line", line);
                 return; 
             }  
 
             // 2. 메인 통신 루프 
             // 이후 메시지는 "MOVE" 또는 "CHAT"으로 간주하고 계속 수신
-            while (running && (line = in.readLine()) != null) { // readLine() 대기
-                if (line.startsWith("MOVE ")) {
-                    String direction = line.substring(5).trim();
-                    gamelogic.setDirection(clientName, direction); // GameLogic에 방향만 설정 (Broadcast 안함)
-                } else if (line.startsWith("CHAT ")) {
-                    // 채팅 메시지 중계
+            while (running && (line = connection.readLine()) != null) { // readLine() 대기
+                if (line.startsWith(Protocol.PING)) {
+                    // RTT 측정: "PING <값> [rttUs jitterUs inputUs]" → 읽기 스레드에서 바로 "PONG <값>"
+                    // 뒤에 붙은 숫자는 클라이언트가 지난번에 잰 지연 (서버 백분위수 집계용)
+                    handlePing(line.substring(5).trim());
+                    continue;
+                }
+                if (spectator) {
+                    continue; // 관전자는 조작/채팅 불가
+                }
+                if (line.startsWith(Protocol.MOVE)) {
+                    // "MOVE UP 17 1234": 17은 클라이언트 입력 순번 (STATE에 @17로 돌려줌, 예전 클라이언트는 생략)
+                    // 1234는 키를 누를 때 보던 STATE의 틱 (지연 보정용, 없으면 -1)
+                    String[] move = line.substring(5).trim().split(" ");
+                    int seq = 0;
+                    long viewTick = -1;
+                    try {
+                        if (move.length > 1) seq = Integer.parseInt(move[1]);
+                        if (move.length > 2) viewTick = Long.parseLong(move[2]);
+                    } catch (NumberFormatException ignored) {
+                    }
+                    gamelogic.setDirection(slot, this, move[0], seq, viewTick); // GameLogic에 방향만 설정 (Broadcast 안함)
+                } else if (line.startsWith(Protocol.CHAT)) {
+                    // 채팅 메시지 중계: 채팅 대기열에 넣기만 함 (ChatRelay가 묶어서 전송, 게임 프레임 전송과 경쟁하지 않음)
                     String chatMsg = line.substring(5);
-                    server.broadcast("CHAT [" + clientName + "]: " + chatMsg);
+                    if (server.getChat().say(this, chatLimiter, chatMsg)) {
+                        chatThrottled = false;
+                    } else if (!chatThrottled) {
+                        chatThrottled = true;
+                        sendMessage("CHAT [서버] 채팅을 너무 빠르게 보내고 있습니다. 잠시 후 다시 입력하세요.");
+                    }
+                } else if (line.equals(Protocol.UDP)) {
+                    // STATE를 UDP로 받겠다는 요청 → "UDP <포트> <토큰>" 또는 "UDP OFF" 응답
+                    sendMessage(server.openUdp(this));
                 }
             }
 
         } catch (IOException e) {
             // 클라이언트 접속 종료 
-            System.out.println(clientName + " 연결 종료됨.");
+            Log.debug("연결 종료됨", "name", clientName, "error", e.getMessage());
         } finally {
             // 종료 처리
-            System.out.println("[" + clientName + "] 님의 연결이 끊어졌습니다.");
+            Log.info("연결 끊어짐", "name", clientName, "rttMs", rttMicros < 0 ? -1 : rttMicros / 1000,
+                    "jitterMs", jitterMicros < 0 ? -1 : jitterMicros / 1000);
             
-            gamelogic.removePlayer(clientName); // GameLogic에서 플레이어 제거
-            server.removeClient(this); 
-            server.broadcast("CHAT [" + clientName + "] 님이 퇴장했습니다.");
+            server.closeUdp(this);
+            boolean watching;
+            synchronized (this) {
+                closed = true; // 이후에는 PlayerLifecycle이 관전자로 등록하지 않음
+                watching = spectator;
+            }
+            if (watching) {
+                server.removeSpectator(this);
+            } else {
+                server.removeClient(this);
+                // 죽은 플레이어는 게임 스레드가 이미 슬롯을 비웠고 탈락 안내도 PlayerLifecycle이 보냄
+                if (!dead && !migrated) {
+                    gamelogic.removePlayer(this); // GameLogic에서 플레이어 제거 (입장 대기 중이면 대기열에서 제거)
+                    if (slot >= 0) { // 입장 전에 끊긴 접속은 안내하지 않음
+                        server.getChat().announce("CHAT [" + clientName + "] 님이 퇴장했습니다.");
+                    }
+                }
+            }
             
-            try { if(out != null) out.close(); } catch (Exception e) {}    
-            try { if(in != null) in.close(); } catch (IOException e) {}
-            try { if(socket != null) socket.close(); } catch (IOException e) {}
+            connection.close();
+            server.releaseConnection(); // 접속 수 제한(AdmissionControl) 반납
+        }
+    }
+
+    private void handlePing(String args) {
+        String[] parts = args.split(" ");
+        sendMessage(Protocol.PONG + parts[0]);
+        if (parts.length >= 4) {
+            try {
+                rttMicros = Long.parseLong(parts[1]);
+                jitterMicros = Long.parseLong(parts[2]);
+                server.getLatency().record(rttMicros, Long.parseLong(parts[3]));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    // 같은 PC에서 온 관리 접속만 허용
+    // "MIGRATE 호스트 포트": 이 방을 그 서버로 옮김 / "RESTORE base64": 다른 서버에서 옮겨오는 방을 받음
+    private String handleAdmin(String line) {
+        boolean restore = line.startsWith(Protocol.RESTORE);
+        if (!connection.getAddress().isLoopbackAddress()) {
+            Log.warn("외부에서 온 방 옮기기 요청 거절", "addr", connection.getAddress());
+            return (restore ? Protocol.RESTORE : Protocol.MIGRATE) + " FAIL FORBIDDEN";
         }
+        this.clientName = "관리";
+        String[] parts = line.trim().split(" ");
+        if (parts.length < (restore ? 2 : 3)) {
+            return (restore ? Protocol.RESTORE : Protocol.MIGRATE) + " FAIL USAGE";
+        }
+        try {
+            if (restore) return RoomMigration.receive(gamelogic, parts[1]);
+            return RoomMigration.send(server, gamelogic, parts[1], Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            Log.warn("방 옮기기 요청 오류", "error", e.getMessage());
+            return (restore ? Protocol.RESTORE : Protocol.MIGRATE) + " FAIL BAD_REQUEST";
+        }
+    }
+
+    // 게임 스레드에서 사망 처리 시 호출 (GameLogic 락 안이므로 표시만)
+    void died() {
+        dead = true;
+    }
+
+    // 방 옮기기로 슬롯이 비워짐 (GameLogic 락 안이므로 표시만)
+    void migrated() {
+        migrated = true;
+    }
+
+    // PlayerLifecycle 스레드: GAMEOVER를 보낸 뒤 관전자로 전환. 이미 연결이 끊기고 있으면 false
+    synchronized boolean becomeSpectator() {
+        if (closed) return false;
+        spectator = true;
+        server.closeUdp(this); // 관전 중계는 TCP로만 보냄
+        server.addSpectator(this);
+        return true;
     }
 
-    // 외부에서 강제 종료 요청 시 호출  
-    // GameLogic에서 죽은 플레이어 소켓을 닫기 위해 필요
+    // 외부에서 강제 종료 요청 시 호출
     public void disconnect() {
         running = false;
-        try { if(socket != null) socket.close(); } catch(Exception ignored){}
-        try { if(in != null) in.close(); } catch(Exception ignored){}
-        try { if(out != null) out.close(); } catch(Exception ignored){}
+        connection.close();
     }
 
     // 현재 클라이언트에게 메시지 전송 (서버 -> 클라이언트)
     public void sendMessage(String message) {
         try {
-            if (out != null) {
-                out.println(message); // autoFlush=true이므로, flush() 불필요
-            }
-        } catch (Exception e) {
-            System.out.println("[" + clientName + "]에게 메시지 전송 오류: " + e.getMessage());
+            connection.writeLine(message);
+        } catch (IOException e) {
+            // 끊긴 연결: 읽기 스레드가 곧 정리하므로 프레임마다 경고하지 않음
+            Log.debug("메시지 전송 오류", "name", clientName, "error", e.getMessage());
         }
     }
     
+    // 전송 스레드: 이 클라이언트가 가진 아이템 버전에서 view까지의 변경을 보냄 (그 사이 보낸 것이 더 새것이면 보내지 않음)
+    void sendItems(ItemField.View view) {
+        synchronized (itemsLock) {
+            if (view.version <= itemsVersion) return;
+            String line = view.lineFrom(itemsVersion);
+            itemsVersion = view.version;
+            if (line != null) sendMessage(line);
+        }
+    }
+
+    // ---------------- FramePipeline 전송 우편함 ----------------
+
+    // 직렬화 스레드: 최신 프레임으로 교체. 못 보낸 이전 프레임을 버렸으면 true
+    boolean offerFrame(ServerMain.Frame frame) {
+        return pendingFrame.getAndSet(frame) != null;
+    }
+
+    // 대기열에 올릴 차례인지 (이미 올라가 있거나 보내는 중이면 false → 그 전송 스레드가 이어서 확인)
+    boolean claimFrameSend() {
+        return frameQueued.compareAndSet(false, true);
+    }
+
+    ServerMain.Frame takeFrame() {
+        return pendingFrame.getAndSet(null);
+    }
+
+    // 전송 스레드: 다 보냄. 그사이 새 프레임이 왔으면 true (호출한 쪽이 claimFrameSend 후 다시 대기열에)
+    boolean releaseFrameSend() {
+        frameQueued.set(false);
+        return pendingFrame.get() != null;
+    }
+
+    public boolean isCompressState() {
+        return compressState;
+    }
+
+    public boolean isRleState() {
+        return rleState;
+    }
+
+    public UdpStateChannel.Session getUdpSession() {
+        return udpSession;
+    }
+
+    void setUdpSession(UdpStateChannel.Session session) {
+        this.udpSession = session;
+    }
+
+    // 게임 루프가 입장 처리 후 호출 (같은 닉네임이 있었으면 바뀐 이름)
+    // GameLogic 락 안이므로 여기서 보내지 않고, 전송 스레드가 다음 프레임 앞에 JOINED로 보냄 (takeJoinedLine)
+    void joined(int slot, String name) {
+        this.clientName = name;
+        this.slot = slot;
+        nameUnsent.set(true);
+    }
+
+    // 전송 스레드: 아직 안 보낸 "JOINED 이름"이 있으면 한 번만 돌려줌
+    String takeJoinedLine() {
+        return nameUnsent.compareAndSet(true, false) ? Protocol.JOINED + clientName : null;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    // 클라이언트가 PING으로 알려준 평활 RTT (아직 모르면 -1)
+    long getRttMicros() {
+        return rttMicros;
+    }
+
     // 외부에서 클라이언트를 알 수 있도록 함
     public String getClientName() {
         return this.clientName;
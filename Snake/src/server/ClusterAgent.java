@@ -0,0 +1,82 @@
+package server;
+
+import java.io.IOException;
+
+import protocol.Protocol;
+import transport.Connection;
+import transport.TcpTransport;
+
+// 클러스터 모드에서 이 게임 서버(노드)를 로비 라우터(LobbyRouter)에 등록하고 부하를 알림
+// -Dsnake.router=호스트:포트 가 있을 때만 ServerMain이 시작
+//   - 연결 하나를 유지하면서 1초마다 "NODE 아이디 호스트 포트 방수 인원 최대인원 여유ms" 한 줄
+//     (방은 노드당 하나, 인원은 관전자 포함 접속 수, 여유는 GameLogic.getTickHeadroomMs)
+//   - 클라이언트가 다시 접속할 주소는 -Dsnake.advertiseHost (기본 127.0.0.1 → 한 PC에서 여러 JVM으로 시험)
+//   - 라우터가 아직 안 떴거나 죽으면 RETRY_MS 뒤 다시 접속. 라우터 없이도 노드는 혼자 계속 동작
+class ClusterAgent {
+
+    private static final long REPORT_MS = 1000;
+    private static final long RETRY_MS = 2000;
+
+    private final ServerMain server;
+    private final String routerHost;
+    private final int routerPort;
+    private final String host;
+    private final int port;
+    private final String id;
+    private final Thread thread;
+
+    ClusterAgent(ServerMain server, String router, int port) {
+        this.server = server;
+        int colon = router.lastIndexOf(':');
+        this.routerHost = colon < 0 ? router : router.substring(0, colon);
+        this.routerPort = colon < 0 ? 5000 : Integer.parseInt(router.substring(colon + 1));
+        this.host = System.getProperty("snake.advertiseHost", "127.0.0.1");
+        this.port = port;
+        this.id = host + ":" + port;
+        this.thread = new Thread(() -> reportLoop(), "Cluster-Agent");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+        Log.info("클러스터 노드 등록 시작", "node", id, "router", routerHost + ":" + routerPort);
+    }
+
+    private void reportLoop() {
+        boolean warned = false;
+        while (true) {
+            Connection connection = null;
+            try {
+                connection = TcpTransport.connect(routerHost, routerPort);
+                Log.info("라우터에 연결됨", "router", routerHost + ":" + routerPort);
+                warned = false;
+                while (true) {
+                    connection.writeLine(report());
+                    Thread.sleep(REPORT_MS);
+                }
+            } catch (IOException e) {
+                if (!warned) { // 라우터가 없는 동안 같은 경고를 반복하지 않음
+                    Log.warn("라우터에 보고할 수 없음, 다시 시도합니다", "error", e.getMessage());
+                    warned = true;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                if (connection != null) connection.close();
+            }
+            try {
+                Thread.sleep(RETRY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // ex) "NODE 127.0.0.1:5001 127.0.0.1 5001 1 37 500 104"
+    private String report() {
+        AdmissionControl admission = server.getAdmission();
+        GameLogic game = server.getGameLogic();
+        return Protocol.NODE + id + " " + host + " " + port + " 1 " + admission.getConnections() + " "
+                + admission.getMaxConnections() + " " + game.getTickHeadroomMs();
+    }
+}
@@ -0,0 +1,106 @@
+package server;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import protocol.StateCompressor;
+
+// STATE 압축 벤치마크: 인원수별 압축률과 CPU 비용 출력
+// 실행: java -cp bin server.CompressionBenchmark
+//
+// 보드 안을 돌아다니는 가짜 지렁이들로 실제와 같은 형식의 STATE 프레임을 만들고
+// 프레임당 원본 크기 / 압축(Base64 포함) 크기 / 사전 없이 압축한 크기 / 압축·해제 시간을 비교
+public class CompressionBenchmark {
+
+    private static final int[] PLAYER_COUNTS = { 1, 5, 20, 50, 100, 200 };
+    private static final int FRAMES = 500;
+    private static final int TICK_MS = 120;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("players | raw B/frame | Z B/frame | ratio | no-dict B/frame | deflate us | inflate us | saved KB/s/client");
+        for (int players : PLAYER_COUNTS) {
+            List<String> frames = makeFrames(players, new Random(players));
+
+            StateCompressor compressor = new StateCompressor();
+            // 워밍업 (JIT) 겸 왕복 검증
+            for (int i = 0; i < 3; i++) {
+                for (String frame : frames) {
+                    if (!frame.equals(compressor.decompress(compressor.compress(frame).substring(2)))) {
+                        throw new IllegalStateException("압축 왕복 결과가 원본과 다릅니다 (players=" + players + ")");
+                    }
+                }
+            }
+
+            long rawBytes = 0, zBytes = 0, plainBytes = 0;
+            List<String> compressed = new ArrayList<>(frames.size());
+            long start = System.nanoTime();
+            for (String frame : frames) {
+                compressed.add(compressor.compress(frame));
+            }
+            long deflateNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String z : compressed) {
+                compressor.decompress(z.substring(2));
+            }
+            long inflateNs = System.nanoTime() - start;
+
+            for (int i = 0; i < frames.size(); i++) {
+                rawBytes += frames.get(i).getBytes(StandardCharsets.UTF_8).length + 1; // 줄바꿈 포함
+                zBytes += compressed.get(i).length() + 1;
+                plainBytes += deflateWithoutDictionary(frames.get(i));
+            }
+
+            double raw = (double) rawBytes / FRAMES;
+            double z = (double) zBytes / FRAMES;
+            double savedPerSecond = (raw - z) * (1000.0 / TICK_MS) / 1024;
+            System.out.printf("%7d | %11.0f | %9.0f | %5.2f | %15.0f | %10.1f | %10.1f | %17.1f%n",
+                    players, raw, z, raw / z, (double) plainBytes / FRAMES,
+                    deflateNs / 1000.0 / FRAMES, inflateNs / 1000.0 / FRAMES, savedPerSecond);
+        }
+    }
+
+    // 보드 안에서 가끔 방향을 바꾸며 돌아다니는 지렁이들 (충돌 판정 없이 모양만 흉내)
+    private static List<String> makeFrames(int players, Random rand) {
+        PlayerTable table = new PlayerTable();
+        for (int i = 0; i < players; i++) {
+            int slot = table.add("player" + i, null, new Color(rand.nextInt(256), rand.nextInt(256), rand.nextInt(256)).getRGB(),
+                    2 + rand.nextInt(GameLogic.BOARD_WIDTH - 4), 1 + rand.nextInt(GameLogic.BOARD_HEIGHT - 2), PlayerTable.RIGHT);
+            table.grow(slot, rand.nextInt(30));
+            table.score[slot] = rand.nextInt(40);
+        }
+
+        List<String> frames = new ArrayList<>(FRAMES);
+        ItemField items = new ItemField();
+        items.add(PlayerTable.pack(rand.nextInt(GameLogic.BOARD_WIDTH), rand.nextInt(GameLogic.BOARD_HEIGHT)),
+                ItemField.APPLE, 0);
+        for (int f = 0; f < FRAMES; f++) {
+            for (int s = 0; s < table.highWater; s++) {
+                if (rand.nextInt(5) == 0) table.forceDirection(s, (byte) rand.nextInt(4));
+                // 벽에 닿기 전에 보드 안쪽으로 방향 전환
+                int head = table.headCell(s);
+                int x = PlayerTable.cellX(head), y = PlayerTable.cellY(head);
+                if (x <= 0) table.forceDirection(s, PlayerTable.RIGHT);
+                else if (x >= GameLogic.BOARD_WIDTH - 1) table.forceDirection(s, PlayerTable.LEFT);
+                else if (y <= 0) table.forceDirection(s, PlayerTable.DOWN);
+                else if (y >= GameLogic.BOARD_HEIGHT - 1) table.forceDirection(s, PlayerTable.UP);
+                table.move(s);
+            }
+            frames.add(GameSnapshot.capture(f, table, items.capture()).toStateString());
+        }
+        return frames;
+    }
+
+    private static int deflateWithoutDictionary(String frame) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        deflater.setInput(frame.getBytes(StandardCharsets.UTF_8));
+        byte[] out = new byte[frame.length() * 2 + 64];
+        int length = deflater.deflate(out, 0, out.length, Deflater.SYNC_FLUSH);
+        deflater.end();
+        return (length + 2) / 3 * 4 + 2; // 같은 조건으로 비교하도록 Base64 + "Z " 크기로 환산
+    }
+}
@@ -0,0 +1,54 @@
+package server;
+
+// 이벤트 버스 생산자 비용 확인: BLOCK 구독자가 멈춰 있을 때 emit N번에 걸리는 시간
+// 실행: java -cp bin server.EventBusBenchmark [이벤트 수=2000]
+//
+// 구독자는 이벤트 하나마다 오래 잠들어서 링을 전혀 비우지 못함
+// 생산자는 링이 한 바퀴 찰 때마다 최대 maxBlockMs만 기다려야 하므로, 전체 시간은 (N / 링 크기 + 1) * maxBlockMs 안쪽이어야 함
+// 넘으면 매 emit마다 기다리는 것 → 실패로 종료 코드 1
+public class EventBusBenchmark {
+
+    private static final int CAPACITY = 64;
+    private static final long MAX_BLOCK_MS = 5;
+    private static final int EVENTS_PER_TICK = 10;
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        // GameEventBus를 쓰기 전에 설정
+        setDefault("snake.log.console", "false");
+        setDefault("snake.events.maxBlockMs", String.valueOf(MAX_BLOCK_MS));
+
+        GameEventBus bus = new GameEventBus(CAPACITY);
+        bus.subscribe("stuck", GameEventBus.Backpressure.BLOCK, event -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            bus.scored(i / EVENTS_PER_TICK, 0, "p", true, i);
+            if (i % EVENTS_PER_TICK == EVENTS_PER_TICK - 1) bus.flush();
+        }
+        bus.flush();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long laps = events / CAPACITY + 1;
+        long limitMs = laps * MAX_BLOCK_MS * 2 + 50; // 타이머 오차 여유
+        System.out.printf("emit %d번 (링 %d칸, 멈춘 BLOCK 구독자 1): %dms, 허용 %dms%n", events, CAPACITY, elapsedMs, limitMs);
+        System.out.println(bus.report());
+        if (elapsedMs > limitMs) {
+            System.out.println("실패: 구독자가 멈춘 동안 생산자가 한 바퀴에 한 번보다 자주 기다림");
+            System.exit(1);
+        }
+        System.out.println("통과");
+        System.exit(0);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) System.setProperty(key, value);
+    }
+}
@@ -0,0 +1,39 @@
+package server;
+
+import java.util.Arrays;
+
+// 게임 이벤트 집계 (GameEventBus의 DROP 구독자, 보고할 때마다 초기화)
+// 구독자 스레드에서만 세므로 게임 스레드에는 비용이 없음. 밀려서 잃은 이벤트는 버스 보고의 dropped에 나옴
+final class EventStats implements GameEventBus.Listener {
+
+    private final long[] counts = new long[GameEvent.DEATH + 1];
+    private final long[] causes = new long[GameEvent.HEAD_ON + 1];
+    private int bestScore = 0;
+    private String bestName = null;
+
+    @Override
+    public synchronized void onEvent(GameEvent event) {
+        counts[event.type]++;
+        if (event.type == GameEvent.DEATH) {
+            causes[event.detail]++;
+        } else if (event.type == GameEvent.SCORE && event.value > bestScore) {
+            bestScore = event.value;
+            bestName = event.name;
+        }
+    }
+
+    // ex) "joins=3 leaves=1 eats=42 kills=2 deaths=5 (wall=2 self=1 body=2 headOn=0) best=철수:17"
+    synchronized String reportAndReset() {
+        String report = "joins=" + counts[GameEvent.JOIN] + " leaves=" + counts[GameEvent.LEAVE]
+                + " eats=" + counts[GameEvent.EAT] + " kills=" + counts[GameEvent.KILL]
+                + " deaths=" + counts[GameEvent.DEATH] + " (wall=" + causes[GameEvent.WALL]
+                + " self=" + causes[GameEvent.SELF] + " body=" + causes[GameEvent.BODY]
+                + " headOn=" + causes[GameEvent.HEAD_ON] + ")"
+                + (bestName != null ? " best=" + bestName + ":" + bestScore : "");
+        Arrays.fill(counts, 0);
+        Arrays.fill(causes, 0);
+        bestScore = 0;
+        bestName = null;
+        return report;
+    }
+}
@@ -0,0 +1,157 @@
+package server;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// 게임 루프의 "시뮬레이션 → 직렬화 → 전송"을 단계별 스레드로 분리
+//   게임 스레드    : updateGame() 후 GameSnapshot으로 값만 복사해서 publish → 바로 다음 틱 대기
+//   직렬화 스레드  : 최신 스냅샷을 STATE 문자열(+압축, UDP 데이터그램)로 프레임당 한 번 인코딩
+//   전송 스레드 N개: 프레임이 준비된 클라이언트를 대기열에서 하나씩 꺼내 전송
+//                    클라이언트마다 최신 프레임 하나만 담는 우편함이 있고, 한 클라이언트는 한 번에 한 스레드만 맡음
+//                    → 느린 클라이언트(TCP 창이 참)는 스레드 하나만 붙잡고, 나머지 클라이언트는 다른 스레드가 계속 보냄
+//                       (전송 스레드 수만큼 동시에 막혀야 전체가 밀림. 막힌 클라이언트는 풀린 뒤 최신 프레임만 받음)
+// → 틱 N을 보내는 동안 틱 N+1 시뮬레이션이 진행됨
+//
+// 단계 사이는 "가장 최신 것 하나만 보관"하는 슬롯이라 뒤 단계가 밀리면 중간 프레임은 건너뜀 (STATE는 최신 것만 의미)
+// 스냅샷은 불변 객체라서 게임 스레드가 채우는 것 / 슬롯에서 대기 중인 것 / 직렬화 중인 것, 세 벌이 돌아가는 트리플 버퍼가 됨
+class FramePipeline {
+
+    private static final int REPORT_EVERY = 250; // 프레임 수 (120ms 틱 기준 약 30초마다 단계별 지연 출력)
+    // 관전자에게는 바로 전 관전 프레임 이후의 아이템 변경을 보내고, 이 간격마다 전체 목록 (중계가 밀려 놓친 변경 복구)
+    private static final int SPECTATOR_ITEMS_FULL_EVERY = 25;
+
+    private final ServerMain server;
+    private final AtomicReference<GameSnapshot> latest = new AtomicReference<>();
+    private final Thread serializer;
+    private final Sender[] senders;
+    private final ConcurrentLinkedQueue<ClientHandler> ready = new ConcurrentLinkedQueue<>(); // 보낼 프레임이 있는 클라이언트
+
+    // 단계별 지연 측정
+    private final StageStats simulate = new StageStats("simulate");
+    private final StageStats capture = new StageStats("snapshot");
+    private final StageStats serialize = new StageStats("serialize");
+    private final StageStats send = new StageStats("send");
+    private final StageStats endToEnd = new StageStats("tick->sent");
+    private final AtomicLong skippedSnapshots = new AtomicLong();
+    private final AtomicLong skippedFrames = new AtomicLong(); // 클라이언트별로 못 보내고 최신 것으로 교체된 프레임 수
+    private long frames = 0;
+    private long spectatorItemsVersion = -1; // 직렬화 스레드만 사용
+
+    FramePipeline(ServerMain server, int senderThreads) {
+        this.server = server;
+        this.serializer = new Thread(() -> serializeLoop(), "Frame-Serializer");
+        this.serializer.setDaemon(true);
+        this.senders = new Sender[senderThreads];
+        for (int i = 0; i < senderThreads; i++) {
+            senders[i] = new Sender(i);
+        }
+    }
+
+    void start() {
+        serializer.start();
+        for (Sender sender : senders) {
+            sender.start();
+        }
+    }
+
+    // 게임 스레드에서 호출: 슬롯에 넣고 직렬화 스레드를 깨우기만 함
+    void publish(GameSnapshot snapshot, long simulateNs, long captureNs) {
+        simulate.record(simulateNs);
+        capture.record(captureNs);
+        if (latest.getAndSet(snapshot) != null) {
+            skippedSnapshots.incrementAndGet(); // 직렬화가 한 틱 이상 밀림
+        }
+        LockSupport.unpark(serializer);
+    }
+
+    private void serializeLoop() {
+        while (true) {
+            GameSnapshot snapshot = latest.getAndSet(null);
+            if (snapshot == null) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            String line = snapshot.toStateString();
+            String rleLine = server.anyWantsRle() ? snapshot.toStateString(true) : null;
+            ServerMain.Frame frame = server.encodeFrame(line, rleLine, snapshot.items, snapshot.capturedAtNanos);
+            ClientHandler[] clients = server.getClients();
+            serialize.record(System.nanoTime() - start);
+
+            for (ClientHandler client : clients) {
+                if (client.offerFrame(frame)) {
+                    skippedFrames.incrementAndGet(); // 이전 프레임을 아직 못 보냄 → 최신 것으로 교체
+                }
+                if (client.claimFrameSend()) ready.offer(client);
+            }
+            for (Sender sender : senders) {
+                LockSupport.unpark(sender);
+            }
+            LoadController load = server.getGameLogic().getLoadController();
+            if (load == null || load.sendToSpectators(frames)) {
+                String items = frames % SPECTATOR_ITEMS_FULL_EVERY == 0 ? snapshot.items.lineFrom(-1)
+                        : snapshot.items.lineFrom(spectatorItemsVersion);
+                spectatorItemsVersion = snapshot.items.version;
+                if (items != null) server.publishToSpectators(items);
+                server.publishToSpectators(line);
+            }
+
+            if (++frames % REPORT_EVERY == 0) {
+                report();
+            }
+        }
+    }
+
+    private void report() {
+        Log.info("[pipeline] " + simulate.reportAndReset() + " | " + capture.reportAndReset()
+                + " | " + serialize.reportAndReset() + " | " + send.reportAndReset()
+                + " | " + endToEnd.reportAndReset()
+                + " | skipped snapshots=" + skippedSnapshots.getAndSet(0) + " frames=" + skippedFrames.getAndSet(0));
+        Log.info("[latency] " + server.getLatency().reportAndReset());
+        Log.info("[" + server.getGameLogic().getRewind().report() + "]");
+        Log.info("[" + server.getGameLogic().getEvents().report() + "] " + server.getEventStats().reportAndReset());
+        LoadController load = server.getGameLogic().getLoadController();
+        if (load != null) {
+            Log.info("[" + load.reportAndReset() + "]");
+        }
+        LagCompensation lag = server.getGameLogic().getLagCompensation();
+        if (lag != null) {
+            Log.info("[" + lag.reportAndReset() + "]");
+        }
+    }
+
+    // 전송 스레드: 대기열에서 클라이언트를 꺼내 그 우편함의 최신 프레임을 보냄
+    // 보내는 동안 새 프레임이 오면 대기열 끝에 다시 넣음 (한 클라이언트가 스레드를 계속 붙잡지 않게)
+    private class Sender extends Thread {
+
+        Sender(int index) {
+            super("Frame-Sender-" + index);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                ClientHandler client = ready.poll();
+                if (client == null) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                ServerMain.Frame frame = client.takeFrame();
+                if (frame != null) {
+                    long start = System.nanoTime();
+                    server.sendFrame(client, frame, System.currentTimeMillis());
+                    long end = System.nanoTime();
+                    send.record(end - start);
+                    endToEnd.record(end - frame.createdAtNanos);
+                }
+                if (client.releaseFrameSend() && client.claimFrameSend()) {
+                    ready.offer(client);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package server;
+
+// 게임 이벤트 하나 (GameEventBus 참고)
+// 구독자 스레드마다 객체 하나를 계속 다시 채워서 넘기므로, onEvent 밖에 들고 있으려면 필요한 값만 복사할 것
+//
+// type   slot       name      other / otherName      value       x, y        detail
+// JOIN   들어온 슬롯  이름      -                      -           머리 칸      -
+// LEAVE  나간 슬롯    이름      -                      점수        -           -
+// EAT    먹은 슬롯    이름      -                      새 점수     아이템 칸    아이템 종류 (ItemField)
+// SCORE  슬롯        이름      -                      새 점수     -           -            (먹이/킬로 점수가 오를 때)
+// KILL   죽인 슬롯    이름      죽은 슬롯 / 이름        -           -           -
+// DEATH  죽은 슬롯    이름      죽인(부딪친) 슬롯 / 이름 최종 점수   머리 칸      원인 (WALL/SELF/BODY/HEAD_ON)
+// human: 사람 플레이어(봇, 리플레이 재생이 아님)
+final class GameEvent {
+
+    static final int JOIN = 1;
+    static final int LEAVE = 2;
+    static final int EAT = 3;
+    static final int SCORE = 4;
+    static final int KILL = 5;
+    static final int DEATH = 6;
+    private static final String[] TYPE_NAMES = { "?", "JOIN", "LEAVE", "EAT", "SCORE", "KILL", "DEATH" };
+
+    // DEATH 원인 (PlayerTable.kill이 기록)
+    static final byte WALL = 0;
+    static final byte SELF = 1;
+    static final byte BODY = 2;    // 다른 지렁이 몸통에 부딪힘 → other가 킬 점수를 받음
+    static final byte HEAD_ON = 3; // 머리끼리 부딪혀 둘 다 죽음
+
+    int type;
+    long tick;
+    int slot;
+    String name;
+    boolean human;
+    int other = -1;
+    String otherName;
+    int value;
+    int x;
+    int y;
+    int detail;
+
+    static String typeName(int type) {
+        return type > 0 && type < TYPE_NAMES.length ? TYPE_NAMES[type] : "?";
+    }
+
+    @Override
+    public String toString() {
+        return typeName(type) + "@" + tick + " " + name + (otherName != null ? " / " + otherName : "") + " " + value;
+    }
+}
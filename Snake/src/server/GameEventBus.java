@@ -0,0 +1,250 @@
+package server;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+// 게임 이벤트 버스 (입장/퇴장/사과/점수/킬/사망 → 통계, 점수 저장 등)
+// 시뮬레이션은 미리 잡아둔 링 버퍼 칸에 값을 쓰기만 하고, 구독자는 각자 스레드에서 따라 읽음 (Disruptor 방식)
+//
+// 쓰는 쪽: GameLogic 락을 잡은 스레드 하나 (게임 스레드, 퇴장은 ClientHandler 스레드) → 락이 곧 단일 생산자
+//   이벤트 하나 = 링 칸의 배열 몇 개에 값 쓰기 + claimed 증가. 틱 끝에 flush()로 published만 옮김
+//   구독자를 깨우지 않음(구독자가 POLL_MS마다 확인) → 구독자가 몇이든 게임 스레드 비용은 같음 (링이 찼을 때만 BLOCK 구독자를 깨움)
+// 읽는 쪽: 구독자마다 스레드 하나, 자기 위치(cursor)부터 published까지 onEvent 호출
+// 구독자가 밀렸을 때 (Backpressure)
+//   DROP : 생산자는 기다리지 않고 덮어씀. 구독자는 덮어써진 만큼 건너뛰고 잃은 수를 셈 (통계처럼 조금 잃어도 되는 곳)
+//   BLOCK: 링이 한 바퀴 차면 생산자가 그 구독자를 기다림 (점수 저장처럼 잃으면 안 되는 곳)
+//          링 한 바퀴(CAPACITY개)만큼 밀렸을 때만, 최대 -Dsnake.events.maxBlockMs(기본 5)까지. 넘으면 덮어쓰고 그 구독자가 잃은 수로 셈
+//          기다려도 못 따라오면 다음 한 바퀴는 확인 없이 씀 → 구독자가 멈춰 있어도 기다림은 한 바퀴에 한 번뿐
+// 덮어쓰기는 seqlock처럼 확인: 생산자가 claimed를 늘린 뒤 칸을 쓰고, 구독자는 칸을 읽은 뒤 claimed를 다시 봐서 그사이 덮어써졌으면 버림
+final class GameEventBus {
+
+    enum Backpressure { DROP, BLOCK }
+
+    interface Listener {
+        void onEvent(GameEvent event);
+    }
+
+    private static final long POLL_MS = 5;
+    private static final long MAX_BLOCK_NANOS = Long.getLong("snake.events.maxBlockMs", 5) * 1_000_000;
+
+    private final int capacity;
+    private final int mask;
+
+    // 링 칸 (필드마다 배열 하나, GameEvent 주석 참고)
+    private final int[] types;
+    private final long[] ticks;
+    private final int[] slots;
+    private final String[] names;
+    private final boolean[] humans;
+    private final int[] others;
+    private final String[] otherNames;
+    private final int[] values;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] details;
+
+    private volatile long claimed = 0;   // 쓰기 시작한 이벤트 수 (= 다음 이벤트 번호)
+    private volatile long published = 0; // 구독자에게 보이는 이벤트 수
+    private long gate = 0;               // BLOCK 구독자 중 가장 뒤처진 위치 (필요할 때만 다시 계산)
+    private volatile long blockedNanos = 0;
+    private volatile long overruns = 0;  // 기다려도 BLOCK 구독자가 못 따라와서 덮어쓴 횟수
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile Subscription[] blocking = new Subscription[0];
+
+    GameEventBus() {
+        this(Integer.getInteger("snake.events.capacity", 4096));
+    }
+
+    GameEventBus(int requested) {
+        int size = 16;
+        while (size < requested) size *= 2;
+        capacity = size;
+        mask = size - 1;
+        types = new int[size];
+        ticks = new long[size];
+        slots = new int[size];
+        names = new String[size];
+        humans = new boolean[size];
+        others = new int[size];
+        otherNames = new String[size];
+        values = new int[size];
+        xs = new int[size];
+        ys = new int[size];
+        details = new int[size];
+    }
+
+    // 구독 시작 (그 뒤에 발행된 이벤트부터 받음)
+    synchronized void subscribe(String name, Backpressure policy, Listener listener) {
+        Subscription subscription = new Subscription(name, policy, listener, published);
+        subscriptions.add(subscription);
+        if (policy == Backpressure.BLOCK) {
+            Subscription[] more = Arrays.copyOf(blocking, blocking.length + 1);
+            more[more.length - 1] = subscription;
+            blocking = more;
+        }
+        subscription.start();
+        Log.info("이벤트 구독", "name", name, "policy", policy);
+    }
+
+    // ---------------- 쓰는 쪽 (GameLogic 락 안) ----------------
+
+    void joined(long tick, int slot, String name, boolean human, int cell) {
+        emit(GameEvent.JOIN, tick, slot, name, human, -1, null, 0, cell, 0);
+    }
+
+    void left(long tick, int slot, String name, boolean human, int score) {
+        emit(GameEvent.LEAVE, tick, slot, name, human, -1, null, score, 0, 0);
+    }
+
+    void ate(long tick, int slot, String name, boolean human, int score, int itemCell, byte itemType) {
+        emit(GameEvent.EAT, tick, slot, name, human, -1, null, score, itemCell, itemType);
+    }
+
+    void scored(long tick, int slot, String name, boolean human, int score) {
+        emit(GameEvent.SCORE, tick, slot, name, human, -1, null, score, 0, 0);
+    }
+
+    void killed(long tick, int killer, String killerName, boolean human, int victim, String victimName) {
+        emit(GameEvent.KILL, tick, killer, killerName, human, victim, victimName, 0, 0, 0);
+    }
+
+    void died(long tick, int slot, String name, boolean human, int score, int headCell, byte cause, int other,
+            String otherName) {
+        emit(GameEvent.DEATH, tick, slot, name, human, other, otherName, score, headCell, cause);
+    }
+
+    // 틱 끝: 이번 틱 이벤트를 구독자에게 보이게 함
+    void flush() {
+        published = claimed;
+    }
+
+    private void emit(int type, long tick, int slot, String name, boolean human, int other, String otherName,
+            int value, int cell, int detail) {
+        int i = claim();
+        types[i] = type;
+        ticks[i] = tick;
+        slots[i] = slot;
+        names[i] = name;
+        humans[i] = human;
+        others[i] = other;
+        otherNames[i] = otherName;
+        values[i] = value;
+        xs[i] = PlayerTable.cellX(cell);
+        ys[i] = PlayerTable.cellY(cell);
+        details[i] = detail;
+    }
+
+    private int claim() {
+        long seq = claimed;
+        if (seq - gate >= capacity) {
+            waitForBlocking(seq);
+        }
+        claimed = seq + 1;
+        VarHandle.storeStoreFence(); // 칸 쓰기가 claimed 증가보다 먼저 보이지 않게 (읽는 쪽의 덮어쓰기 확인용)
+        return (int) seq & mask;
+    }
+
+    // 링이 한 바퀴 찼을 때만: BLOCK 구독자가 덮어쓸 칸을 읽을 때까지 잠깐 기다림
+    private void waitForBlocking(long seq) {
+        gate = slowestBlocking(seq);
+        if (seq - gate < capacity) return;
+        published = claimed; // 이번 틱 것까지 읽을 수 있어야 따라옴
+        for (Subscription s : blocking) {
+            LockSupport.unpark(s); // 쉬고 있으면 POLL_MS를 기다리지 않고 바로 읽게
+        }
+        long start = System.nanoTime();
+        while (seq - (gate = slowestBlocking(seq)) >= capacity && System.nanoTime() - start < MAX_BLOCK_NANOS) {
+            LockSupport.parkNanos(50_000);
+        }
+        blockedNanos += System.nanoTime() - start;
+        if (seq - gate >= capacity) {
+            overruns++;
+            gate = seq; // 한 바퀴 포기: 다음 CAPACITY개는 기다리지 않고 덮어씀 (seq + capacity에서 다시 확인)
+        }
+    }
+
+    private long slowestBlocking(long seq) {
+        long slowest = seq;
+        for (Subscription s : blocking) {
+            slowest = Math.min(slowest, s.cursor);
+        }
+        return slowest;
+    }
+
+    // ex) "events published=1520 blockedMs=0 overruns=0 | stats lag=0 dropped=0 | highscores lag=0 dropped=0"
+    String report() {
+        StringBuilder sb = new StringBuilder("events published=").append(published)
+                .append(" blockedMs=").append(blockedNanos / 1_000_000).append(" overruns=").append(overruns);
+        for (Subscription s : subscriptions) {
+            sb.append(" | ").append(s.getName().substring("Events-".length()))
+                    .append(" lag=").append(published - s.cursor).append(" dropped=").append(s.dropped);
+        }
+        return sb.toString();
+    }
+
+    // ---------------- 읽는 쪽 ----------------
+
+    private final class Subscription extends Thread {
+        private final Backpressure policy;
+        private final Listener listener;
+        private final GameEvent event = new GameEvent();
+        volatile long cursor;       // 다음에 읽을 이벤트 번호
+        volatile long dropped = 0;  // 덮어써져서 못 받은 이벤트 수
+
+        Subscription(String name, Backpressure policy, Listener listener, long from) {
+            super("Events-" + name);
+            this.policy = policy;
+            this.listener = listener;
+            this.cursor = from;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long seq = cursor;
+            while (true) {
+                long end = published;
+                if (seq >= end) {
+                    LockSupport.parkNanos(POLL_MS * 1_000_000);
+                    continue;
+                }
+                while (seq < end) {
+                    long oldest = claimed - capacity; // 이보다 앞 번호의 칸은 덮어써졌거나 덮어쓰는 중
+                    if (seq < oldest) {
+                        dropped += oldest - seq;
+                        seq = oldest;
+                        continue;
+                    }
+                    read((int) seq & mask);
+                    VarHandle.loadLoadFence();
+                    if (seq < claimed - capacity) continue; // 읽는 동안 덮어써짐 → 위에서 잃은 것으로 셈
+                    try {
+                        listener.onEvent(event);
+                    } catch (RuntimeException e) {
+                        Log.error("이벤트 구독자 오류: " + getName(), e);
+                    }
+                    seq++;
+                    if (policy == Backpressure.BLOCK) cursor = seq; // 생산자가 기다리는 기준이므로 바로 알림
+                }
+                cursor = seq;
+            }
+        }
+
+        private void read(int i) {
+            event.type = types[i];
+            event.tick = ticks[i];
+            event.slot = slots[i];
+            event.name = names[i];
+            event.human = humans[i];
+            event.other = others[i];
+            event.otherName = otherNames[i];
+            event.value = values[i];
+            event.x = xs[i];
+            event.y = ys[i];
+            event.detail = details[i];
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package server;
 
-import java.awt.Point; // 지렁이와 사과의 좌표(x, y)를 관리하기 위해 사용
+import java.awt.Color;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 // Runnable로 별도의 게임 루프 스레드로 동작
 public class GameLogic implements Runnable {
@@ -14,189 +14,619 @@ public class GameLogic implements Runnable {
     public static final int BOARD_WIDTH = 48; // 960px / 20px
     public static final int BOARD_HEIGHT = 38;  // 760px / 20px
     private final int TICK_RATE_MS = 120;     // 0.15초마다 게임 상태 갱신 (지렁이 속도)
+    // 부하가 높으면 관전 프레임/리플레이 키프레임을 줄이고 틱 간격을 늘림 (-Dsnake.adaptive=true 일 때만)
+    private final LoadController load = LoadController.ENABLED ? new LoadController(TICK_RATE_MS) : null;
 
     private ServerMain server; // broadcast를 위한 서버 참조
-    private Random rand = new Random();
+    private final long seed; // 리플레이 재현을 위해 시드를 기록
+    private Random rand;
+    private ReplayRecorder recorder; // 리플레이 기록기 (생성 실패 시 null)
+    private long tick = 0; // 지금까지 실행한 updateGame() 횟수
 
-    // 여러 ClientHandler가 동시에 지렁이의 방향을 바꿀 수 있기 때문에 스레드에 안전한 Map을 사용
-    private Map<String, SnakeInfo> snakes = new ConcurrentHashMap<>();
-    private Map<String, ClientHandler> playerHandlers = new ConcurrentHashMap<>();
+    // 큰 방용 병렬 틱 (-Dsnake.parallelTick=true). 지렁이 수가 기준 이상일 때만 사용
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("snake.parallelTick.threshold", 256);
+    private final ParallelTick parallelTick = Boolean.getBoolean("snake.parallelTick")
+            ? new ParallelTick(Runtime.getRuntime().availableProcessors()) : null;
+
+    // 플레이어 표 (int 슬롯 번호 → 배열). 닉네임은 입장/퇴장/STATE 문자열에서만 사용
+    // 순회 순서(사과 섭취/충돌 판정 순서)는 슬롯 순서이고, 슬롯은 입장/퇴장 순서로만 정해짐
+    // → 리플레이에서 같은 입장/퇴장을 적용하거나 키프레임에서 복원해도 서버와 같은 순서로 판정됨
+    private PlayerTable players = new PlayerTable();
+    private final Random colors = new Random(); // 지렁이 색 (게임 RNG와 분리해야 리플레이가 어긋나지 않음)
+    private final Random seeds = new Random();  // 키프레임 시드 (키프레임을 못 남기면 게임 RNG를 건드리지 않아야 하므로 분리)
+    private BotController bots; // -Dsnake.bots=N 일 때만 (리플레이 재생에는 없음)
+    private final SpawnPlanner spawns = new SpawnPlanner(BOARD_WIDTH, BOARD_HEIGHT); // 입장 위치 선정
+
+    // 입장 대기열: ClientHandler는 JOIN을 받으면 여기에 넣기만 하고(락 없음), 게임 루프가 틱 경계에서 한꺼번에 입장시킴
+    // → 접속이 몰려도 ClientHandler 스레드들이 GameLogic 락을 두고 틱과 경쟁하지 않음
+    private volatile long tickWorkNanos = 0; // 지난 틱의 계산+스냅샷 시간 (클러스터 부하 보고용)
+    private static final int JOINS_PER_TICK = Integer.getInteger("snake.joinsPerTick", 64);
+    private static final int ANNOUNCE_NAMES = 5; // 입장 안내에 이름을 나열할 최대 인원
+    private final Queue<ClientHandler> pendingJoins = new ConcurrentLinkedQueue<>();
     
-    private Point apple;
+    // 보드 위 아이템 (사과, 부스트, 축소, 죽은 지렁이가 남긴 먹이). 칸 → 아이템 해시라서 머리마다 한 번 조회
+    // 값은 리플레이/체크포인트가 같은 게임을 다시 만들어야 하므로 상수
+    private ItemField items = new ItemField();
+    private static final int PLAYERS_PER_APPLE = 8;  // 사과 수 = 1 + 인원 / 8
+    private static final int POWERUP_INTERVAL = 75;  // 약 9초마다 부스트/축소 하나 (보드에 MAX_POWERUPS개 미만일 때)
+    private static final int MAX_POWERUPS = 2;
+    private static final int BOOST_TICKS = 60;       // 약 7초 동안 먹이 점수 2배
+    private static final int SHRINK_CELLS = 5;
+
+    // 최근 몇 초의 스냅샷 (킬캠, 되감기). 틱마다 이전 스냅샷과 구조를 공유해서 쌓음
+    private final RewindBuffer rewind = new RewindBuffer(TICK_RATE_MS);
+    private static final int KILLCAM_TICKS = Integer.getInteger("snake.killcam.ticks", 16); // 약 2초, 0이면 킬캠 없음
+
+    // 입장/퇴장/사과/점수/킬/사망 이벤트. 틱에서는 링 버퍼에 쓰기만 하고 점수 저장/통계는 구독자 스레드가 처리
+    private final GameEventBus events = new GameEventBus();
+
+    // 지연 보정 (-Dsnake.lagcomp.ticks=N 일 때만). 늦게 도착한 방향 전환을 플레이어가 보던 틱에 꺾은 것으로 적용
+    private final LagCompensation lagCompensation = LagCompensation.MAX_TICKS > 0
+            ? new LagCompensation(TICK_RATE_MS) : null;
+
+    // 방 옮기기 (RoomMigration). 멈춘 동안은 틱을 진행하지 않고 같은 화면만 계속 보냄
+    private static final long MIGRATION_GRACE_MS = Long.getLong("snake.migrate.graceMs", 3000);
+    private boolean migratingOut = false; // 체크포인트를 떠서 다른 서버로 보내는 중 (입장도 대기열에 그대로 둠)
+    private long resumeAt = 0;            // 옮겨 받은 방: 원래 플레이어들이 다시 접속하기를 기다리는 마감 시각 (0이면 아님)
+    private int orphans = 0;              // 옮겨 받은 방에서 아직 주인이 돌아오지 않은 지렁이 수
 
     public GameLogic(ServerMain server) {
+        this(server, System.nanoTime(), !"false".equals(System.getProperty("snake.replay")));
+        int botFill = Integer.getInteger("snake.bots", 0);
+        if (botFill > 0) {
+            bots = new BotController(this, botFill);
+        }
+    }
+
+    // 리플레이 재생(ReplayPlayer)은 server 없이 기록된 시드로 같은 게임을 다시 돌림
+    GameLogic(ServerMain server, long seed, boolean record) {
         this.server = server;
-        spawnApple(); // 서버 시작 시 최초 사과 생성
+        this.seed = seed;
+        this.rand = new Random(seed);
+        if (record) {
+            recorder = ReplayRecorder.open(seed, TICK_RATE_MS);
+        }
+        refillApples(); // 서버 시작 시 최초 사과 생성
+    }
+
+    // 서버 종료 시 리플레이 파일 마무리
+    public synchronized void closeReplay() {
+        if (recorder != null) {
+            recorder.close();
+            recorder = null;
+        }
     }
 
     // 게임 루프 스레드 
     // ServerMain에서 new Thread(this).start())가 실행하는 메인 메소드
     @Override
     public void run() {
+        FramePipeline pipeline = server.getFramePipeline();
         while (true) {
             try {
                 // (선순위 규칙 반영) 모든 게임 로직(이동, 충돌, 사과) 업데이트
-                updateGame();
+                long start = System.nanoTime();
+                String joined = step(); // 틱 경계에서 대기 중인 입장을 한꺼번에 처리 + 게임 갱신
+                long simulated = System.nanoTime();
+                if (joined != null) {
+                    server.getChat().announce(joined); // 입장 안내는 묶어서 한 번만 (전송은 채팅 스레드)
+                }
                               
-                // 위치 계산 후 전송을 위해 갱신된 게임 상태를 문자열로 변환
-                String stateString = getGameStateString();
-                server.broadcast(stateString);
+                // 갱신된 게임 상태의 사본만 만들어 넘기고, 문자열 변환/전송은 FramePipeline 스레드가 처리
+                GameSnapshot snapshot = snapshot();
+                pipeline.publish(snapshot, simulated - start, System.nanoTime() - simulated);
+                tickWorkNanos = System.nanoTime() - start; // 게임 스레드 시간만 (직렬화/전송은 다음 틱과 겹쳐 돎)
                 
-                // 다음 틱(Tick)까지 대기 (지렁이 속도 조절)
-                Thread.sleep(TICK_RATE_MS);
+                // 다음 틱(Tick)까지 대기 (지렁이 속도 조절). 이번 틱에 쓴 시간을 빼서 틱 간격을 일정하게 유지
+                int tickMs = load != null ? load.update(tickWorkNanos) : TICK_RATE_MS;
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                Thread.sleep(Math.max(0, tickMs - elapsedMs));
                 
             } catch (InterruptedException e) {
-                System.out.println("게임 루프가 중지되었습니다.");
+                Log.info("게임 루프가 중지되었습니다.");
                 break; 
             }
         }
     }
     
-    // 플레이어의 방향 변경 요청 처리 
-    public void setDirection(String clientName, String direction) {
-        SnakeInfo snake = snakes.get(clientName);
-        if (snake != null && snake.isAlive) {
-            snake.setDirection(direction);
+    // 한 틱에서 남는 시간(ms) = 지금 틱 간격 - 지난 틱의 계산+스냅샷 시간. 클러스터 라우터에 부하로 보고
+    // 부하 때문에 틱을 늘린 노드는 원래 간격 기준으로 계산 (늘어난 만큼 여유가 있는 것처럼 보이지 않게)
+    long getTickHeadroomMs() {
+        return TICK_RATE_MS - tickWorkNanos / 1_000_000 - (load != null ? load.getTickMs() - TICK_RATE_MS : 0);
+    }
+
+    // 한 틱: 입장 처리 → 게임 갱신. 방을 옮기는 중이면 틱을 멈춤
+    private synchronized String step() {
+        if (migratingOut) return null; // 체크포인트 이후로 상태가 바뀌면 안 됨
+        String joined = admitPendingJoins();
+        if (resumeAt > 0) {
+            if (orphans > 0 && System.currentTimeMillis() < resumeAt) return joined; // 옮겨온 플레이어를 기다리는 중
+            resumeMigrated();
+        }
+        updateGame();
+        return joined;
+    }
+
+    // 플레이어의 방향 변경 요청 처리 (ClientHandler 스레드, GameLogic 락 없이 입력만 기록)
+    // seq: 클라이언트가 붙인 입력 순번 (다음 STATE에 그대로 돌려줌, 없으면 0)
+    // viewTick: 키를 누를 때 클라이언트가 보던 STATE의 틱 (지연 보정용, 없으면 -1)
+    public void setDirection(int slot, ClientHandler handler, String direction, int seq, long viewTick) {
+        if (slot < 0) return; // 아직 입장 대기 중
+        byte dir = PlayerTable.parseDirection(direction);
+        if (dir >= 0) {
+            players.steer(slot, handler, dir, seq, viewTick);
         }
     }
     
-    // 사과 생성 로직 (랜덤)
-    public synchronized void spawnApple() {
-        while (true) {
+    // 인원에 맞게 사과 수를 채움
+    private void refillApples() {
+        int target = 1 + players.count / PLAYERS_PER_APPLE;
+        while (items.countOf(ItemField.APPLE) < target && spawnItem(ItemField.APPLE)) {
+        }
+    }
+
+    // 아이템 생성 (랜덤 칸). 보드가 꽉 차서 보드 칸 수만큼 뽑아도 빈 칸이 없으면 false
+    private boolean spawnItem(byte type) {
+        PlayerTable p = players;
+        for (int attempt = 0; attempt < BOARD_WIDTH * BOARD_HEIGHT; attempt++) {
             int x = rand.nextInt(BOARD_WIDTH);
             int y = rand.nextInt(BOARD_HEIGHT);
-            
-            Point potentialApple = new Point(x, y); // Point 객체로 사과 위치 저장
-            boolean isOverlapping = false;
-            
+            int cell = PlayerTable.pack(x, y);
+            if (items.typeAt(cell) != 0) continue;
+
             // 지렁이의 몸통과 겹치지 않는 위치인지 검사
-            for (SnakeInfo snake : snakes.values()) {
-                for (Point bodyPart : snake.body) {
-                    if (bodyPart.equals(potentialApple)) {
-                        isOverlapping = true;
-                        break;
-                    }
-                }
-                if (isOverlapping) break;
+            boolean isOverlapping = false;
+            for (int s = 0; s < p.highWater && !isOverlapping; s++) {
+                isOverlapping = p.used[s] && p.bodyContains(s, cell);
             }
             if (!isOverlapping) {
-                apple = potentialApple;
-                break;
+                return items.add(cell, type, 0);
+            }
+        }
+        return false;
+    }
+
+    // ClientHandler 스레드에서 호출: 입장 대기열에 넣기만 함 (다음 틱 경계에서 admitPendingJoins가 처리)
+    public void requestJoin(ClientHandler handler) {
+        pendingJoins.add(handler);
+    }
+
+    // 틱 경계에서 게임 루프가 호출: 대기 중인 입장을 최대 JOINS_PER_TICK명까지 한꺼번에 처리
+    // (자리 선정용 표도 한 번만 만들어짐). 모두에게 보낼 입장 안내를 반환 (입장한 사람이 없으면 null)
+    // 같은 닉네임이 이미 있으면 덮어쓰지 않고 "이름#2"처럼 바꿔서 입장 → ClientHandler.joined()로 알려줌
+    synchronized String admitPendingJoins() {
+        List<String> names = null;
+        ClientHandler handler;
+        while ((names == null || names.size() < JOINS_PER_TICK) && (handler = pendingJoins.poll()) != null) {
+            int slot = join(handler.getClientName(), handler, true);
+            String name = players.names[slot];
+            handler.joined(slot, name);
+            if (names == null) names = new ArrayList<>();
+            names.add(name);
+            Log.info("입장", "name", name, "slot", slot);
+        }
+        if (names == null) return null;
+
+        StringBuilder sb = new StringBuilder("CHAT ");
+        for (int i = 0; i < names.size() && i < ANNOUNCE_NAMES; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append("[").append(names.get(i)).append("]");
+        }
+        if (names.size() > ANNOUNCE_NAMES) {
+            sb.append(" 외 ").append(names.size() - ANNOUNCE_NAMES).append("명이");
+        } else {
+            sb.append(" 님이");
+        }
+        return sb.append(" 입장했습니다.").toString();
+    }
+
+    // 봇 입장 (BotController가 호출). 빈 자리가 없으면 -1
+    synchronized int addBot(String name) {
+        int slot = join(name, null, false);
+        if (slot >= 0) players.bot[slot] = true;
+        return slot;
+    }
+
+    synchronized void removeBot(int slot) {
+        if (players.used[slot] && players.bot[slot]) leave(slot);
+    }
+
+    // 입장 위치는 SpawnPlanner가 가장 넓게 비어 있고 다른 머리에서 먼 곳으로 고름
+    // 보드가 꽉 차서 고를 곳이 없으면 사람은 예전처럼 (10,10)에 입장, 봇은 입장하지 않음
+    private int join(String requestedName, ClientHandler handler, boolean required) {
+        if (resumeAt > 0 && handler != null) {
+            int slot = players.claim(requestedName, handler); // 옮겨온 방: 같은 이름의 주인 없는 지렁이를 되찾음
+            if (slot >= 0) {
+                orphans--;
+                events.joined(tick, slot, requestedName, true, players.headCell(slot));
+                return slot;
             }
         }
+        int cell = spawns.plan(players, tick);
+        if (cell < 0) {
+            if (!required) return -1;
+            cell = PlayerTable.pack(10, 10);
+        }
+        int x = PlayerTable.cellX(cell), y = PlayerTable.cellY(cell);
+        String name = players.uniqueName(requestedName);
+        int rgb = new Color(colors.nextInt(256), colors.nextInt(256), colors.nextInt(256)).getRGB();
+        int slot = players.add(name, handler, rgb, x, y, PlayerTable.RIGHT);
+        if (recorder != null) {
+            recorder.recordJoin(slot, name, rgb, x, y, PlayerTable.RIGHT);
+        }
+        events.joined(tick, slot, name, handler != null, cell);
+        return slot;
     }
 
-    // 새 플레이어 추가
-    public synchronized void addPlayer(String clientName, ClientHandler handler) {
-        SnakeInfo newSnake = new SnakeInfo(clientName, 10, 10);
-        snakes.put(clientName, newSnake);
-        playerHandlers.put(clientName, handler);  
+    // 연결이 끊긴 플레이어 제거. 아직 입장 전이면 대기열에서만 빼고,
+    // 이미 죽어서 제거된 뒤 다른 사람이 그 슬롯에 들어왔을 수 있으므로 슬롯은 주인일 때만 제거
+    public synchronized void removePlayer(ClientHandler handler) {
+        if (pendingJoins.remove(handler)) return;
+        int slot = handler.getSlot();
+        if (slot >= 0 && slot < players.highWater && players.used[slot] && players.handlers[slot] == handler) {
+            leave(slot); // 살아 있는 채로 나가도 점수는 남김 (점수 저장 구독자가 LEAVE를 받음)
+            events.flush();
+        }
     }
 
-    // GameLogic에서 플레이어 제거
-    public synchronized void removePlayer(String clientName) {
-        snakes.remove(clientName);
-        playerHandlers.remove(clientName);
+    private void leave(int slot) {
+        events.left(tick, slot, players.names[slot], players.handlers[slot] != null, players.score[slot]);
+        removeSlot(slot);
+    }
+
+    private void removeSlot(int slot) {
+        players.remove(slot);
+        if (recorder != null) {
+            recorder.recordLeave(slot);
+        }
     }
     
     // 게임의 한 프레임 업데이트 로직
     // 이동 -> 사과 섭취 -> 충돌 판정 -> 사망 처리
-    private synchronized void updateGame() {
-        if (snakes.isEmpty()) return; // 플레이어 없으면 아무것도 안함
-        
-        List<String> deadSnakes = new ArrayList<>();
+    synchronized void updateGame() {
+        PlayerTable p = players;
 
-        // 1. 모든 살아있는 지렁이 이동
-        for (SnakeInfo snake : snakes.values()) {
-            if (snake.isAlive) {
-                snake.move();
+        // 봇: 빈 자리 채우기 + 이번 틱 방향 결정 (사람의 MOVE 입력과 같은 방식으로 들어감)
+        if (bots != null) {
+            bots.update(p, items);
+        }
+
+        // 틱 도중 입력이 섞이지 않도록 이번 틱의 이동 방향을 먼저 확정
+        p.latchDirections();
+
+        // 리플레이: 일정 틱마다 전체 상태(키프레임)를 남기고,
+        // 이번 틱에 적용될 방향 변경을 기록한 뒤 틱 경계 기록
+        if (recorder != null) {
+            if (recorder.isKeyframeDue(tick, load != null ? load.keyframeStretch() : 1)) {
+                // 키프레임 시점에 RNG를 새 시드로 바꿔서, 재생 시 그 시점부터 바로 이어서 시뮬레이션 가능
+                // 키프레임이 생략되면 재생기도 RNG를 바꾸지 않으므로 여기서도 그대로 둠
+                long nextSeed = seeds.nextLong();
+                if (recorder.recordKeyframe(tick, nextSeed, items, p)) {
+                    rand.setSeed(nextSeed);
+                }
+            }
+            for (int s = 0; s < p.highWater; s++) {
+                if (p.used[s]) recorder.recordDirection(s, p.direction[s]);
             }
         }
 
-        // 2. 사과 섭취 검사
-        for (SnakeInfo snake : snakes.values()) {
-            if (!snake.isAlive) continue;
-            if (snake.getHead().equals(apple)) {
-                snake.eat();
-                spawnApple();
+        // 늦게 도착한 방향 전환을 그 지렁이만 되돌려 적용 (리플레이에는 TICK 앞에 BEND로 남음)
+        if (lagCompensation != null) {
+            lagCompensation.apply(p, items, tick, recorder);
+        }
+        if (recorder != null) {
+            recorder.recordTick();
+        }
+        tick++;
+
+        if (p.count == 0) {
+            events.flush(); // 봇/사람 퇴장 이벤트
+            return; // 플레이어 없으면 아무것도 안함
+        }
+
+        if (parallelTick != null && p.count >= PARALLEL_THRESHOLD) {
+            // 이동/충돌 판정을 여러 코어로 나눠서 처리 (결과는 아래 순차 경로와 동일)
+            parallelTick.moveAll(p);
+            eatItems();
+            parallelTick.collide(p);
+        } else {
+            updateSequential();
+        }
+
+        // 킬/사망 이벤트 (상대가 같은 틱에 죽어 슬롯이 비기 전에 이름을 남겨야 하므로 먼저 한꺼번에)
+        for (int i = 0; i < p.deathCount; i++) {
+            int slot = p.deaths[i], other = p.killers[i];
+            String otherName = other >= 0 ? p.names[other] : null;
+            if (p.causes[i] == GameEvent.BODY) {
+                boolean human = p.handlers[other] != null;
+                events.killed(tick, other, otherName, human, slot, p.names[slot]);
+                events.scored(tick, other, otherName, human, p.score[other]);
             }
+            events.died(tick, slot, p.names[slot], p.handlers[slot] != null, p.score[slot], p.headCell(slot),
+                    p.causes[i], other, otherName);
         }
+        events.flush();
+
+        // 4. 사망한 플레이어 처리 (죽은 순서대로)
+        // 게임 스레드에서는 표시하고 슬롯만 비움. GAMEOVER 전송/탈락 안내/관전 전환은 PlayerLifecycle 스레드가 처리
+        GameSnapshot finalState = null; // 죽은 지렁이가 (D)로 보이는 이번 틱 상태 (사람이 죽은 틱에만 한 번 복사)
+        GameSnapshot[] killcam = null;  // 그 직전 몇 틱 (같은 틱 사망자끼리 공유)
+        for (int i = 0; i < p.deathCount; i++) {
+            int slot = p.deaths[i];
+            ClientHandler handler = p.handlers[slot];
+            if (handler != null) {
+                if (finalState == null) {
+                    finalState = GameSnapshot.capture(tick, p, items.capture(), rewind.latest());
+                    killcam = rewind.recent(KILLCAM_TICKS);
+                }
+                Log.info("사망", "name", p.names[slot], "score", p.score[slot], "length", p.length[slot]);
+                handler.died();
+                server.getLifecycle().died(handler, p.names[slot], p.score[slot], finalState, killcam);
+            }
+            dropBody(slot);
+            removeSlot(slot); // 목록에서 제거 (리플레이 재생 중에는 handler가 없음)
+        }
+        p.deathCount = 0;
+
+        // 5. 아이템: 오래된 먹이 제거, 가끔 부스트/축소 생성
+        items.expire(tick);
+        if (tick % POWERUP_INTERVAL == 0
+                && items.countOf(ItemField.BOOST) + items.countOf(ItemField.SHRINK) < MAX_POWERUPS) {
+            spawnItem(rand.nextBoolean() ? ItemField.BOOST : ItemField.SHRINK);
+        }
+    }
+
+    // 죽은 지렁이의 몸통 두 칸마다 먹이(DROP)를 남김 (보드 밖/이미 아이템이 있는 칸은 건너뜀, DROP_TTL_TICKS 뒤 사라짐)
+    private void dropBody(int slot) {
+        PlayerTable p = players;
+        for (int i = 0, n = p.length[slot]; i < n; i += 2) {
+            int cell = p.cell(slot, i);
+            int x = PlayerTable.cellX(cell), y = PlayerTable.cellY(cell);
+            if (x < 0 || x >= BOARD_WIDTH || y < 0 || y >= BOARD_HEIGHT) continue;
+            items.add(cell, ItemField.DROP, tick + ItemField.DROP_TTL_TICKS);
+        }
+    }
+
+    // 이동 -> 사과 섭취 -> 충돌 판정 (한 스레드에서 순서대로)
+    private void updateSequential() {
+        PlayerTable p = players;
+
+        // 1. 모든 살아있는 지렁이 이동
+        for (int s = 0; s < p.highWater; s++) {
+            if (p.used[s] && p.alive[s]) {
+                p.move(s);
+            }
+        }
+
+        // 2. 아이템 섭취 검사
+        eatItems();
 
         // 3. 충돌 판정
-        for (SnakeInfo snake : snakes.values()) {
-            if (!snake.isAlive) continue;
+        for (int s = 0; s < p.highWater; s++) {
+            if (!p.used[s] || !p.alive[s]) continue;
 
-            Point head = snake.getHead();
+            int head = p.headCell(s);
 
             // (3-1) 다른 지렁이들과의 충돌 검사
-            for (SnakeInfo other : snakes.values()) {
-                if (!other.isAlive) continue;
-                if (snake == other) continue;
+            for (int o = 0; o < p.highWater; o++) {
+                if (!p.used[o] || !p.alive[o]) continue;
+                if (o == s) continue;
 
                 // (A) 머리끼리 충돌
-                if (snake.getHead().equals(other.getHead())) {
-                    snake.die();
-                    other.die();
-                    deadSnakes.add(snake.name);
-                    deadSnakes.add(other.name);
+                if (head == p.headCell(o)) {
+                    p.headOn(s, o);
                     break;
                 }
 
                 // (B) 내 머리가 다른 지렁이 몸통과 충돌
-                if (other.checkBodyCollision(head)) {
-                    snake.die();
-                    deadSnakes.add(snake.name);
-                    other.addKillScore();
-                    other.grow(5);
+                if (p.bodyContains(o, head)) {
+                    p.killedBy(s, o); // 킬 점수 +5, 몸도 길어짐
                     break;
                 }
             }
 
-            if (!snake.isAlive) continue;
+            if (!p.alive[s]) continue;
 
             // (3-2) 벽 충돌
-            if (head.x < 0 || head.x >= BOARD_WIDTH || head.y < 0 || head.y >= BOARD_HEIGHT) {
-                snake.die();
-                deadSnakes.add(snake.name);
+            int x = PlayerTable.cellX(head), y = PlayerTable.cellY(head);
+            if (x < 0 || x >= BOARD_WIDTH || y < 0 || y >= BOARD_HEIGHT) {
+                p.kill(s, GameEvent.WALL);
                 continue;
             }
 
             // (3-3) 자기 몸과 충돌
-            if (snake.checkSelfCollision()) {
-                snake.die();
-                deadSnakes.add(snake.name);
-                continue;
+            if (p.selfCollision(s)) {
+                p.kill(s, GameEvent.SELF);
             }
         }
-        
-        // 4. 사망한 플레이어 처리
-        for (String deadName : deadSnakes) {
-            ClientHandler handler = playerHandlers.get(deadName);
+    }
+
+    // 아이템 섭취 검사: 머리 칸마다 해시 한 번 (섭취 순서에 따라 새 사과 위치가 달라지므로 병렬 경로에서도 순차로 처리)
+    private void eatItems() {
+        PlayerTable p = players;
+        for (int s = 0; s < p.highWater; s++) {
+            if (!p.used[s] || !p.alive[s]) continue;
+            int head = p.headCell(s);
+            byte type = items.remove(head);
+            if (type == 0) continue;
+
+            boolean human = p.handlers[s] != null;
+            switch (type) {
+                case ItemField.BOOST:
+                    p.boostUntil[s] = tick + BOOST_TICKS;
+                    break;
+                case ItemField.SHRINK:
+                    p.shrink(s, SHRINK_CELLS);
+                    break;
+                default: // APPLE, DROP
+                    p.eat(s, tick < p.boostUntil[s] ? 2 : 1);
+                    break;
+            }
+            events.ate(tick, s, p.names[s], human, p.score[s], head, type);
+            if (type == ItemField.APPLE || type == ItemField.DROP) {
+                events.scored(tick, s, p.names[s], human, p.score[s]);
+            }
+            if (type == ItemField.APPLE) {
+                refillApples();
+            }
+        }
+        refillApples(); // 인원이 늘었으면 (먹지 않았어도)
+    }
+
+    // ---------------- 방 옮기기 (RoomMigration) ----------------
+
+    // 보내는 쪽 1단계: 틱을 멈추고 체크포인트 생성
+    // 받는 쪽은 체크포인트의 새 시드로 RNG를 심음. 이쪽은 리플레이에 키프레임을 남겼을 때만 같은 시드로 바꿈
+    // (보내기가 실패해서 이어 갈 때, 키프레임 없이 RNG만 바뀌면 이 방의 리플레이가 어긋나므로)
+    synchronized byte[] freezeForMigration() {
+        migratingOut = true;
+        long nextSeed = seeds.nextLong();
+        if (recorder != null && recorder.recordKeyframe(tick, nextSeed, items, players)) {
+            rand.setSeed(nextSeed);
+        }
+        return RoomCheckpoint.encode(tick, nextSeed, items, players);
+    }
+
+    // 보내기 실패: 멈췄던 방을 그대로 이어서 진행
+    synchronized void unfreeze() {
+        migratingOut = false;
+    }
+
+    // 보내기 성공: 방을 비우고 틱 재개. 지렁이가 있던 플레이어(새 서버에서 이름으로 되찾을 사람)와 입장 대기 중이던 사람을
+    // 옮겨진 것으로 표시하고 반환 (연결이 끊겨도 퇴장 처리/안내를 하지 않음)
+    synchronized List<ClientHandler> handOver() {
+        List<ClientHandler> moved = new ArrayList<>();
+        for (int s = 0; s < players.highWater; s++) {
+            if (!players.used[s]) continue;
+            ClientHandler handler = players.handlers[s];
             if (handler != null) {
-                handler.sendMessage("GAMEOVER");  // GAMEOVER 알림 전송
-                handler.disconnect(); // 사망한 플레이어의 ClientHandler 소켓 즉시 종료
-                removePlayer(deadName); // 목록에서 제거
+                handler.migrated();
+                moved.add(handler);
             }
-        }   
+            removeSlot(s);
+        }
+        ClientHandler waiting;
+        while ((waiting = pendingJoins.poll()) != null) {
+            waiting.migrated();
+        }
+        migratingOut = false;
+        return moved;
     }
-    
-    // 현재 게임 상태 문자열 생성
-    private synchronized String getGameStateString() {
-        StringBuilder sb = new StringBuilder("STATE ");
-        for (SnakeInfo snake : snakes.values()) {
-            sb.append(snake.toString());
+
+    // 받는 쪽: 사람이 없는 방(봇만 있어도 됨)일 때만 체크포인트로 통째로 교체. 받을 수 없으면 이유, 받으면 null
+    // 옮겨온 지렁이는 주인 없이 멈춰 있다가 같은 이름으로 JOIN하면 그 슬롯을 되찾음 (join 참고)
+    // 모두 돌아오거나 MIGRATION_GRACE_MS가 지나면 틱 재개, 돌아오지 않은 지렁이는 제거
+    synchronized String restoreMigrated(RoomCheckpoint checkpoint) {
+        if (resumeAt > 0 || migratingOut || !pendingJoins.isEmpty()) return "NOT_EMPTY";
+        for (int s = 0; s < players.highWater; s++) {
+            if (players.used[s] && !players.bot[s]) return "NOT_EMPTY";
         }
-        if (apple != null) { // 사과가 없는 예외적 상황에서 서버가 죽지 않기 위함
-        	sb.append("|A:").append(apple.x * 20).append(",").append(apple.y * 20);
+        if (recorder != null) {
+            // 입장 기록 없이 지렁이가 생기고 틱 번호도 바뀌므로 이 서버의 리플레이는 여기서 끝냄
+            Log.info("방을 옮겨 받아 리플레이 기록을 마칩니다");
+            closeReplay();
         }
-  
-        sb.append("|S:");
-        for (SnakeInfo snake : snakes.values()) {
-            sb.append(snake.name).append("=").append(snake.score).append(",");
+        tick = checkpoint.tick;
+        rand.setSeed(checkpoint.nextSeed);
+        checkpoint.items.rebase(items.version() + 1); // 이 방 클라이언트들이 전체 목록을 다시 받도록
+        items = checkpoint.items;
+        players = checkpoint.players;
+        rewind.clear(); // 이전 방의 스냅샷과 구조를 공유하면 안 됨
+        orphans = 0;
+        for (int s = 0; s < players.highWater; s++) {
+            if (!players.used[s]) continue;
+            if (!players.bot[s]) {
+                orphans++;
+            } else if (bots == null) {
+                removeSlot(s); // 이 서버에는 봇을 움직일 BotController가 없음
+            }
         }
-        if (!snakes.isEmpty()) {
-        	sb.deleteCharAt(sb.length() - 1);
+        resumeAt = System.currentTimeMillis() + MIGRATION_GRACE_MS;
+        return null;
+    }
+
+    private void resumeMigrated() {
+        int missing = 0;
+        for (int s = 0; s < players.highWater; s++) {
+            if (players.used[s] && players.handlers[s] == null && !players.bot[s]) {
+                removeSlot(s);
+                missing++;
+            }
         }
-        return sb.toString();
+        Log.info("옮겨 받은 방 재개", "tick", tick, "players", players.count, "missing", missing);
+        resumeAt = 0;
+        orphans = 0;
+    }
+
+    // ---------------- 리플레이 재생(ReplayPlayer)용 ----------------
+
+    // 기록된 입장 정보 그대로 지렁이 추가 (handler 없음). 서버와 같은 순서로 입장/퇴장하므로 같은 슬롯이 배정됨
+    synchronized int addReplayPlayer(String name, int rgb, int x, int y, byte direction) {
+        return players.add(name, null, rgb, x, y, direction);
+    }
+
+    synchronized void removeReplayPlayer(int slot) {
+        if (slot < players.highWater && players.used[slot]) removeSlot(slot);
+    }
+
+    // 기록된 방향은 이미 서버에서 검증된 최종 방향이므로 역방향 검사 없이 그대로 적용
+    synchronized void forceDirection(int slot, byte direction) {
+        if (slot < players.highWater && players.used[slot]) players.forceDirection(slot, direction);
+    }
+
+    // 기록된 지연 보정을 그대로 적용 (서버에서 이미 검사를 통과한 것)
+    synchronized void bendReplay(int slot, int ticks, byte direction) {
+        if (slot < players.highWater && players.used[slot]) players.bendHead(slot, ticks, direction);
+    }
+
+    // 키프레임을 지나갈 때 서버와 같은 시점에 같은 시드로 RNG 교체
+    synchronized void reseed(long nextSeed) {
+        rand.setSeed(nextSeed);
+    }
+
+    // 키프레임으로 전체 상태 복원 (탐색 시 사용). restored는 기록된 슬롯 그대로 채운 표
+    synchronized void restore(long tick, long nextSeed, ItemField restoredItems, PlayerTable restored) {
+        this.tick = tick;
+        this.rand.setSeed(nextSeed);
+        restoredItems.rebase(items.version() + 1);
+        this.items = restoredItems;
+        this.players = restored;
+    }
+
+    synchronized String currentStateString() {
+        return getGameStateString();
+    }
+    
+    // 현재 게임 상태 문자열 생성
+    private synchronized String getGameStateString() {
+        return GameSnapshot.capture(tick, players, items.capture()).toStateString();
+    }
+
+    // 게임 루프용: 락 안에서는 값만 복사하고 문자열은 FramePipeline이 만듦 (되감기 버퍼에도 쌓음)
+    private synchronized GameSnapshot snapshot() {
+        GameSnapshot snapshot = GameSnapshot.capture(tick, players, items.capture(), rewind.latest());
+        rewind.record(snapshot);
+        return snapshot;
+    }
+
+    RewindBuffer getRewind() {
+        return rewind;
+    }
+
+    LagCompensation getLagCompensation() {
+        return lagCompensation;
+    }
+
+    LoadController getLoadController() {
+        return load;
+    }
+
+    // 새 관전자용 전체 아이템 목록 (그 뒤로는 관전 중계가 보내는 변경분을 이어 받음)
+    synchronized String itemsLine() {
+        return items.capture().lineFrom(-1);
+    }
+
+    GameEventBus getEvents() {
+        return events;
     }
 }
@@ -0,0 +1,141 @@
+package server;
+
+import protocol.Protocol;
+import protocol.StateCodec;
+
+// 한 틱이 끝난 시점의 게임 상태 사본 (불변)
+// 게임 스레드는 GameLogic 락을 잡은 채로 값만 복사하고(capture),
+// 문자열 만들기(toStateString)는 FramePipeline의 직렬화 스레드가 락 없이 처리
+//
+// 이전 틱 스냅샷을 넘기면 구조를 공유함: 지렁이 몸통은 직진하는 동안 첫 구간(머리 쪽)과 마지막 구간(꼬리 쪽) 길이만 바뀌므로
+// 가운데 구간 배열은 PlayerTable.runVersion이 같으면 이전 틱 것을 그대로 가리킴
+// → 최근 몇 초를 RewindBuffer에 쌓아도 틱마다 새로 드는 메모리는 지렁이당 SnakeView 하나 + 꺾인 지렁이의 가운데 구간뿐
+// retainedBytes: 이 스냅샷이 새로 만든(이전 틱과 공유하지 않는) 객체의 대략적인 크기
+public final class GameSnapshot {
+
+    // 대략적인 객체 크기 (64비트 JVM, 압축 포인터 기준)
+    private static final int SNAPSHOT_BYTES = 64;
+    private static final int VIEW_BYTES = 72;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    final long tick;
+    final long capturedAtNanos;
+    final SnakeView[] snakes;
+    final ItemField.View items; // 아이템은 ITEMS 줄로 따로 (바뀐 것만). STATE에는 예전 클라이언트용으로 첫 사과만
+    final long retainedBytes;
+
+    private GameSnapshot(long tick, SnakeView[] snakes, ItemField.View items, long retainedBytes) {
+        this.tick = tick;
+        this.capturedAtNanos = System.nanoTime();
+        this.snakes = snakes;
+        this.items = items;
+        this.retainedBytes = retainedBytes;
+    }
+
+    static GameSnapshot capture(long tick, PlayerTable players, ItemField.View items) {
+        return capture(tick, players, items, null);
+    }
+
+    // previous: 같은 방의 이전 스냅샷 (없으면 null). 둘 다 슬롯 순서라서 나란히 훑으며 같은 슬롯을 찾음
+    static GameSnapshot capture(long tick, PlayerTable players, ItemField.View items, GameSnapshot previous) {
+        SnakeView[] views = new SnakeView[players.count];
+        SnakeView[] before = previous != null ? previous.snakes : new SnakeView[0];
+        long bytes = SNAPSHOT_BYTES + ARRAY_HEADER_BYTES + 4L * views.length;
+        int i = 0, j = 0;
+        for (int s = 0; s < players.highWater; s++) {
+            if (!players.used[s]) continue;
+            while (j < before.length && before[j].slot < s) j++;
+            SnakeView same = j < before.length && before[j].slot == s ? before[j] : null;
+            SnakeView view = new SnakeView(players, s, same);
+            bytes += VIEW_BYTES;
+            if (same == null || view.middle != same.middle) bytes += ARRAY_HEADER_BYTES + 4L * view.middle.length;
+            views[i++] = view;
+        }
+        if (previous == null || previous.items != items) bytes += items.retainedBytes(); // 바뀌지 않은 틱은 공유
+        return new GameSnapshot(tick, views, items, bytes);
+    }
+
+    // STATE 문자열 (형식은 protocol.StateCodec 주석 참고)
+    public String toStateString() {
+        return toStateString(false);
+    }
+
+    // rle: 몸통을 구간 형식으로 (JOIN에 +rle를 붙인 클라이언트용)
+    public String toStateString(boolean rle) {
+        StringBuilder sb = new StringBuilder(32 + snakes.length * 64);
+        sb.append(Protocol.STATE);
+        String[] names = new String[snakes.length];
+        int[] scores = new int[snakes.length];
+        for (int i = 0; i < snakes.length; i++) {
+            SnakeView snake = snakes[i];
+            StateCodec.appendSnake(sb, snake.name, snake.headX, snake.headY, snake, rle,
+                    snake.alive, snake.rgb, snake.ackedSeq);
+            names[i] = snake.name;
+            scores[i] = snake.score;
+        }
+        if (items.appleCell >= 0) { // 사과가 없는 예외적 상황에서 서버가 죽지 않기 위함
+            StateCodec.appendApple(sb, PlayerTable.cellX(items.appleCell), PlayerTable.cellY(items.appleCell));
+        }
+        StateCodec.appendScores(sb, names, scores);
+        StateCodec.appendTick(sb, tick);
+        return sb.toString();
+    }
+
+    // 지렁이 한 마리의 사본. 몸통은 칸 대신 구간만 복사 (긴 지렁이도 꺾인 횟수만큼만, 락 안에서 하는 일이 짧음)
+    // 구간 = first + middle + last (구간이 하나면 first만, 없으면 runCount 0)
+    static final class SnakeView implements StateCodec.Runs {
+        private static final int[] NONE = new int[0];
+
+        final int slot;
+        final long runVersion;
+        final String name;
+        final int headX; // 칸 단위
+        final int headY;
+        final int runCount;
+        final int first;
+        final int[] middle; // 이전 틱과 가운데 구간이 같으면 같은 배열
+        final int last;
+        final boolean alive;
+        final int rgb;
+        final int score;
+        final int ackedSeq; // 이 STATE에 반영된 마지막 MOVE 순번 (0이면 생략)
+
+        SnakeView(PlayerTable players, int slot, SnakeView previous) {
+            this.slot = slot;
+            this.runVersion = players.runVersion[slot];
+            this.name = players.names[slot];
+            this.alive = players.alive[slot];
+            this.rgb = players.rgb[slot];
+            this.score = players.score[slot];
+            this.ackedSeq = players.ackedSeq[slot];
+            int head = players.headCell(slot);
+            this.headX = PlayerTable.cellX(head);
+            this.headY = PlayerTable.cellY(head);
+            this.runCount = players.runCount[slot];
+            this.first = runCount > 0 ? players.run(slot, 0) : 0;
+            this.last = runCount > 1 ? players.run(slot, runCount - 1) : 0;
+            if (runCount <= 2) {
+                this.middle = NONE;
+            } else if (previous != null && previous.runVersion == runVersion) {
+                this.middle = previous.middle;
+            } else {
+                this.middle = new int[runCount - 2];
+                for (int i = 0; i < middle.length; i++) {
+                    middle[i] = players.run(slot, i + 1);
+                }
+            }
+        }
+
+        @Override
+        public int runCount() {
+            return runCount;
+        }
+
+        @Override
+        public int run(int i) {
+            if (i == 0) return first;
+            if (i == runCount - 1) return last;
+            return middle[i - 1];
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import protocol.Protocol;
+
+// 최고 점수 저장소: 서버를 다시 켜도 남는 전체/오늘 순위 (이름별 최고 점수)
+// 게임 스레드는 submit()으로 대기열에 넣기만 하고(디스크/락 없음), 기록 스레드가 FLUSH_MS마다 모아서 한꺼번에 씀
+//
+// 파일 (-Dsnake.scores.dir, 기본 scores/)
+//   scores.log         : 한 줄씩 덧붙이기만 함 "시각ms\t날짜\t점수\t이름" (묶음마다 flush)
+//   alltime.idx        : 이름별 최고 점수 "점수\t이름" (점수 내림차순)
+//   daily-yyyyMMdd.idx : 그날의 이름별 최고 점수
+// 압축: 로그가 COMPACT_EVERY줄을 넘거나 날짜가 바뀌거나 서버가 끝날 때 인덱스를 임시 파일에 쓰고 이름을 바꾼 뒤 로그를 비움
+// 시작할 때는 인덱스를 읽고 남은 로그를 그 위에 다시 적용
+//   (이름별 최고값이라 같은 줄을 두 번 적용해도 결과가 같음 → 인덱스를 쓰고 로그를 비우기 전에 죽어도 안전)
+// 순위 조회(top)는 기록 스레드가 묶음마다 새로 만든 배열을 읽기만 함 → GAMEOVER 전송이 디스크를 기다리지 않음
+class HighScoreStore {
+
+    static final int TOP = 10;
+    private static final long FLUSH_MS = 500;
+    private static final int COMPACT_EVERY = 1000;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final File dir;
+    private final Queue<Record> pending = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // 아래는 기록 스레드만 씀 (시작 전 load 포함)
+    private final Map<String, Integer> allTime = new HashMap<>();
+    private Map<String, Integer> today = new HashMap<>();
+    private String todayKey;
+    private final Map<String, Map<String, Integer>> otherDays = new HashMap<>(); // 압축 전 로그에 남은 지난 날짜
+    private Writer log;
+    private int logLines = 0;
+
+    // 조회용 (기록 스레드가 통째로 바꿔 끼움)
+    private volatile Entry[] topAllTime = new Entry[0];
+    private volatile Entry[] topToday = new Entry[0];
+
+    static final class Entry {
+        final String name;
+        final int score;
+
+        Entry(String name, int score) {
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    private static final class Record {
+        final long at;
+        final String name;
+        final int score;
+
+        Record(long at, String name, int score) {
+            this.at = at;
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    HighScoreStore() {
+        this(new File(System.getProperty("snake.scores.dir", "scores")));
+    }
+
+    HighScoreStore(File dir) {
+        this.dir = dir;
+        this.writer = new Thread(() -> writeLoop(), "HighScore-Writer");
+        this.writer.setDaemon(true);
+    }
+
+    void start() {
+        todayKey = LocalDate.now().format(DAY);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.warn("점수 폴더를 만들 수 없어 이번 실행 동안만 기억합니다", "dir", dir.getAbsolutePath());
+        } else {
+            try {
+                load();
+                log = openLog(true);
+            } catch (IOException e) {
+                Log.error("점수 기록을 읽을 수 없음", e);
+            }
+        }
+        refreshTop();
+        writer.start();
+        Log.info("점수 저장소 시작", "dir", dir.getPath(), "players", allTime.size(), "todayPlayers", today.size());
+    }
+
+    // 게임 스레드: 대기열에 넣기만 함 (기록 스레드가 FLUSH_MS마다 가져감)
+    void submit(String name, int score) {
+        if (score > 0 && name.indexOf('\n') < 0) {
+            pending.add(new Record(System.currentTimeMillis(), name.replace('\t', ' '), score));
+        }
+    }
+
+    Entry[] topAllTime() {
+        return topAllTime;
+    }
+
+    Entry[] topToday() {
+        return topToday;
+    }
+
+    // "HISCORE 전체|오늘" (각각 "이름=점수,이름=점수", 높은 순)
+    // 방금 죽은 플레이어의 점수는 아직 기록 스레드가 가져가기 전일 수 있으므로 합쳐서 만듦
+    String hiscoreLine(String name, int score) {
+        StringBuilder sb = new StringBuilder(Protocol.HISCORE);
+        append(sb, with(topAllTime, name, score));
+        sb.append('|');
+        append(sb, with(topToday, name, score));
+        return sb.toString();
+    }
+
+    private static Entry[] with(Entry[] top, String name, int score) {
+        List<Entry> entries = new ArrayList<>(top.length + 1);
+        boolean found = false;
+        for (Entry e : top) {
+            if (e.name.equals(name)) {
+                found = true;
+                entries.add(e.score >= score ? e : new Entry(name, score));
+            } else {
+                entries.add(e);
+            }
+        }
+        if (!found && score > 0) entries.add(new Entry(name, score));
+        entries.sort((a, b) -> b.score != a.score ? Integer.compare(b.score, a.score) : a.name.compareTo(b.name));
+        return entries.subList(0, Math.min(TOP, entries.size())).toArray(new Entry[0]);
+    }
+
+    private static void append(StringBuilder sb, Entry[] entries) {
+        for (int i = 0; i < entries.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(entries[i].name).append('=').append(entries[i].score);
+        }
+    }
+
+    // 서버 종료 시: 남은 기록을 쓰고 압축 (최대 timeoutMs 대기)
+    void close(long timeoutMs) {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------- 기록 스레드 ----------------
+
+    private void writeLoop() {
+        List<Record> batch = new ArrayList<>();
+        while (true) {
+            boolean stopping = !running;
+            Record record;
+            while ((record = pending.poll()) != null) {
+                batch.add(record);
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+                String day = LocalDate.now().format(DAY);
+                if (stopping || logLines >= COMPACT_EVERY || !day.equals(todayKey)) {
+                    compact();
+                    rollOver(day);
+                }
+            } catch (IOException e) {
+                Log.error("점수 기록 오류", e);
+                batch.clear(); // 메모리에는 이미 반영됨 (다음 압축 때 인덱스로 남음)
+            }
+            if (stopping) return;
+            LockSupport.parkNanos(this, FLUSH_MS * 1_000_000);
+        }
+    }
+
+    private void write(List<Record> batch) throws IOException {
+        for (Record r : batch) {
+            apply(r.name, r.score, dayOf(r.at));
+        }
+        refreshTop();
+        if (log == null) return;
+        StringBuilder sb = new StringBuilder(batch.size() * 40);
+        for (Record r : batch) {
+            sb.append(r.at).append('\t').append(dayOf(r.at)).append('\t').append(r.score).append('\t')
+                    .append(r.name).append('\n');
+        }
+        log.write(sb.toString());
+        log.flush();
+        logLines += batch.size();
+    }
+
+    private void apply(String name, int score, String day) {
+        allTime.merge(name, score, Math::max);
+        if (day.equals(todayKey)) {
+            today.merge(name, score, Math::max);
+        } else {
+            otherDays.computeIfAbsent(day, d -> new HashMap<>()).merge(name, score, Math::max);
+        }
+    }
+
+    // 인덱스를 다시 쓰고 로그를 비움
+    private void compact() throws IOException {
+        if (log == null) return;
+        writeIndex(new File(dir, "alltime.idx"), allTime);
+        writeIndex(dailyFile(todayKey), today);
+        for (Map.Entry<String, Map<String, Integer>> day : otherDays.entrySet()) {
+            Map<String, Integer> merged = readIndex(dailyFile(day.getKey()));
+            day.getValue().forEach((name, score) -> merged.merge(name, score, Math::max));
+            writeIndex(dailyFile(day.getKey()), merged);
+        }
+        otherDays.clear();
+        log.close();
+        log = openLog(false);
+        logLines = 0;
+    }
+
+    // 날짜가 바뀌었으면 오늘 순위를 새로 시작
+    private void rollOver(String day) {
+        if (day.equals(todayKey)) return;
+        Log.info("날짜가 바뀌어 오늘 순위를 새로 시작", "day", day, "yesterdayPlayers", today.size());
+        todayKey = day;
+        today = new HashMap<>();
+        refreshTop();
+    }
+
+    private void refreshTop() {
+        topAllTime = top(allTime);
+        topToday = top(today);
+    }
+
+    private static Entry[] top(Map<String, Integer> scores) {
+        List<Entry> entries = new ArrayList<>(scores.size());
+        scores.forEach((name, score) -> entries.add(new Entry(name, score)));
+        entries.sort((a, b) -> b.score != a.score ? Integer.compare(b.score, a.score) : a.name.compareTo(b.name));
+        return entries.subList(0, Math.min(TOP, entries.size())).toArray(new Entry[0]);
+    }
+
+    // ---------------- 파일 ----------------
+
+    private void load() throws IOException {
+        allTime.putAll(readIndex(new File(dir, "alltime.idx")));
+        today.putAll(readIndex(dailyFile(todayKey)));
+        File logFile = new File(dir, "scores.log");
+        if (!logFile.isFile()) return;
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length < 4) continue; // 쓰다가 끊긴 마지막 줄
+                try {
+                    apply(parts[3], Integer.parseInt(parts[2]), parts[1]);
+                    logLines++;
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+    }
+
+    private Writer openLog(boolean append) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(new File(dir, "scores.log"), append), StandardCharsets.UTF_8));
+    }
+
+    private File dailyFile(String day) {
+        return new File(dir, "daily-" + day + ".idx");
+    }
+
+    private static Map<String, Integer> readIndex(File file) throws IOException {
+        Map<String, Integer> scores = new HashMap<>();
+        if (!file.isFile()) return scores;
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t", 2);
+            if (parts.length < 2) continue;
+            try {
+                scores.merge(parts[1], Integer.parseInt(parts[0]), Math::max);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return scores;
+    }
+
+    // 임시 파일에 다 쓴 뒤 이름을 바꿔서, 중간에 죽어도 예전 인덱스나 새 인덱스 중 하나가 온전히 남음
+    private static void writeIndex(File file, Map<String, Integer> scores) throws IOException {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        StringBuilder sb = new StringBuilder(entries.size() * 24);
+        for (Map.Entry<String, Integer> e : entries) {
+            sb.append(e.getValue()).append('\t').append(e.getKey()).append('\n');
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        Files.write(tmp.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String dayOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().format(DAY);
+    }
+}
@@ -0,0 +1,408 @@
+package server;
+
+import java.util.Arrays;
+
+import protocol.ItemCodec;
+
+// 보드 위 아이템 (사과, 부스트, 축소, 죽은 지렁이가 남긴 먹이) — GameLogic 락 안에서만 사용
+//
+// 칸(PlayerTable.pack) → 아이템을 열린 주소 해시로 찾음 → 머리 칸 하나당 한 번 조회 (아이템이 수천 개여도 같은 비용)
+//   목록 자체는 빈틈 없는 배열(cells/types/expires)에 두고, 해시는 칸 → 배열 번호만 가짐
+//   제거는 마지막 항목을 빈자리로 옮기고(배열) 뒤 칸들을 당겨 채움(해시, 삭제 표시 없음)
+// 시간이 지나면 사라지는 아이템(DROP)은 넣은 순서대로 줄에 세움. 수명이 모두 같아서 줄 앞부터 만료 → 틱마다 만료된 것만 봄
+//
+// 클라이언트에는 바뀐 것만 보냄: 바뀔 때마다 버전 +1, 스냅샷(capture) 사이의 변경을 View에 담고 View끼리 이전 것을 가리킴
+//   View는 변경만 가짐. 전체 목록 복사는 MAX_CHAIN개마다 한 번(기준 View), 나머지는 전체 목록이 필요할 때 기준부터 변경을 다시 적용해 만듦
+//   클라이언트가 가진 버전부터 지금까지의 View들을 이어 붙이면 그 클라이언트용 ITEMS 줄 (ItemCodec)
+//   너무 오래된 버전이거나 변경이 전체보다 많으면 전체 목록
+// 판정 순서에는 목록 순서가 쓰이지 않음 (먹기는 슬롯 순, 생성은 RNG 칸) → 키프레임에서 다시 넣어도 같은 게임이 됨
+final class ItemField {
+
+    static final byte APPLE = ItemCodec.APPLE;
+    static final byte DROP = ItemCodec.DROP;
+    static final byte BOOST = ItemCodec.BOOST;
+    static final byte SHRINK = ItemCodec.SHRINK;
+
+    // 리플레이/체크포인트가 같은 게임을 다시 만들어야 하므로 설정값이 아닌 상수
+    static final int MAX_ITEMS = 4096;
+    static final int DROP_TTL_TICKS = 250; // 약 30초
+    private static final int MAX_CHAIN = 64; // View를 몇 개까지 이어 둘지 (그보다 오래된 버전은 전체 목록)
+
+    private static final int EMPTY = -1; // 보드 안 칸은 항상 0 이상
+
+    // 해시 (칸 → 배열 번호)
+    private int[] keys = new int[64];
+    private int[] index = new int[64];
+    private int shift = 32 - 6;
+
+    // 아이템 목록
+    private int[] cells = new int[32];
+    private byte[] types = new byte[32];
+    private long[] expires = new long[32]; // 사라지는 틱 (0이면 사라지지 않음)
+    private int count = 0;
+    private final int[] typeCounts = new int[ItemCodec.TYPES];
+
+    // 만료 줄 (넣은 순서 = 만료 순서). 먹혀서 이미 없어진 것은 꺼낼 때 확인하고 버림
+    private int[] expiryCells = new int[64];
+    private long[] expiryTicks = new long[64];
+    private int expiryHead = 0;
+    private int expirySize = 0;
+
+    // 마지막 capture 이후 변경 (칸, 바뀐 뒤 종류 / 0 = 없어짐)
+    private int[] changedCells = new int[32];
+    private byte[] changedTypes = new byte[32];
+    private int changeCount = 0;
+    private long version;
+    private View last;
+    private View base; // 전체 목록을 가진 가장 최근 View
+    private int sinceBase = 0;
+    private int appleCell = -1; // 칸 번호가 가장 작은 사과 (없으면 -1), 넣고 뺄 때마다 맞춰 둠
+
+    ItemField() {
+        this(0);
+    }
+
+    // 방을 통째로 바꿀 때(복원) 클라이언트가 가진 버전보다 큰 번호에서 시작해야 전체 목록을 다시 받음
+    ItemField(long startVersion) {
+        Arrays.fill(keys, EMPTY);
+        this.version = startVersion;
+    }
+
+    // 키프레임/체크포인트에 기록된 목록으로 다시 만듦. 사라지는 것은 만료 틱 순서로 넣어서 만료 줄 순서를 맞춤
+    static ItemField restore(int[] cells, byte[] types, long[] expires) {
+        Integer[] order = new Integer[cells.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(expires[a], expires[b]));
+        ItemField field = new ItemField();
+        for (int i : order) {
+            field.add(cells[i], types[i], expires[i]);
+        }
+        return field;
+    }
+
+    // 복원한 목록을 지금 방 대신 쓸 때: 버전을 지금 방보다 크게 (이전 View와 이어지지 않으므로 클라이언트는 전체 목록을 받음)
+    void rebase(long startVersion) {
+        version = startVersion;
+        changeCount = 0;
+        last = null;
+        base = null;
+    }
+
+    // ---------------- 조회 ----------------
+
+    // 그 칸의 아이템 종류 (없으면 0)
+    byte typeAt(int cell) {
+        int i = find(cell);
+        return i < 0 ? 0 : types[i];
+    }
+
+    int count() {
+        return count;
+    }
+
+    int countOf(byte type) {
+        return typeCounts[type];
+    }
+
+    long version() {
+        return version;
+    }
+
+    // 목록 순회용 (0 ~ count-1, 넣고 빼면 순서가 바뀜)
+    int cellAt(int i) {
+        return cells[i];
+    }
+
+    byte typeAtIndex(int i) {
+        return types[i];
+    }
+
+    long expireAt(int i) {
+        return expires[i];
+    }
+
+    // ---------------- 변경 ----------------
+
+    // 빈 칸이고 최대 개수 전이면 넣음. expireTick: 사라질 틱 (0이면 계속)
+    boolean add(int cell, byte type, long expireTick) {
+        if (count >= MAX_ITEMS || find(cell) >= 0) return false;
+        if (count == cells.length) {
+            cells = Arrays.copyOf(cells, count * 2);
+            types = Arrays.copyOf(types, count * 2);
+            expires = Arrays.copyOf(expires, count * 2);
+        }
+        cells[count] = cell;
+        types[count] = type;
+        expires[count] = expireTick;
+        if ((count + 1) * 2 > keys.length) rehash(keys.length * 2);
+        put(cell, count);
+        count++;
+        typeCounts[type]++;
+        if (type == APPLE && (appleCell < 0 || cell < appleCell)) appleCell = cell;
+        if (expireTick > 0) enqueueExpiry(cell, expireTick);
+        changed(cell, type);
+        return true;
+    }
+
+    // 그 칸의 아이템을 없애고 종류를 반환 (없으면 0)
+    byte remove(int cell) {
+        int i = find(cell);
+        if (i < 0) return 0;
+        byte type = types[i];
+        erase(cell);
+        int lastIndex = --count;
+        if (i != lastIndex) { // 마지막 항목을 빈자리로
+            cells[i] = cells[lastIndex];
+            types[i] = types[lastIndex];
+            expires[i] = expires[lastIndex];
+            index[slotOf(cells[i])] = i;
+        }
+        typeCounts[type]--;
+        if (cell == appleCell) appleCell = lowestApple(); // 가장 작은 사과가 먹혔을 때만 훑음
+        changed(cell, (byte) 0);
+        return type;
+    }
+
+    // 배열 순서는 restore(키프레임/체크포인트)에서 바뀌므로 순서와 상관없이 고름 → 탐색해도 같은 틱이면 같은 사과
+    private int lowestApple() {
+        int apple = -1;
+        for (int i = 0; i < count; i++) {
+            if (types[i] == APPLE && (apple < 0 || cells[i] < apple)) apple = cells[i];
+        }
+        return apple;
+    }
+
+    // 틱마다: 수명이 다한 아이템 제거
+    void expire(long tick) {
+        while (expirySize > 0 && expiryTicks[expiryHead] <= tick) {
+            int cell = expiryCells[expiryHead];
+            long due = expiryTicks[expiryHead];
+            expiryHead = (expiryHead + 1) & (expiryCells.length - 1);
+            expirySize--;
+            int i = find(cell);
+            if (i >= 0 && expires[i] == due) remove(cell); // 먹힌 뒤 같은 칸에 새로 생긴 것은 그대로
+        }
+    }
+
+    private void changed(int cell, byte type) {
+        version++;
+        if (changeCount == changedCells.length) {
+            changedCells = Arrays.copyOf(changedCells, changeCount * 2);
+            changedTypes = Arrays.copyOf(changedTypes, changeCount * 2);
+        }
+        changedCells[changeCount] = cell;
+        changedTypes[changeCount] = type;
+        changeCount++;
+    }
+
+    private void enqueueExpiry(int cell, long tick) {
+        if (expirySize == expiryCells.length) {
+            int[] biggerCells = new int[expirySize * 2];
+            long[] biggerTicks = new long[expirySize * 2];
+            for (int i = 0; i < expirySize; i++) {
+                int from = (expiryHead + i) & (expiryCells.length - 1);
+                biggerCells[i] = expiryCells[from];
+                biggerTicks[i] = expiryTicks[from];
+            }
+            expiryCells = biggerCells;
+            expiryTicks = biggerTicks;
+            expiryHead = 0;
+        }
+        int tail = (expiryHead + expirySize) & (expiryCells.length - 1);
+        expiryCells[tail] = cell;
+        expiryTicks[tail] = tick;
+        expirySize++;
+    }
+
+    // ---------------- 해시 ----------------
+
+    private int home(int cell) {
+        return (cell * 0x9E3779B9) >>> shift;
+    }
+
+    // 배열 번호 (없으면 -1)
+    private int find(int cell) {
+        int mask = keys.length - 1;
+        for (int h = home(cell); keys[h] != EMPTY; h = (h + 1) & mask) {
+            if (keys[h] == cell) return index[h];
+        }
+        return -1;
+    }
+
+    // 해시에서 그 칸이 있는 자리 (있는 것이 확실할 때만)
+    private int slotOf(int cell) {
+        int mask = keys.length - 1;
+        int h = home(cell);
+        while (keys[h] != cell) h = (h + 1) & mask;
+        return h;
+    }
+
+    private void put(int cell, int i) {
+        int mask = keys.length - 1;
+        int h = home(cell);
+        while (keys[h] != EMPTY) h = (h + 1) & mask;
+        keys[h] = cell;
+        index[h] = i;
+    }
+
+    // 지운 자리 뒤로 이어진 칸 중 원래 자리가 지운 자리 쪽인 것을 당겨 채움 (삭제 표시 없이 탐색이 끊기지 않게)
+    private void erase(int cell) {
+        int mask = keys.length - 1;
+        int hole = slotOf(cell);
+        keys[hole] = EMPTY;
+        for (int h = (hole + 1) & mask; keys[h] != EMPTY; h = (h + 1) & mask) {
+            int home = home(keys[h]);
+            if (((h - home) & mask) >= ((h - hole) & mask)) {
+                keys[hole] = keys[h];
+                index[hole] = index[h];
+                keys[h] = EMPTY;
+                hole = h;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        keys = new int[capacity];
+        index = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        for (int i = 0; i < count; i++) {
+            put(cells[i], i);
+        }
+    }
+
+    // ---------------- 스냅샷 ----------------
+
+    // GameLogic 락 안, 스냅샷마다. 바뀐 것이 없으면 지난번 View를 그대로 반환
+    // 보통은 변경만 복사. MAX_CHAIN개마다 한 번 전체 목록을 복사해 기준 View로 삼음
+    View capture() {
+        if (last != null && changeCount == 0) return last;
+        boolean newBase = last == null || ++sinceBase == MAX_CHAIN;
+        View view = new View(version, count, appleCell,
+                newBase ? Arrays.copyOf(cells, count) : null, newBase ? Arrays.copyOf(types, count) : null,
+                Arrays.copyOf(changedCells, changeCount), Arrays.copyOf(changedTypes, changeCount), last);
+        changeCount = 0;
+        last = view;
+        if (newBase) {
+            // 직전 기준보다 오래된 View는 놓아줌 (RewindBuffer가 들고 있는 스냅샷 밖으로 메모리가 늘지 않게)
+            // 기준에서만 끊으므로 어느 View든 자기 기준까지는 이어져 있음, 최신 View에서는 MAX_CHAIN개 이상 이어짐
+            if (base != null) base.previous = null;
+            base = view;
+            sinceBase = 0;
+        }
+        return view;
+    }
+
+    // 한 시점의 아이템 목록 (불변) + 바로 전 View 이후의 변경
+    static final class View {
+        final long version;
+        final int count;
+        final int appleCell; // 예전 클라이언트용 STATE의 A: (칸 번호가 가장 작은 사과, 없으면 -1)
+        private final int[] cells; // 기준 View만, 나머지는 null
+        private final byte[] types;
+        private final int[] changedCells;
+        private final byte[] changedTypes;
+        private volatile View previous; // 기준 View에서만 끊김
+        private final long previousVersion;
+        private volatile String fullLine;
+        private volatile String stepLine; // 바로 전 View를 가진 클라이언트용 (가장 흔한 경우)
+
+        private View(long version, int count, int appleCell, int[] cells, byte[] types,
+                     int[] changedCells, byte[] changedTypes, View previous) {
+            this.version = version;
+            this.count = count;
+            this.appleCell = appleCell;
+            this.cells = cells;
+            this.types = types;
+            this.changedCells = changedCells;
+            this.changedTypes = changedTypes;
+            this.previous = previous;
+            this.previousVersion = previous != null ? previous.version : -1;
+        }
+
+        // 대략적인 크기 (RewindBuffer 보고용)
+        long retainedBytes() {
+            return 64 + (cells != null ? cells.length * 5L : 0) + changedCells.length * 5L;
+        }
+
+        // base 버전을 가진 클라이언트를 이 버전으로 만드는 ITEMS 줄 (-1이면 전체 목록, 보낼 것이 없으면 null)
+        // 여러 전송 스레드가 동시에 불러도 됨 (만든 줄은 View에 남겨서 같은 base끼리 공유)
+        String lineFrom(long base) {
+            if (base == version) return null;
+            if (base >= 0 && base == previousVersion) {
+                String line = stepLine;
+                if (line == null) stepLine = line = deltaFrom(base);
+                return line;
+            }
+            String line = base >= 0 ? deltaFrom(base) : null;
+            return line != null ? line : full();
+        }
+
+        private String full() {
+            String line = fullLine;
+            if (line == null) {
+                int[] allCells = cells;
+                byte[] allTypes = types;
+                int n = count;
+                if (allCells == null) {
+                    ItemField field = materialize();
+                    allCells = field.cells;
+                    allTypes = field.types;
+                    n = field.count;
+                }
+                StringBuilder sb = ItemCodec.begin(version, -1, n);
+                for (int i = 0; i < n; i++) {
+                    ItemCodec.append(sb, PlayerTable.cellX(allCells[i]), PlayerTable.cellY(allCells[i]), allTypes[i]);
+                }
+                fullLine = line = sb.toString();
+            }
+            return line;
+        }
+
+        // 기준 View의 목록에 그 뒤 View들의 변경을 차례로 적용 (전체 목록이 필요할 때만, 락 밖)
+        private ItemField materialize() {
+            View[] chain = new View[MAX_CHAIN];
+            int n = 0;
+            View v = this;
+            while (v.cells == null) {
+                chain[n++] = v;
+                v = v.previous;
+            }
+            ItemField field = new ItemField();
+            for (int i = 0; i < v.cells.length; i++) field.add(v.cells[i], v.types[i], 0);
+            for (int k = n - 1; k >= 0; k--) {
+                View step = chain[k];
+                for (int i = 0; i < step.changedCells.length; i++) {
+                    if (step.changedTypes[i] == 0) field.remove(step.changedCells[i]);
+                    else field.add(step.changedCells[i], step.changedTypes[i], 0);
+                }
+            }
+            return field;
+        }
+
+        // base 이후 View들의 변경을 오래된 것부터 (이어지지 않거나 전체 목록보다 길면 전체 목록)
+        private String deltaFrom(long base) {
+            View[] chain = new View[MAX_CHAIN + 1];
+            int n = 0, changes = 0;
+            View v = this;
+            while (v.version > base) {
+                if (n == chain.length || changes > count) return full();
+                chain[n++] = v;
+                changes += v.changedCells.length;
+                if (v.previousVersion == base) break;
+                v = v.previous;
+                if (v == null) return full();
+            }
+            if (v.previousVersion != base && v.version != base) return full();
+            StringBuilder sb = ItemCodec.begin(version, base, changes);
+            for (int k = n - 1; k >= 0; k--) {
+                View step = chain[k];
+                for (int i = 0; i < step.changedCells.length; i++) {
+                    int cell = step.changedCells[i];
+                    ItemCodec.append(sb, PlayerTable.cellX(cell), PlayerTable.cellY(cell), step.changedTypes[i]);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package server;
+
+import protocol.StateCodec;
+
+// 지연 보정 (-Dsnake.lagcomp.ticks=N, 기본 0 = 끔)
+// 핑이 높은 플레이어는 화면에서 꺾은 시점보다 한두 틱 늦게 MOVE가 도착해서 벽/몸통 바로 앞에서 꺾지 못함
+// 클라이언트는 MOVE에 키를 누를 때 보던 STATE의 틱을 붙여 보내고(Protocol.move), 서버는 틱 시작 시 확정된 방향 전환마다
+//   늦은 틱 수 = 지금 틱 - 보던 틱 (바로 다음 이동에 반영되면 0)
+// 만큼 그 지렁이를 되돌려 그 틱에 꺾은 것으로 다시 계산 (PlayerTable.bendHead, 리플레이에는 BEND 레코드)
+//   - 보정 범위: min(늦은 틱 수, N, 그 클라이언트 RTT를 틱으로 올림) → RTT보다 오래된 틱을 주장해도 더 되돌리지 않음
+//   - 그동안 직진만 했고 사과를 먹거나 길어지지 않은 만큼만 (그래야 꼬리 쪽이 그대로라서 머리 쪽 몇 칸만 고치면 됨)
+//   - 다시 계산한 칸이 벽/몸통/아이템과 겹치면 보정하지 않고 예전처럼 이번 틱에 꺾음 (지나간 틱에 죽이거나 먹이지 않음)
+//   - 다른 지렁이는 되돌리지 않고 지금 위치와 비교 (한두 틱 동안의 이동은 무시하는 근사)
+// 보정에 든 시간은 FramePipeline 보고에 함께 출력 → 핑 높은 플레이어가 많아도 틱 예산 안인지 확인
+final class LagCompensation {
+
+    static final int MAX_TICKS = Integer.getInteger("snake.lagcomp.ticks", 0);
+
+    private final int tickMs;
+    private final StageStats cost = new StageStats("lagcomp");
+    private long applied = 0;  // 보정한 방향 전환 수
+    private long rejected = 0; // 늦었지만 보정하지 못한 수 (직진이 아님, 다시 계산한 칸이 막힘 등)
+    private long bentTicks = 0;
+
+    LagCompensation(int tickMs) {
+        this.tickMs = tickMs;
+    }
+
+    // GameLogic 락 안, 틱 시작 시 (latchDirections 직후, 이동 전)
+    void apply(PlayerTable p, ItemField items, long tick, ReplayRecorder recorder) {
+        long start = System.nanoTime();
+        int candidates = 0, ok = 0, failed = 0, ticks = 0;
+        for (int s = 0; s < p.highWater; s++) {
+            long viewed = p.turnTick[s];
+            if (viewed < 0 || !p.used[s] || !p.alive[s] || p.handlers[s] == null) continue;
+            int late = (int) Math.min(tick - viewed, MAX_TICKS);
+            if (late <= 0) continue;
+            candidates++;
+
+            int bend = bendTicks(p, s, Math.min(late, rttTicks(p.handlers[s])));
+            if (bend <= 0 || blocked(p, s, bend, items)) {
+                failed++;
+                continue;
+            }
+            p.bendHead(s, bend, p.direction[s]);
+            if (recorder != null) {
+                recorder.recordBend(s, bend, p.direction[s]);
+            }
+            ok++;
+            ticks += bend;
+        }
+        if (candidates == 0) return;
+        cost.record(System.nanoTime() - start);
+        synchronized (this) {
+            applied += ok;
+            rejected += failed;
+            bentTicks += ticks;
+        }
+    }
+
+    // 되돌릴 수 있는 틱 수 (0이면 보정 불가)
+    private static int bendTicks(PlayerTable p, int s, int wanted) {
+        int first = p.run(s, 0);
+        int back = StateCodec.runDirection(first); // 머리에서 꼬리 쪽 = 지금까지 이동 방향의 반대
+        byte dir = p.direction[s];
+        if (back == StateCodec.RUN_STAY || dir == back || dir == (back ^ 1)) return 0; // 꺾은 게 아님
+        return Math.min(wanted, Math.min(StateCodec.runLength(first), p.steadyMoves[s]));
+    }
+
+    // 꺾은 틱부터 다시 계산한 머리 쪽 칸들이 벽/몸통/아이템과 겹치는지
+    private static boolean blocked(PlayerTable p, int s, int ticks, ItemField items) {
+        int corner = p.cell(s, ticks);
+        int x = PlayerTable.cellX(corner), y = PlayerTable.cellY(corner);
+        for (int j = 1; j <= ticks; j++) {
+            switch (p.direction[s]) {
+                case PlayerTable.UP: y--; break;
+                case PlayerTable.DOWN: y++; break;
+                case PlayerTable.LEFT: x--; break;
+                default: x++; break;
+            }
+            if (x < 0 || x >= GameLogic.BOARD_WIDTH || y < 0 || y >= GameLogic.BOARD_HEIGHT) return true;
+            int cell = PlayerTable.pack(x, y);
+            if (items.typeAt(cell) != 0) return true;
+            for (int i = ticks + 1, n = p.length[s]; i < n; i++) {
+                if (p.cell(s, i) == cell) return true;
+            }
+            for (int o = 0; o < p.highWater; o++) {
+                if (o != s && p.used[o] && p.alive[o] && p.bodyContains(o, cell)) return true;
+            }
+        }
+        return false;
+    }
+
+    // RTT를 틱 수로 올림 (아직 모르면 0 → 보정 안 함)
+    private int rttTicks(ClientHandler handler) {
+        long rtt = handler.getRttMicros();
+        if (rtt < 0) return 0;
+        return (int) ((rtt + tickMs * 1000L - 1) / (tickMs * 1000L));
+    }
+
+    // ex) "lagcomp avg=0.01ms max=0.05ms applied=12 rejected=3 avgTicks=1.5"
+    synchronized String reportAndReset() {
+        String report = cost.reportAndReset() + " applied=" + applied + " rejected=" + rejected
+                + String.format(" avgTicks=%.1f", applied == 0 ? 0.0 : (double) bentTicks / applied);
+        applied = 0;
+        rejected = 0;
+        bentTicks = 0;
+        return report;
+    }
+}
@@ -0,0 +1,59 @@
+package server;
+
+import java.util.Arrays;
+
+// 클라이언트들이 PING에 실어 보내는 지연 측정값 집계 (RTT, 키 입력 → 화면 반영)
+// 1ms 단위 히스토그램이라 표본이 아무리 많아도 메모리가 일정하고, 보고할 때 백분위수를 계산
+// FramePipeline 보고(약 30초마다) 때 함께 출력하고 초기화
+class LatencyStats {
+
+    private static final int MAX_MS = 2000; // 이보다 크면 마지막 칸에 모음
+
+    private final Histogram rtt = new Histogram("rtt");
+    private final Histogram input = new Histogram("input");
+
+    // 음수는 클라이언트가 아직 측정하지 못한 값
+    void record(long rttMicros, long inputMicros) {
+        if (rttMicros >= 0) rtt.record(rttMicros);
+        if (inputMicros >= 0) input.record(inputMicros);
+    }
+
+    // ex) "rtt p50=23ms p95=41ms p99=88ms n=1200 | input p50=150ms ..."
+    String reportAndReset() {
+        return rtt.reportAndReset() + " | " + input.reportAndReset();
+    }
+
+    private static class Histogram {
+        private final String name;
+        private final int[] counts = new int[MAX_MS + 1];
+        private int total;
+
+        Histogram(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long micros) {
+            counts[(int) Math.min(MAX_MS, micros / 1000)]++;
+            total++;
+        }
+
+        synchronized String reportAndReset() {
+            String report = total == 0 ? name + " n=0"
+                    : name + " p50=" + percentile(0.50) + "ms p95=" + percentile(0.95)
+                            + "ms p99=" + percentile(0.99) + "ms n=" + total;
+            Arrays.fill(counts, 0);
+            total = 0;
+            return report;
+        }
+
+        private int percentile(double p) {
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int ms = 0; ms <= MAX_MS; ms++) {
+                seen += counts[ms];
+                if (seen >= rank) return ms;
+            }
+            return MAX_MS;
+        }
+    }
+}
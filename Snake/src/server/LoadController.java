@@ -0,0 +1,133 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 부하에 따라 단계적으로 덜 보내고/덜 기록하고/틱을 늘려서, 밀리더라도 게임 루프가 제때 돌게 함
+// (-Dsnake.adaptive=true 일 때만 켬. 기본은 꺼져서 항상 NORMAL)
+//
+// 부하 = 게임 스레드가 한 틱에 쓴 시간(입장+틱 계산+스냅샷+publish) / 틱 간격, 지수 평균
+//   직렬화/전송은 FramePipeline 스레드에서 다음 틱과 겹쳐 돌므로 넣지 않음 (넣으면 같은 시간을 두 번 세서 너무 일찍 낮춤)
+//   HIGH_LOAD 이상이 UP_TICKS틱 이어지면 한 단계 올리고, LOW_LOAD 미만이 DOWN_TICKS틱 이어지면 한 단계 내림
+//   (내릴 때는 더 오래 지켜봄 → 경계에서 오르내리기를 반복하지 않음)
+// 단계 (위 단계는 아래 단계를 포함)
+//   1 SPECTATOR_HALF : 관전자(SpectatorRelay)에게는 두 프레임에 하나만 보냄
+//   2 SPARSE_KEYFRAME: 리플레이 키프레임(게임 스레드에서 전체 상태를 씀) 간격 × KEYFRAME_STRETCH
+//   3 SLOW_TICK      : 틱 간격을 TICK_STEP_MS씩 늘림 (-Dsnake.tick.maxMs까지, 기본 200). 내려올 때도 한 걸음씩
+// 단계가 바뀔 때마다 로그, FramePipeline 보고에 현재 단계/틱 간격/부하/건너뛴 관전 프레임 수
+final class LoadController {
+
+    static final boolean ENABLED = Boolean.getBoolean("snake.adaptive");
+
+    static final int NORMAL = 0;
+    static final int SPECTATOR_HALF = 1;
+    static final int SPARSE_KEYFRAME = 2;
+    static final int SLOW_TICK = 3;
+    private static final String[] LEVEL_NAMES = { "NORMAL", "SPECTATOR_HALF", "SPARSE_KEYFRAME", "SLOW_TICK" };
+
+    private static final double HIGH_LOAD = 0.8;
+    private static final double LOW_LOAD = 0.4;
+    private static final int UP_TICKS = 5;
+    private static final int DOWN_TICKS = 25;
+    private static final int TICK_STEP_MS = 20;
+    private static final int KEYFRAME_STRETCH = 4;
+
+    private final int baseTickMs;
+    private final int maxTickMs;
+
+    // 게임 스레드만 씀 (다른 스레드는 volatile로 읽기만)
+    private volatile int level = NORMAL;
+    private volatile int tickMs;
+    private volatile double load = 0;
+    private int hot = 0;
+    private int cool = 0;
+
+    private final AtomicLong skippedSpectatorFrames = new AtomicLong();
+    private long changes = 0;
+
+    LoadController(int baseTickMs) {
+        this.baseTickMs = baseTickMs;
+        this.maxTickMs = Math.max(baseTickMs, Integer.getInteger("snake.tick.maxMs", 200));
+        this.tickMs = baseTickMs;
+    }
+
+    // 게임 스레드: 틱마다 한 번. 다음 틱까지의 간격(ms)을 반환
+    int update(long tickWorkNanos) {
+        double now = (double) tickWorkNanos / (tickMs * 1_000_000L);
+        load = load * 0.8 + now * 0.2;
+
+        if (load >= HIGH_LOAD) {
+            cool = 0;
+            if (++hot >= UP_TICKS) {
+                hot = 0;
+                escalate();
+            }
+        } else if (load < LOW_LOAD) {
+            hot = 0;
+            if (++cool >= DOWN_TICKS) {
+                cool = 0;
+                relax();
+            }
+        } else {
+            hot = 0;
+            cool = 0;
+        }
+        return tickMs;
+    }
+
+    private void escalate() {
+        if (level < SLOW_TICK) {
+            changed(level + 1, tickMs);
+        } else if (tickMs < maxTickMs) {
+            changed(level, Math.min(maxTickMs, tickMs + TICK_STEP_MS));
+        }
+    }
+
+    private void relax() {
+        if (tickMs > baseTickMs) {
+            changed(level, Math.max(baseTickMs, tickMs - TICK_STEP_MS));
+        } else if (level > NORMAL) {
+            changed(level - 1, tickMs);
+        }
+    }
+
+    private void changed(int newLevel, int newTickMs) {
+        boolean up = newLevel > level || newTickMs > tickMs;
+        level = newLevel;
+        tickMs = newTickMs;
+        synchronized (this) {
+            changes++;
+        }
+        if (up) {
+            Log.warn("부하가 높아 한 단계 낮춤", "level", LEVEL_NAMES[newLevel], "tickMs", newTickMs,
+                    "load", Math.round(load * 100) + "%");
+        } else {
+            Log.info("부하가 줄어 한 단계 되돌림", "level", LEVEL_NAMES[newLevel], "tickMs", newTickMs,
+                    "load", Math.round(load * 100) + "%");
+        }
+    }
+
+    // 직렬화 스레드: 이 프레임을 관전자에게도 보낼지
+    boolean sendToSpectators(long frame) {
+        if (level < SPECTATOR_HALF || frame % 2 == 0) return true;
+        skippedSpectatorFrames.incrementAndGet();
+        return false;
+    }
+
+    // 리플레이 키프레임 간격 배수
+    int keyframeStretch() {
+        return level >= SPARSE_KEYFRAME ? KEYFRAME_STRETCH : 1;
+    }
+
+    int getTickMs() {
+        return tickMs;
+    }
+
+    // ex) "adaptive level=SPECTATOR_HALF tickMs=120 load=83% changes=1 skippedSpectatorFrames=125"
+    synchronized String reportAndReset() {
+        String report = "adaptive level=" + LEVEL_NAMES[level] + " tickMs=" + tickMs + " load="
+                + Math.round(load * 100) + "% changes=" + changes + " skippedSpectatorFrames="
+                + skippedSpectatorFrames.getAndSet(0);
+        changes = 0;
+        return report;
+    }
+}
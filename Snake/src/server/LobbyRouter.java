@@ -0,0 +1,150 @@
+package server;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import protocol.Protocol;
+import transport.Connection;
+import transport.Transport;
+
+// 로비 라우터: 게임 서버 여러 대(노드)를 묶어 한 주소로 접속받음 (외부 조율 서비스 없이 프로세스 하나)
+// 실행 예 (한 PC에서 JVM 여러 개로 시험):
+//   java -cp bin server.LobbyRouter                                        (기본 5000번, -Dsnake.router.port)
+//   java -Dsnake.port=5001 -Dsnake.router=127.0.0.1:5000 -cp bin server.ServerMain
+//   java -Dsnake.port=5002 -Dsnake.router=127.0.0.1:5000 -cp bin server.ServerMain
+// 클라이언트는 그대로 라우터 주소로 접속
+//
+// 접속마다 첫 줄로 구분
+//   - "NODE ..." : 노드의 ClusterAgent. 연결을 유지하며 1초마다 방/인원/틱 여유를 보고 → 노드 표 갱신
+//   - "JOIN ..." / "SPECTATE" : 클라이언트. 가장 한가한 노드를 골라 "REDIRECT 호스트 포트"를 보내고 닫음
+//     (자리 있는 노드가 없으면 "BUSY FULL")
+// 노드 선택: 인원 < 최대인원 이고 틱 여유가 -Dsnake.router.minHeadroomMs(기본 20) 이상인 노드 중 사용률(인원/최대인원)이 가장 낮은 곳
+//   보고 사이에 보낸 클라이언트는 reserved로 더해둬서 한꺼번에 몰려와도 한 노드에 다 보내지 않음 (다음 보고 때 초기화)
+// 보고가 NODE_TIMEOUT_MS 동안 없거나 연결이 끊긴 노드는 표에서 뺌
+public class LobbyRouter {
+
+    private static final long NODE_TIMEOUT_MS = 3000;
+    private static final int MIN_HEADROOM_MS = Integer.getInteger("snake.router.minHeadroomMs", 20);
+
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    private static final class Node {
+        final String id;
+        String host;
+        int port;
+        int rooms;
+        int players;
+        int capacity;
+        long headroomMs;
+        int reserved;      // 마지막 보고 이후 이 노드로 보낸 클라이언트 수
+        long reportedAt;
+
+        Node(String id) {
+            this.id = id;
+        }
+
+        double load() {
+            return (double) (players + reserved) / Math.max(1, capacity);
+        }
+    }
+
+    public void start(Transport transport) throws IOException {
+        Log.info("로비 라우터 시작", "port", transport.getPort(), "minHeadroomMs", MIN_HEADROOM_MS);
+        while (true) {
+            Connection connection = transport.accept();
+            Thread handler = new Thread(() -> handle(connection), "Router-Connection");
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    private void handle(Connection connection) {
+        String nodeId = null;
+        try {
+            String first = connection.readLine();
+            if (first == null) return;
+
+            if (first.startsWith(Protocol.NODE)) {
+                // 노드: 끊길 때까지 보고를 받음
+                String line = first;
+                do {
+                    if (line.startsWith(Protocol.NODE)) nodeId = update(line);
+                } while ((line = connection.readLine()) != null);
+            } else if (first.startsWith(Protocol.JOIN) || first.startsWith(Protocol.SPECTATE)) {
+                Node node = place();
+                if (node == null) {
+                    connection.writeLine(Protocol.BUSY + "FULL");
+                    Log.info("배정할 노드 없음", "addr", connection.getAddress());
+                } else {
+                    connection.writeLine(Protocol.REDIRECT + node.host + " " + node.port);
+                    Log.debug("클라이언트 배정", "node", node.id, "addr", connection.getAddress());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.debug("라우터 연결 오류", "error", e.toString());
+        } finally {
+            connection.close();
+            if (nodeId != null) removeNode(nodeId);
+        }
+    }
+
+    // "NODE 아이디 호스트 포트 방수 인원 최대인원 여유ms" → 노드 아이디
+    private synchronized String update(String line) {
+        String[] parts = line.substring(Protocol.NODE.length()).trim().split(" ");
+        Node node = nodes.get(parts[0]);
+        if (node == null) {
+            node = new Node(parts[0]);
+            nodes.put(node.id, node);
+            Log.info("노드 등록", "node", node.id, "nodes", nodes.size());
+        }
+        node.host = parts[1];
+        node.port = Integer.parseInt(parts[2]);
+        node.rooms = Integer.parseInt(parts[3]);
+        node.players = Integer.parseInt(parts[4]);
+        node.capacity = Integer.parseInt(parts[5]);
+        node.headroomMs = Long.parseLong(parts[6]);
+        node.reserved = 0;
+        node.reportedAt = System.currentTimeMillis();
+        return node.id;
+    }
+
+    private synchronized void removeNode(String id) {
+        if (nodes.remove(id) != null) {
+            Log.info("노드 해제", "node", id, "nodes", nodes.size());
+        }
+    }
+
+    // 가장 한가한 노드 (없으면 null)
+    private synchronized Node place() {
+        long now = System.currentTimeMillis();
+        Node best = null;
+        for (Iterator<Node> it = nodes.values().iterator(); it.hasNext();) {
+            Node node = it.next();
+            if (now - node.reportedAt > NODE_TIMEOUT_MS) {
+                it.remove();
+                Log.warn("보고가 끊긴 노드 제외", "node", node.id);
+                continue;
+            }
+            if (node.rooms <= 0 || node.players + node.reserved >= node.capacity) continue;
+            if (node.headroomMs < MIN_HEADROOM_MS) continue;
+            if (best == null || node.load() < best.load()
+                    || (node.load() == best.load() && node.headroomMs > best.headroomMs)) {
+                best = node;
+            }
+        }
+        if (best != null) best.reserved++;
+        return best;
+    }
+
+    public static void main(String[] args) {
+        int port = Integer.getInteger("snake.router.port", 5000);
+        try {
+            new LobbyRouter().start(Transport.open(System.getProperty("snake.transport", "tcp"), port));
+        } catch (IOException e) {
+            Log.error("라우터 오류", e);
+            Log.flush(1000);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package server;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// 서버 로그 (System.out.println 대신)
+// println은 stdout 락을 잡고 바로 쓰기 때문에 게임/네트워크 스레드가 콘솔이나 디스크 속도에 묶임
+// 여기서는 호출한 스레드가 링 버퍼 칸 하나를 CAS로 잡아서 값만 넣고 바로 돌아감 (락 없음, 대기 없음)
+// 문자열 조립/콘솔 출력/파일 쓰기는 전부 로그 스레드(Log-Writer)가 처리
+//   - 버퍼가 가득 차면 기다리지 않고 버림 (버린 개수는 나중에 WARN으로 출력) → 게임 루프는 절대 로그 때문에 멈추지 않음
+//   - 레벨: -Dsnake.log.level=DEBUG|INFO|WARN|ERROR (기본 INFO). 걸러지는 로그는 칸도 잡지 않음
+//   - 키/값 형식: Log.info("입장", "name", name, "slot", slot) → "... INFO  [GameLoop-Thread] 입장 name=alice slot=3"
+//   - 파일: -Dsnake.log.dir (기본 logs)/server.log, -Dsnake.log.maxBytes(기본 10MB)를 넘으면 server.log.1, .2 ... 로 돌림
+//     (-Dsnake.log.files 개수까지 보관, 기본 5). -Dsnake.log.console=false 이면 콘솔 출력 안 함
+final class Log {
+
+    enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 8192; // 2의 제곱수
+    private static final int MAX_FIELDS = 3;  // 키/값 쌍 최대 개수
+    private static final long IDLE_PARK_NS = 10_000_000; // 쓸 것이 없을 때 로그 스레드가 쉬는 시간
+
+    private static final Level THRESHOLD = parseLevel(System.getProperty("snake.log.level", "INFO"));
+    private static final boolean CONSOLE = !"false".equals(System.getProperty("snake.log.console"));
+    private static final File DIR = new File(System.getProperty("snake.log.dir", "logs"));
+    private static final long MAX_BYTES = Long.getLong("snake.log.maxBytes", 10L * 1024 * 1024);
+    private static final int MAX_FILES = Integer.getInteger("snake.log.files", 5);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    // 링 버퍼 칸은 미리 만들어두고 재사용 (로그 한 줄에 객체를 새로 만들지 않음)
+    private static final Event[] ring = new Event[CAPACITY];
+    private static final AtomicLong claimed = new AtomicLong(); // 다음에 잡을 칸 번호
+    private static volatile long consumed = 0;                  // 로그 스레드가 다 쓴 칸 수
+    private static volatile long flushed = 0;                   // 파일/콘솔까지 flush된 칸 수
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final Thread writer;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new Event();
+        }
+        writer = new Thread(() -> writeLoop(), "Log-Writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static final class Event {
+        volatile long published = -1; // 이 칸에 다 써넣은 번호 (로그 스레드는 이 값이 맞을 때만 읽음)
+        long timeMillis;
+        Level level;
+        String thread;
+        String message;
+        final String[] keys = new String[MAX_FIELDS];
+        final Object[] values = new Object[MAX_FIELDS];
+        int fields;
+        Throwable error;
+    }
+
+    private Log() {
+    }
+
+    // ---------------- 기록 (어느 스레드에서든, 막히지 않음) ----------------
+
+    static boolean isEnabled(Level level) {
+        return level.compareTo(THRESHOLD) >= 0;
+    }
+
+    static void debug(String message) { log(Level.DEBUG, message, 0, null, null, null, null, null, null, null); }
+    static void debug(String message, String k1, Object v1) { log(Level.DEBUG, message, 1, k1, v1, null, null, null, null, null); }
+    static void debug(String message, String k1, Object v1, String k2, Object v2) { log(Level.DEBUG, message, 2, k1, v1, k2, v2, null, null, null); }
+
+    static void info(String message) { log(Level.INFO, message, 0, null, null, null, null, null, null, null); }
+    static void info(String message, String k1, Object v1) { log(Level.INFO, message, 1, k1, v1, null, null, null, null, null); }
+    static void info(String message, String k1, Object v1, String k2, Object v2) { log(Level.INFO, message, 2, k1, v1, k2, v2, null, null, null); }
+    static void info(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) { log(Level.INFO, message, 3, k1, v1, k2, v2, k3, v3, null); }
+
+    static void warn(String message) { log(Level.WARN, message, 0, null, null, null, null, null, null, null); }
+    static void warn(String message, String k1, Object v1) { log(Level.WARN, message, 1, k1, v1, null, null, null, null, null); }
+    static void warn(String message, String k1, Object v1, String k2, Object v2) { log(Level.WARN, message, 2, k1, v1, k2, v2, null, null, null); }
+    static void warn(String message, String k1, Object v1, String k2, Object v2, String k3, Object v3) { log(Level.WARN, message, 3, k1, v1, k2, v2, k3, v3, null); }
+
+    static void error(String message, Throwable error) { log(Level.ERROR, message, 0, null, null, null, null, null, null, error); }
+
+    private static void log(Level level, String message, int fields, String k1, Object v1, String k2, Object v2,
+            String k3, Object v3, Throwable error) {
+        if (!isEnabled(level)) return;
+
+        // 칸 잡기: 로그 스레드가 아직 안 쓴 칸까지 돌아오면(가득 참) 기다리지 않고 버림
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+
+        Event e = ring[(int) (seq & (CAPACITY - 1))];
+        e.timeMillis = System.currentTimeMillis();
+        e.level = level;
+        e.thread = Thread.currentThread().getName();
+        e.message = message;
+        e.fields = fields;
+        e.keys[0] = k1; e.values[0] = v1;
+        e.keys[1] = k2; e.values[1] = v2;
+        e.keys[2] = k3; e.values[2] = v3;
+        e.error = error;
+        e.published = seq; // volatile 쓰기 → 위 값들이 로그 스레드에 보임
+    }
+
+    // 종료 직전(셧다운 훅)에 호출: 남은 로그를 최대 timeoutMs까지 기다려서 쓰게 함
+    static void flush(long timeoutMs) {
+        long target = claimed.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (flushed < target && System.currentTimeMillis() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    // ---------------- 로그 스레드 ----------------
+
+    private static void writeLoop() {
+        StringBuilder line = new StringBuilder(256);
+        RollingFile file = new RollingFile();
+        long cursor = 0;
+        while (true) {
+            Event e = ring[(int) (cursor & (CAPACITY - 1))];
+            if (e.published != cursor) {
+                // 밀린 것을 다 썼으면 한 번에 flush하고 쉼
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    line.setLength(0);
+                    line.append(LocalDateTime.now().format(TIME)).append(" WARN  [Log-Writer] 로그 버퍼가 가득 차서 버림 count=").append(lost);
+                    emit(line, file);
+                }
+                file.flush();
+                if (CONSOLE) System.out.flush();
+                flushed = cursor;
+                LockSupport.parkNanos(IDLE_PARK_NS);
+                continue;
+            }
+
+            line.setLength(0);
+            format(e, line);
+            // 칸 비우기 (참조를 오래 잡고 있지 않도록) 후 반납
+            e.message = null;
+            e.thread = null;
+            e.error = null;
+            for (int i = 0; i < MAX_FIELDS; i++) {
+                e.values[i] = null;
+            }
+            consumed = ++cursor;
+            emit(line, file);
+        }
+    }
+
+    // ex) "2026-10-19 12:00:01.234 INFO  [GameLoop-Thread] 입장 name=alice slot=3"
+    private static void format(Event e, StringBuilder sb) {
+        sb.append(LocalDateTime.ofInstant(Instant.ofEpochMilli(e.timeMillis), ZoneId.systemDefault()).format(TIME));
+        sb.append(' ').append(e.level);
+        if (e.level.name().length() == 4) sb.append(' ');
+        sb.append(" [").append(e.thread).append("] ").append(e.message);
+        for (int i = 0; i < e.fields; i++) {
+            sb.append(' ').append(e.keys[i]).append('=').append(e.values[i]);
+        }
+        if (e.error != null) {
+            sb.append(" error=").append(e.error);
+        }
+    }
+
+    private static void emit(StringBuilder line, RollingFile file) {
+        if (CONSOLE) System.out.println(line);
+        line.append('\n');
+        file.write(line);
+    }
+
+    private static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    // logs/server.log 에 이어 쓰다가 MAX_BYTES를 넘으면 돌림 (로그 스레드 전용)
+    private static final class RollingFile {
+        private final File current = new File(DIR, "server.log");
+        private Writer out;
+        private long size;
+        private boolean failed = false; // 파일을 못 열면 콘솔만 사용 (매번 다시 시도하지 않음)
+
+        void write(CharSequence text) {
+            if (failed) return;
+            try {
+                if (out == null) open();
+                out.append(text);
+                size += text.length(); // 대략적인 크기 (한글은 실제 바이트가 더 큼 → 조금 늦게 돌려도 문제없음)
+                if (size >= MAX_BYTES) rotate();
+            } catch (IOException e) {
+                failed = true;
+                System.out.println("로그 파일을 쓸 수 없어 콘솔에만 출력합니다: " + e.getMessage());
+            }
+        }
+
+        void flush() {
+            if (out == null) return;
+            try {
+                out.flush();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void open() throws IOException {
+            if (!DIR.isDirectory() && !DIR.mkdirs()) throw new IOException("로그 폴더 생성 실패: " + DIR.getAbsolutePath());
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(current, true), StandardCharsets.UTF_8));
+            size = current.length();
+        }
+
+        // server.log → server.log.1 → server.log.2 ... (가장 오래된 것은 삭제)
+        private void rotate() throws IOException {
+            out.close();
+            out = null;
+            new File(DIR, "server.log." + MAX_FILES).delete();
+            for (int i = MAX_FILES - 1; i >= 1; i--) {
+                File from = new File(DIR, "server.log." + i);
+                if (from.exists()) from.renameTo(new File(DIR, "server.log." + (i + 1)));
+            }
+            current.renameTo(new File(DIR, "server.log.1"));
+            open();
+        }
+    }
+}
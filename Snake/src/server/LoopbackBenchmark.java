@@ -0,0 +1,139 @@
+package server;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import protocol.Protocol;
+import transport.Connection;
+import transport.LoopbackTransport;
+
+// 가상 클라이언트 부하 벤치마크: 서버와 클라이언트 N명을 한 JVM 안에서 메모리 연결(LoopbackTransport)로 돌림
+// 실행: java -cp bin server.LoopbackBenchmark [클라이언트 수=200] [초=10]
+//
+// 커널 소켓이 없으므로 포트/파일 디스크립터 제한 없이 수천 명까지 띄울 수 있고, 결과는 서버 코드 자체의 비용에 가까움
+// 가상 클라이언트는 틱마다 무작위 방향으로 MOVE(순번 포함)를 보내고, 받은 STATE에서 자기 @순번을 찾아 입력 지연을 잼
+// 끝나면 받은 프레임 수/크기, 입력 지연 백분위수, 사망 수를 출력 (서버 로그는 logs/ 에만)
+public class LoopbackBenchmark {
+
+    private static final String[] DIRECTIONS = { "UP", "DOWN", "LEFT", "RIGHT" };
+    private static final int MOVE_INTERVAL_MS = 120;
+
+    private static final AtomicLong frames = new AtomicLong();
+    private static final AtomicLong frameChars = new AtomicLong();
+    private static final AtomicLong gameOvers = new AtomicLong();
+    private static final LatencyStats inputLatency = new LatencyStats();
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        // 서버 객체를 만들기 전에 설정 (모든 접속이 같은 루프백 주소라서 IP별 제한은 풀어둠)
+        setDefault("snake.log.console", "false");
+        setDefault("snake.replay", "false");
+        setDefault("snake.maxConnections", String.valueOf(clients + 16));
+        setDefault("snake.connectRate", String.valueOf(clients * 10));
+        setDefault("snake.connectBurst", String.valueOf(clients + 16));
+
+        LoopbackTransport transport = new LoopbackTransport();
+        ServerMain server = new ServerMain(transport);
+        Thread serverThread = new Thread(() -> server.startServer(), "Server-Accept");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        long connectStart = System.nanoTime();
+        SimClient[] sims = new SimClient[clients];
+        for (int i = 0; i < clients; i++) {
+            sims[i] = new SimClient("sim" + i, transport.connect());
+            sims[i].start();
+        }
+        System.out.printf("가상 클라이언트 %d명 접속: %.1fms%n", clients, (System.nanoTime() - connectStart) / 1e6);
+
+        Random random = new Random(1);
+        long end = System.currentTimeMillis() + seconds * 1000L;
+        while (System.currentTimeMillis() < end) {
+            for (SimClient sim : sims) {
+                sim.move(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+            }
+            Thread.sleep(MOVE_INTERVAL_MS);
+        }
+
+        long frameCount = frames.get();
+        System.out.printf("clients=%d seconds=%d | frames=%d (%.1f/s per client) | avg frame=%.0f chars | gameovers=%d%n",
+                clients, seconds, frameCount, (double) frameCount / clients / seconds,
+                frameCount == 0 ? 0.0 : (double) frameChars.get() / frameCount, gameOvers.get());
+        System.out.println("input latency: " + inputLatency.reportAndReset());
+        for (SimClient sim : sims) {
+            sim.connection.close();
+        }
+        transport.close();
+        Log.flush(1000);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) System.setProperty(key, value);
+    }
+
+    // 가상 클라이언트: 읽기 스레드 하나 + 드라이버가 부르는 move()
+    private static class SimClient extends Thread {
+        final String name;
+        final Connection connection;
+        private final String marker;      // STATE 안에서 내 지렁이를 찾는 표시 ("이름:")
+        private final long[] sentAt = new long[64];
+        private volatile int seq = 0;
+        private int lastAcked = 0;
+
+        SimClient(String name, Connection connection) throws IOException {
+            super("Sim-" + name);
+            setDaemon(true);
+            this.name = name;
+            this.connection = connection;
+            this.marker = name + ":";
+            connection.writeLine(Protocol.JOIN + name);
+        }
+
+        void move(String direction) {
+            int next = seq + 1;
+            sentAt[next & 63] = System.nanoTime();
+            seq = next;
+            try {
+                connection.writeLine(Protocol.move(direction, next));
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                String line;
+                while ((line = connection.readLine()) != null) {
+                    if (line.startsWith(Protocol.STATE)) {
+                        frames.incrementAndGet();
+                        frameChars.addAndGet(line.length());
+                        checkAck(line);
+                    } else if (line.startsWith(Protocol.GAMEOVER)) {
+                        gameOvers.incrementAndGet();
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        // "...;sim3:...[r,g,b]@17;..." 에서 내 @순번만 찾음 (전체 해석 없이)
+        private void checkAck(String line) {
+            int at = line.indexOf(marker);
+            while (at > 0 && line.charAt(at - 1) != ' ' && line.charAt(at - 1) != ';') {
+                at = line.indexOf(marker, at + 1); // "sim13:" 안의 "sim3:" 같은 부분 일치 건너뜀
+            }
+            if (at < 0) return;
+            int end = line.indexOf(';', at);
+            int ack = line.lastIndexOf("]@", end);
+            if (ack < at) return;
+            int acked = Integer.parseInt(line.substring(ack + 2, end));
+            int sent = seq;
+            if (acked <= lastAcked || acked > sent || sent - acked >= 64) return;
+            lastAcked = acked;
+            inputLatency.record(-1, (System.nanoTime() - sentAt[acked & 63]) / 1000);
+        }
+    }
+}
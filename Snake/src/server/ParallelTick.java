@@ -0,0 +1,212 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+// 지렁이가 아주 많은 방에서 updateGame()의 이동/충돌 판정을 여러 코어로 나눠 처리 (-Dsnake.parallelTick=true)
+//
+// 1. 이동: 지렁이끼리 서로 영향을 주지 않으므로 지렁이 묶음(chunk) 단위로 병렬 실행
+// 2. 충돌 "사실" 수집: 보드를 가로 띠(band)로 나누고, 각 띠가 자기 영역의 칸 -> 점유 지렁이 목록을 만들어
+//    그 띠에 머리가 있는 지렁이마다 "내 머리와 겹치는 다른 지렁이 목록(순회 순서대로)"과 자기 몸 충돌 여부를 계산
+//    (띠 경계를 넘는 몸통/머리도 칸 단위로 소속 띠가 정해지므로 빠짐없이 잡힘)
+// 3. 판정 적용: 수집한 사실을 GameLogic의 순차 루프와 똑같은 순서(슬롯 순서)로 적용 → 순차 경로와 결과가 항상 같음
+//    (순차 루프에서 누가 먼저 죽었는지에 따라 뒤쪽 판정이 달라지므로 이 단계만은 순차로 처리)
+// 지렁이 index는 PlayerTable의 슬롯 번호를 그대로 사용 (빈 슬롯은 건너뜀)
+class ParallelTick {
+
+    private static final int SNAKES_PER_TASK = 64;
+
+    // 보드 밖으로 한 칸 나간 머리까지 담기 위해 테두리 1칸씩 여유
+    private static final int GRID_W = GameLogic.BOARD_WIDTH + 2;
+    private static final int GRID_H = GameLogic.BOARD_HEIGHT + 2;
+
+    private final ForkJoinPool pool;
+    private final int bands;
+    private final int[] bandStartRow; // 띠 b는 [bandStartRow[b], bandStartRow[b + 1]) 행을 담당
+    private final int[] bandOfRow;
+
+    ParallelTick(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.bands = Math.min(GRID_H, parallelism * 2);
+        this.bandStartRow = new int[bands + 1];
+        this.bandOfRow = new int[GRID_H];
+        for (int b = 0; b <= bands; b++) {
+            bandStartRow[b] = b * GRID_H / bands;
+        }
+        for (int b = 0; b < bands; b++) {
+            for (int row = bandStartRow[b]; row < bandStartRow[b + 1]; row++) bandOfRow[row] = b;
+        }
+    }
+
+    // 1단계: 살아있는 모든 지렁이 이동 (슬롯마다 자기 배열 칸만 바뀜)
+    void moveAll(PlayerTable p) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < p.highWater; from += SNAKES_PER_TASK) {
+            int start = from;
+            int end = Math.min(p.highWater, from + SNAKES_PER_TASK);
+            tasks.add(() -> {
+                for (int s = start; s < end; s++) {
+                    if (p.used[s] && p.alive[s]) p.move(s);
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(tasks);
+    }
+
+    // 2~3단계: 충돌 판정. 순차 경로와 같은 순서로 p.kill()/headOn()/killedBy() → 죽은 순서도 같음
+    void collide(PlayerTable p) {
+        int n = p.highWater;
+        int[][] candidates = new int[n][]; // (다른 지렁이 index << 1) | 머리끼리 충돌이면 1
+        boolean[] selfHit = new boolean[n];
+        boolean[] outside = new boolean[n]; // 테두리 밖(정상 게임에선 없음) → 전수 검사로 처리
+
+        // (2-1) 지렁이 묶음마다 몸통 칸을 띠별로 분류
+        int chunks = (n + SNAKES_PER_TASK - 1) / SNAKES_PER_TASK;
+        LongList[][] buckets = new LongList[chunks][bands];
+        List<Callable<Void>> bucketTasks = new ArrayList<>();
+        for (int c = 0; c < chunks; c++) {
+            int chunk = c;
+            bucketTasks.add(() -> {
+                LongList[] mine = buckets[chunk];
+                for (int b = 0; b < bands; b++) mine[b] = new LongList();
+                int end = Math.min(n, (chunk + 1) * SNAKES_PER_TASK);
+                for (int i = chunk * SNAKES_PER_TASK; i < end; i++) {
+                    if (!p.used[i] || !p.alive[i]) continue;
+                    for (int k = 0, len = p.length[i]; k < len; k++) {
+                        int cell = p.cell(i, k);
+                        int gx = PlayerTable.cellX(cell) + 1, gy = PlayerTable.cellY(cell) + 1;
+                        if (gx < 0 || gx >= GRID_W || gy < 0 || gy >= GRID_H) {
+                            if (k == 0) outside[i] = true;
+                            continue;
+                        }
+                        // 칸 번호(상위 32비트) + 지렁이 index + 머리 여부
+                        long entry = ((long) (gy * GRID_W + gx) << 32) | ((long) i << 1) | (k == 0 ? 1 : 0);
+                        mine[bandOfRow[gy]].add(entry);
+                    }
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(bucketTasks);
+
+        // (2-2) 띠마다 칸별 점유 목록을 만들고, 그 띠에 있는 머리의 충돌 후보 계산
+        List<Callable<Void>> bandTasks = new ArrayList<>();
+        for (int b = 0; b < bands; b++) {
+            int band = b;
+            bandTasks.add(() -> {
+                int rowFrom = bandStartRow[band];
+                int rowTo = bandStartRow[band + 1];
+                int cellBase = rowFrom * GRID_W;
+                int[] start = new int[(rowTo - rowFrom) * GRID_W + 1];
+
+                // 칸별 개수 → 누적합 → 채우기 (묶음 순서대로 넣으므로 칸 안에서는 지렁이 index 오름차순)
+                for (int c = 0; c < chunks; c++) {
+                    LongList list = buckets[c][band];
+                    for (int k = 0; k < list.size; k++) start[(int) (list.data[k] >>> 32) - cellBase + 1]++;
+                }
+                for (int k = 1; k < start.length; k++) start[k] += start[k - 1];
+                int[] fill = Arrays.copyOf(start, start.length - 1);
+                int[] occupants = new int[start[start.length - 1]];
+                List<long[]> heads = new ArrayList<>();
+                for (int c = 0; c < chunks; c++) {
+                    LongList list = buckets[c][band];
+                    for (int k = 0; k < list.size; k++) {
+                        long entry = list.data[k];
+                        int cell = (int) (entry >>> 32) - cellBase;
+                        occupants[fill[cell]++] = (int) entry;
+                        if ((entry & 1) != 0) heads.add(new long[] { cell, (int) entry >>> 1 });
+                    }
+                }
+
+                for (long[] head : heads) {
+                    int cell = (int) head[0];
+                    int i = (int) head[1];
+                    int[] found = new int[start[cell + 1] - start[cell]];
+                    int count = 0;
+                    int lastOther = -1;
+                    for (int k = start[cell]; k < start[cell + 1]; k++) {
+                        int j = occupants[k] >>> 1;
+                        boolean isHead = (occupants[k] & 1) != 0;
+                        if (j == i) {
+                            if (!isHead) selfHit[i] = true; // 머리 칸에 내 몸통이 또 있음
+                        } else if (j != lastOther) {
+                            // 같은 지렁이의 칸들은 연속으로 들어있고, 머리 칸이 항상 먼저 옴
+                            found[count++] = (j << 1) | (isHead ? 1 : 0);
+                            lastOther = j;
+                        }
+                    }
+                    candidates[i] = Arrays.copyOf(found, count);
+                }
+                return null;
+            });
+        }
+        pool.invokeAll(bandTasks);
+
+        // (3) 순차 루프와 같은 순서로 판정 적용
+        for (int i = 0; i < n; i++) {
+            if (!p.used[i] || !p.alive[i]) continue;
+            int head = p.headCell(i);
+
+            if (outside[i]) {
+                resolveByScan(p, i);
+            } else if (candidates[i] != null) {
+                for (int candidate : candidates[i]) {
+                    int other = candidate >>> 1;
+                    if (!p.alive[other]) continue;
+                    if ((candidate & 1) != 0) { // (A) 머리끼리 충돌
+                        p.headOn(i, other);
+                    } else { // (B) 내 머리가 다른 지렁이 몸통과 충돌
+                        p.killedBy(i, other);
+                    }
+                    break;
+                }
+            }
+
+            if (!p.alive[i]) continue;
+
+            int x = PlayerTable.cellX(head), y = PlayerTable.cellY(head);
+            if (x < 0 || x >= GameLogic.BOARD_WIDTH || y < 0 || y >= GameLogic.BOARD_HEIGHT) {
+                p.kill(i, GameEvent.WALL);
+                continue;
+            }
+            if (outside[i] ? p.selfCollision(i) : selfHit[i]) {
+                p.kill(i, GameEvent.SELF);
+            }
+        }
+    }
+
+    // 테두리 밖 머리는 순차 경로와 같은 방식으로 전부 비교 (정상적인 게임에서는 발생하지 않음)
+    private static void resolveByScan(PlayerTable p, int i) {
+        int head = p.headCell(i);
+        for (int other = 0; other < p.highWater; other++) {
+            if (!p.used[other] || !p.alive[other] || other == i) continue;
+            if (head == p.headCell(other)) {
+                p.headOn(i, other);
+                return;
+            }
+            if (p.bodyContains(other, head)) {
+                p.killedBy(i, other);
+                return;
+            }
+        }
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    // 박싱 없이 long을 모으는 간단한 가변 배열
+    private static class LongList {
+        long[] data = new long[64];
+        int size;
+
+        void add(long value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import protocol.Protocol;
+
+// 사망한 플레이어 처리 (게임 스레드 밖에서)
+// 예전에는 updateGame()이 GameLogic 락을 잡은 채로 GAMEOVER 전송 + 소켓 닫기까지 했고,
+// 닫힌 소켓 때문에 끝난 읽기 스레드가 다시 removePlayer/removeClient/퇴장 안내를 해서 사망이 두 번 처리됐음
+//
+// 이제 게임 스레드는 사망한 ClientHandler에 표시(died)만 하고 여기 대기열에 넣음 (슬롯은 그 틱에 바로 비움)
+// 처리 스레드가 나중에:
+//   1. 킬캠: 죽기 직전 몇 틱(RewindBuffer)을 "KILLCAM <상태>"로, 이어서 "GAMEOVER <죽은 틱의 상태>" 전송
+//      (문자열 변환도 여기서, 같은 틱 사망자끼리 공유. +rle 클라이언트는 구간 형식)
+//   2. 탈락 안내 CHAT (채팅 중계로)
+//   3. 연결은 끊지 않고 관전자로 전환 → 클라이언트가 나가기를 누를 때까지 게임 화면을 계속 받음
+// 연결 종료(소켓 정리)는 그 클라이언트의 읽기 스레드가 한 번만 처리
+class PlayerLifecycle {
+
+    private final ServerMain server;
+    private final Queue<Death> deaths = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+
+    private static final class Death {
+        final ClientHandler handler;
+        final String name;
+        final int score;
+        final GameSnapshot finalState; // 죽은 지렁이가 (D)로 들어 있는 그 틱의 상태
+        final GameSnapshot[] killcam;  // 그 직전 틱들 (오래된 것부터, 없으면 빈 배열)
+
+        Death(ClientHandler handler, String name, int score, GameSnapshot finalState, GameSnapshot[] killcam) {
+            this.handler = handler;
+            this.name = name;
+            this.score = score;
+            this.finalState = finalState;
+            this.killcam = killcam;
+        }
+    }
+
+    PlayerLifecycle(ServerMain server) {
+        this.server = server;
+        this.thread = new Thread(() -> processLoop(), "Player-Lifecycle");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // 게임 스레드(GameLogic 락 안)에서 호출: 넣기만 함
+    void died(ClientHandler handler, String name, int score, GameSnapshot finalState, GameSnapshot[] killcam) {
+        deaths.add(new Death(handler, name, score, finalState, killcam));
+        LockSupport.unpark(thread);
+    }
+
+    private void processLoop() {
+        GameSnapshot lastSnapshot = null;
+        String[][] payloads = null; // [형식 0 일반 / 1 구간][킬캠..., 마지막 = 죽은 틱]
+        while (true) {
+            Death death = deaths.poll();
+            if (death == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            if (death.finalState != lastSnapshot) {
+                lastSnapshot = death.finalState;
+                payloads = new String[2][];
+            }
+            int format = death.handler.isRleState() ? 1 : 0;
+            if (payloads[format] == null) {
+                payloads[format] = encode(death, format == 1);
+            }
+
+            String[] frames = payloads[format];
+            for (int i = 0; i < frames.length - 1; i++) {
+                death.handler.sendMessage(Protocol.KILLCAM + frames[i]);
+            }
+            death.handler.sendMessage(server.getHighScores().hiscoreLine(death.name, death.score));
+            death.handler.sendMessage(Protocol.GAMEOVER + " " + frames[frames.length - 1]);
+            server.getChat().announce("CHAT [" + death.name + "] 님이 탈락했습니다. (점수 " + death.score + ")");
+            if (death.handler.becomeSpectator()) {
+                Log.info("사망 → 관전 전환", "name", death.name, "score", death.score);
+            }
+        }
+    }
+
+    // 킬캠 프레임들 + 죽은 틱 (모두 "STATE " 제외한 내용)
+    private static String[] encode(Death death, boolean rle) {
+        String[] frames = new String[death.killcam.length + 1];
+        for (int i = 0; i < death.killcam.length; i++) {
+            frames[i] = Protocol.payload(death.killcam[i].toStateString(rle));
+        }
+        frames[frames.length - 1] = Protocol.payload(death.finalState.toStateString(rle));
+        return frames;
+    }
+}
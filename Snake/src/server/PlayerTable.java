@@ -0,0 +1,501 @@
+package server;
+
+import java.util.Arrays;
+
+import protocol.StateCodec;
+
+// 방 하나의 플레이어(지렁이) 표
+// 닉네임 Map 대신 int 슬롯 번호로 접근하고, 필드마다 배열 하나씩 (struct-of-arrays)
+// → 틱마다 도는 루프(이동/충돌/사과)는 해시 조회나 객체 포인터 추적 없이 배열만 순서대로 읽음
+//
+// 슬롯은 비어 있는 가장 작은 번호부터 재사용하므로, 같은 입장/퇴장 순서면 항상 같은 슬롯이 배정됨
+// (리플레이 재생도 같은 슬롯 → 같은 순회 순서 → 같은 판정 결과)
+// 닉네임은 입장/퇴장, STATE 문자열처럼 프로토콜 경계에서만 사용
+//
+// 몸통은 슬롯마다 링 버퍼(ring[slot])에 칸을 pack(x, y)한 int로 저장
+// head[slot]부터 length[slot]칸이 머리 → 꼬리 순서. 이동은 머리 위치만 한 칸 앞으로 옮기면 끝 (꼬리는 길이로 잘림)
+// 같은 몸통을 구간으로도 들고 있음: 머리에서 꼬리 쪽으로 (방향, 칸 수) 목록 (StateCodec.run 형식)
+//   runs[slot]도 링 버퍼(앞 = 머리 쪽). 이동/성장 때 앞 구간 +1 또는 새 구간, 꼬리 구간 -1 → 항상 O(1)
+//   충돌 판정은 칸 링을 쓰고, 스냅샷/STATE는 구간만 복사 (긴 직선 지렁이도 구간 몇 개)
+//   runVersion[slot]: 첫/마지막 구간을 뺀 가운데 구간들이 바뀔 때마다 새 번호 (표 전체에서 겹치지 않음)
+//   → 직진하는 틱에는 그대로라서 스냅샷이 이전 틱의 가운데 구간 배열을 같이 씀 (RewindBuffer 참고)
+//
+// 구조(슬롯 추가/제거, 배열 확장)는 GameLogic의 synchronized 메소드 안에서만 바뀜
+// ClientHandler 스레드가 직접 건드리는 것은 steer()뿐이라 입력 관련 부분만 이 객체로 동기화
+final class PlayerTable {
+
+    // 방향 코드 (ReplayFormat.DIRECTIONS 순서와 같음). 반대 방향은 code ^ 1
+    static final byte UP = 0;
+    static final byte DOWN = 1;
+    static final byte LEFT = 2;
+    static final byte RIGHT = 3;
+
+    private static final int INITIAL_SLOTS = 16;
+    private static final int INITIAL_RING = 16; // 2의 제곱수
+    private static final int INITIAL_RUNS = 8;  // 2의 제곱수
+
+    int highWater = 0; // 사용 중인 가장 큰 슬롯 + 1 (순회 범위)
+    int count = 0;     // 사용 중인 슬롯 수
+
+    boolean[] used = new boolean[INITIAL_SLOTS];
+    String[] names = new String[INITIAL_SLOTS];
+    ClientHandler[] handlers = new ClientHandler[INITIAL_SLOTS]; // 봇, 리플레이 재생 중에는 null
+    boolean[] bot = new boolean[INITIAL_SLOTS]; // 서버 AI 봇 (BotController가 방향을 정함)
+    boolean[] alive = new boolean[INITIAL_SLOTS];
+    boolean[] justAte = new boolean[INITIAL_SLOTS]; // 사과를 먹은 직후 한 번만 true → 다음 이동에서 꼬리를 안 자름
+    int[] score = new int[INITIAL_SLOTS];
+    int[] rgb = new int[INITIAL_SLOTS];
+    byte[] direction = new byte[INITIAL_SLOTS];     // 이번 틱의 이동 방향 (틱 시작 시 확정)
+    byte[] nextDirection = new byte[INITIAL_SLOTS]; // 입력받은 다음 방향 (this로 동기화)
+    int[] inputSeq = new int[INITIAL_SLOTS];        // 마지막으로 받은 MOVE의 클라이언트 순번 (this로 동기화)
+    int[] ackedSeq = new int[INITIAL_SLOTS];        // 이번 틱 이동에 반영된 MOVE 순번 (STATE로 돌려줘서 클라이언트가 입력 지연 측정)
+    long[] inputTick = new long[INITIAL_SLOTS];     // 마지막으로 받아들인 방향 전환을 누를 때 클라이언트가 보던 틱 (this로 동기화, 없으면 -1)
+    long[] turnTick = new long[INITIAL_SLOTS];      // 이번 틱에 확정된 방향 전환의 inputTick (LagCompensation이 읽음)
+    int[] steadyMoves = new int[INITIAL_SLOTS];     // 마지막으로 사과를 먹거나 길어진 뒤 이동한 횟수
+    long[] boostUntil = new long[INITIAL_SLOTS];    // 이 틱 전까지 먹이 점수 2배 (BOOST 아이템)
+    int[][] ring = new int[INITIAL_SLOTS][];
+    int[] head = new int[INITIAL_SLOTS];
+    int[] length = new int[INITIAL_SLOTS];
+    int[][] runs = new int[INITIAL_SLOTS][];   // 몸통 구간 링 (머리 → 꼬리)
+    int[] runHead = new int[INITIAL_SLOTS];
+    int[] runCount = new int[INITIAL_SLOTS];
+    long[] runVersion = new long[INITIAL_SLOTS];
+    private long versions = 0;
+
+    // 이번 틱에 죽은 슬롯 (죽은 순서대로). GameLogic이 틱 끝에 꺼내서 처리
+    int[] deaths = new int[INITIAL_SLOTS];
+    int[] killers = new int[INITIAL_SLOTS]; // 부딪친 상대 슬롯 (벽/자기 몸이면 -1)
+    byte[] causes = new byte[INITIAL_SLOTS]; // GameEvent.WALL/SELF/BODY/HEAD_ON
+    int deathCount = 0;
+
+    // ---------------- 칸 좌표 ----------------
+
+    // 벽 충돌 판정 전에는 머리가 보드 밖 -1칸에 있을 수 있으므로 부호 있는 16비트씩 저장
+    static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    static int cellX(int cell) {
+        return cell >> 16;
+    }
+
+    static int cellY(int cell) {
+        return (short) cell;
+    }
+
+    // "UP" 등 프로토콜 문자열 → 방향 코드. 알 수 없는 값이면 -1
+    static byte parseDirection(String direction) {
+        for (int i = 0; i < ReplayFormat.DIRECTIONS.length; i++) {
+            if (ReplayFormat.DIRECTIONS[i].equals(direction)) return (byte) i;
+        }
+        return -1;
+    }
+
+    // ---------------- 슬롯 추가/제거 ----------------
+
+    // 새 지렁이: (x, y)를 머리로 오른쪽을 향한 길이 3 (왼쪽으로 몸통)
+    synchronized int add(String name, ClientHandler handler, int rgb, int x, int y, byte dir) {
+        int slot = 0;
+        while (slot < highWater && used[slot]) slot++;
+        occupy(slot, name, handler, rgb, dir);
+        int[] cells = ring[slot];
+        cells[0] = pack(x, y);
+        cells[1] = pack(x - 1, y);
+        cells[2] = pack(x - 2, y);
+        length[slot] = 3;
+        appendRun(slot, StateCodec.run(PlayerTable.LEFT, 2)); // 머리에서 왼쪽으로 두 칸
+        return slot;
+    }
+
+    // 리플레이 키프레임 복원용: 기록된 슬롯에 기록된 상태 그대로
+    synchronized void restore(int slot, String name, int rgb, byte dir, boolean isAlive, boolean ate, int points, int[] cells) {
+        occupy(slot, name, null, rgb, dir);
+        alive[slot] = isAlive;
+        justAte[slot] = ate;
+        score[slot] = points;
+        ensureRing(slot, cells.length);
+        System.arraycopy(cells, 0, ring[slot], 0, cells.length);
+        length[slot] = cells.length;
+        for (int i = 1; i < cells.length; i++) {
+            int step = stepDirection(cells[i - 1], cells[i]);
+            if (runCount[slot] > 0 && StateCodec.runDirection(lastRun(slot)) == step) {
+                addToLastRun(slot, 1);
+            } else {
+                appendRun(slot, StateCodec.run(step, 1));
+            }
+        }
+    }
+
+    // 옮겨 받은 방(RoomCheckpoint)에서 주인 없는 같은 이름의 지렁이를 되찾음 (봇 제외). 없으면 -1
+    synchronized int claim(String name, ClientHandler handler) {
+        int slot = indexOf(name);
+        if (slot < 0 || handlers[slot] != null || bot[slot]) return -1;
+        handlers[slot] = handler;
+        return slot;
+    }
+
+    private void occupy(int slot, String name, ClientHandler handler, int color, byte dir) {
+        if (slot >= used.length) growSlots(Math.max(slot + 1, used.length * 2));
+        used[slot] = true;
+        names[slot] = name;
+        handlers[slot] = handler;
+        bot[slot] = false;
+        alive[slot] = true;
+        justAte[slot] = false;
+        score[slot] = 0;
+        rgb[slot] = color;
+        direction[slot] = dir;
+        nextDirection[slot] = dir;
+        inputSeq[slot] = 0;
+        ackedSeq[slot] = 0;
+        inputTick[slot] = -1;
+        turnTick[slot] = -1;
+        steadyMoves[slot] = 0;
+        boostUntil[slot] = 0;
+        if (ring[slot] == null) ring[slot] = new int[INITIAL_RING];
+        head[slot] = 0;
+        length[slot] = 0;
+        if (runs[slot] == null) runs[slot] = new int[INITIAL_RUNS];
+        runHead[slot] = 0;
+        runCount[slot] = 0;
+        runVersion[slot] = ++versions;
+        count++;
+        if (slot >= highWater) highWater = slot + 1;
+    }
+
+    synchronized void remove(int slot) {
+        if (!used[slot]) return;
+        used[slot] = false;
+        names[slot] = null;
+        handlers[slot] = null;
+        alive[slot] = false;
+        length[slot] = 0; // 링 배열은 다음 입장자가 재사용
+        count--;
+        while (highWater > 0 && !used[highWater - 1]) highWater--;
+    }
+
+    // 같은 닉네임이 이미 있으면 "이름#2", "이름#3" ... 으로 바꿔서 겹치지 않게 함
+    // (괄호 등 STATE 구분자는 붙이지 않음, StateCodec.NAME_RESERVED)
+    String uniqueName(String name) {
+        String candidate = name;
+        for (int n = 2; indexOf(candidate) >= 0; n++) {
+            candidate = name + "#" + n;
+        }
+        return candidate;
+    }
+
+    private int indexOf(String name) {
+        for (int s = 0; s < highWater; s++) {
+            if (used[s] && names[s].equals(name)) return s;
+        }
+        return -1;
+    }
+
+    private void growSlots(int capacity) {
+        used = Arrays.copyOf(used, capacity);
+        names = Arrays.copyOf(names, capacity);
+        handlers = Arrays.copyOf(handlers, capacity);
+        bot = Arrays.copyOf(bot, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        justAte = Arrays.copyOf(justAte, capacity);
+        score = Arrays.copyOf(score, capacity);
+        rgb = Arrays.copyOf(rgb, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        nextDirection = Arrays.copyOf(nextDirection, capacity);
+        inputSeq = Arrays.copyOf(inputSeq, capacity);
+        ackedSeq = Arrays.copyOf(ackedSeq, capacity);
+        inputTick = Arrays.copyOf(inputTick, capacity);
+        turnTick = Arrays.copyOf(turnTick, capacity);
+        steadyMoves = Arrays.copyOf(steadyMoves, capacity);
+        boostUntil = Arrays.copyOf(boostUntil, capacity);
+        ring = Arrays.copyOf(ring, capacity);
+        head = Arrays.copyOf(head, capacity);
+        length = Arrays.copyOf(length, capacity);
+        runs = Arrays.copyOf(runs, capacity);
+        runHead = Arrays.copyOf(runHead, capacity);
+        runCount = Arrays.copyOf(runCount, capacity);
+        runVersion = Arrays.copyOf(runVersion, capacity);
+        deaths = Arrays.copyOf(deaths, capacity);
+        killers = Arrays.copyOf(killers, capacity);
+        causes = Arrays.copyOf(causes, capacity);
+    }
+
+    // ---------------- 방향 ----------------
+
+    // ClientHandler 스레드에서 호출. 그 슬롯의 주인(handler)일 때만 적용
+    // (죽어서 슬롯이 비고 다른 사람이 들어온 뒤에 늦게 도착한 MOVE가 남의 지렁이를 돌리지 않도록)
+    // 반대 방향으로 즉시 꺾는 것은 무시 (순번은 기록 → 무시된 입력도 "처리됨"으로 응답)
+    // seq: 클라이언트가 MOVE에 붙인 순번 (없으면 0), viewTick: 그때 보던 STATE의 틱 (없으면 -1)
+    synchronized void steer(int slot, ClientHandler handler, byte dir, int seq, long viewTick) {
+        if (slot >= highWater || handlers[slot] != handler || !alive[slot]) return;
+        if (seq > inputSeq[slot]) inputSeq[slot] = seq;
+        if ((dir ^ 1) == nextDirection[slot] || dir == nextDirection[slot]) return;
+        nextDirection[slot] = dir;
+        inputTick[slot] = viewTick;
+    }
+
+    // 틱 시작 시: 입력받은 방향을 이번 틱의 이동 방향으로 확정
+    // 틱 도중에 direction이 바뀌지 않으므로 리플레이에 기록한 방향과 실제 이동 방향이 항상 같음
+    synchronized void latchDirections() {
+        System.arraycopy(nextDirection, 0, direction, 0, highWater);
+        System.arraycopy(inputSeq, 0, ackedSeq, 0, highWater);
+        System.arraycopy(inputTick, 0, turnTick, 0, highWater);
+        Arrays.fill(inputTick, 0, highWater, -1);
+    }
+
+    // 검사 없이 방향 지정 (리플레이 재생/복원용)
+    synchronized void forceDirection(int slot, byte dir) {
+        direction[slot] = dir;
+        nextDirection[slot] = dir;
+    }
+
+    // ---------------- 몸통 ----------------
+
+    int headCell(int slot) {
+        return ring[slot][head[slot]];
+    }
+
+    // 머리부터 i번째 칸
+    int cell(int slot, int i) {
+        int[] cells = ring[slot];
+        return cells[(head[slot] + i) & (cells.length - 1)];
+    }
+
+    // 이번 틱의 방향으로 한 칸 이동. 슬롯마다 자기 배열 칸만 건드리므로 슬롯끼리는 병렬로 호출해도 됨
+    void move(int slot) {
+        if (justAte[slot]) ensureRing(slot, length[slot] + 1);
+        int[] cells = ring[slot];
+        int mask = cells.length - 1;
+        int current = cells[head[slot]];
+        int x = cellX(current), y = cellY(current);
+        switch (direction[slot]) {
+            case UP: y--; break;
+            case DOWN: y++; break;
+            case LEFT: x--; break;
+            default: x++; break;
+        }
+        int h = (head[slot] - 1) & mask;
+        cells[h] = pack(x, y); // 새 머리 (꼬리 칸 자리를 덮어써도 아래에서 길이로 잘리므로 상관없음)
+        head[slot] = h;
+
+        // 구간: 새 머리에서 예전 머리 쪽은 이동 방향의 반대
+        int back = direction[slot] ^ 1;
+        if (runCount[slot] > 0 && StateCodec.runDirection(runs[slot][runHead[slot]]) == back) {
+            runs[slot][runHead[slot]]++; // 길이는 아래 비트라서 +1이 그대로 칸 수 +1
+        } else {
+            prependRun(slot, StateCodec.run(back, 1));
+        }
+
+        if (justAte[slot]) {
+            justAte[slot] = false; // 꼬리를 자르지 않음 (몸 길이 +1)
+            length[slot]++;
+        } else {
+            addToLastRun(slot, -1); // 꼬리 한 칸 잘림
+        }
+        steadyMoves[slot]++;
+    }
+
+    // 먹이 점수 +points, 다음 이동에서 몸 길이 +1
+    void eat(int slot, int points) {
+        score[slot] += points;
+        justAte[slot] = true;
+        steadyMoves[slot] = 0;
+    }
+
+    // 지연 보정: 최근 ticks번의 직진 이동을 ticks틱 전에 dir로 꺾은 것으로 고침
+    // 직진만 했다면 꼬리 쪽은 방향과 상관없이 같으므로 머리 쪽 ticks칸만 다시 쓰면 됨 (길이/꼬리 그대로)
+    // 호출하는 쪽(LagCompensation)이 첫 구간 길이 >= ticks, steadyMoves >= ticks, 새 칸들이 비어 있음을 확인
+    void bendHead(int slot, int ticks, byte dir) {
+        int[] cells = ring[slot];
+        int mask = cells.length - 1;
+        int x = cellX(cell(slot, ticks)), y = cellY(cell(slot, ticks));
+        for (int j = 1; j <= ticks; j++) {
+            switch (dir) {
+                case UP: y--; break;
+                case DOWN: y++; break;
+                case LEFT: x--; break;
+                default: x++; break;
+            }
+            cells[(head[slot] + ticks - j) & mask] = pack(x, y);
+        }
+
+        // 구간: 첫 구간 앞쪽 ticks칸이 새 방향 구간이 됨
+        int[] r = runs[slot];
+        int first = r[runHead[slot]];
+        int bent = StateCodec.run(dir ^ 1, ticks);
+        if (StateCodec.runLength(first) > ticks) {
+            r[runHead[slot]] = first - ticks;
+            prependRun(slot, bent);
+        } else if (runCount[slot] > 1 && StateCodec.runDirection(run(slot, 1)) == (dir ^ 1)) {
+            // 첫 구간이 통째로 바뀌었는데 다음 구간과 방향이 같으면 합침
+            runHead[slot] = (runHead[slot] + 1) & (r.length - 1);
+            runCount[slot]--;
+            r[runHead[slot]] += ticks;
+            runVersion[slot] = ++versions;
+        } else {
+            r[runHead[slot]] = bent;
+            runVersion[slot] = ++versions;
+        }
+    }
+
+    // 꼬리를 최대 n칸 잘라냄 (처음 길이 3 밑으로는 줄이지 않음). 실제로 줄어든 칸 수를 반환
+    int shrink(int slot, int n) {
+        int cut = Math.min(n, length[slot] - 3);
+        if (cut <= 0) return 0;
+        steadyMoves[slot] = 0;
+        for (int i = 0; i < cut; i++) {
+            length[slot]--;
+            addToLastRun(slot, -1);
+        }
+        return cut;
+    }
+
+    // 꼬리 마지막 위치를 n번 복제 → 길이 +n
+    void grow(int slot, int n) {
+        if (n <= 0) return;
+        steadyMoves[slot] = 0;
+        ensureRing(slot, length[slot] + n);
+        int[] cells = ring[slot];
+        int mask = cells.length - 1;
+        int tail = cells[(head[slot] + length[slot] - 1) & mask];
+        for (int i = 0; i < n; i++) {
+            cells[(head[slot] + length[slot]) & mask] = tail;
+            length[slot]++;
+        }
+        // 구간: 꼬리에 "제자리" n칸
+        if (runCount[slot] > 0 && StateCodec.runDirection(lastRun(slot)) == StateCodec.RUN_STAY) {
+            addToLastRun(slot, n);
+        } else {
+            appendRun(slot, StateCodec.run(StateCodec.RUN_STAY, n));
+        }
+    }
+
+    // ---------------- 몸통 구간 ----------------
+
+    // 머리부터 i번째 구간
+    int run(int slot, int i) {
+        int[] r = runs[slot];
+        return r[(runHead[slot] + i) & (r.length - 1)];
+    }
+
+    private int lastRun(int slot) {
+        return run(slot, runCount[slot] - 1);
+    }
+
+    // 꼬리 쪽 구간 길이 += delta (0이 되면 구간 제거)
+    private void addToLastRun(int slot, int delta) {
+        int[] r = runs[slot];
+        int i = (runHead[slot] + runCount[slot] - 1) & (r.length - 1);
+        r[i] += delta;
+        if (StateCodec.runLength(r[i]) == 0) {
+            runCount[slot]--;
+            runVersion[slot] = ++versions; // 가운데의 마지막 구간이 꼬리 구간이 됨
+        }
+    }
+
+    private void prependRun(int slot, int run) {
+        ensureRuns(slot);
+        int[] r = runs[slot];
+        runHead[slot] = (runHead[slot] - 1) & (r.length - 1);
+        r[runHead[slot]] = run;
+        runCount[slot]++;
+        runVersion[slot] = ++versions; // 예전 첫 구간이 가운데로 들어감
+    }
+
+    private void appendRun(int slot, int run) {
+        ensureRuns(slot);
+        int[] r = runs[slot];
+        r[(runHead[slot] + runCount[slot]) & (r.length - 1)] = run;
+        runCount[slot]++;
+        runVersion[slot] = ++versions; // 예전 꼬리 구간이 가운데로 들어감
+    }
+
+    // 구간 링이 가득 찼으면 2배로 늘리면서 앞 구간을 0번으로
+    private void ensureRuns(int slot) {
+        int[] r = runs[slot];
+        if (runCount[slot] < r.length) return;
+        int[] bigger = new int[r.length * 2];
+        for (int i = 0; i < runCount[slot]; i++) {
+            bigger[i] = r[(runHead[slot] + i) & (r.length - 1)];
+        }
+        runs[slot] = bigger;
+        runHead[slot] = 0;
+    }
+
+    // 이웃한 두 칸 사이 방향 (같은 칸이면 RUN_STAY). 이어지지 않는 칸은 복원 데이터에 없음
+    private static int stepDirection(int from, int to) {
+        int dx = cellX(to) - cellX(from), dy = cellY(to) - cellY(from);
+        if (dy < 0) return UP;
+        if (dy > 0) return DOWN;
+        if (dx < 0) return LEFT;
+        if (dx > 0) return RIGHT;
+        return StateCodec.RUN_STAY;
+    }
+
+    // 몸통 전체(머리 포함)에 cell이 있는지
+    boolean bodyContains(int slot, int cell) {
+        int[] cells = ring[slot];
+        int mask = cells.length - 1;
+        int h = head[slot];
+        for (int i = 0, n = length[slot]; i < n; i++) {
+            if (cells[(h + i) & mask] == cell) return true;
+        }
+        return false;
+    }
+
+    // 머리가 자기 몸통(머리 제외)과 겹치는지
+    boolean selfCollision(int slot) {
+        int[] cells = ring[slot];
+        int mask = cells.length - 1;
+        int h = head[slot];
+        int headCell = cells[h];
+        for (int i = 1, n = length[slot]; i < n; i++) {
+            if (cells[(h + i) & mask] == headCell) return true;
+        }
+        return false;
+    }
+
+    // 링이 모자라면 2배씩 늘리면서 머리를 0번으로 옮겨 담음
+    private void ensureRing(int slot, int needed) {
+        int[] cells = ring[slot];
+        if (cells == null) {
+            cells = ring[slot] = new int[INITIAL_RING];
+        }
+        if (needed <= cells.length) return;
+        int size = cells.length;
+        while (size < needed) size *= 2;
+        int[] bigger = new int[size];
+        for (int i = 0; i < length[slot]; i++) {
+            bigger[i] = cells[(head[slot] + i) & (cells.length - 1)];
+        }
+        ring[slot] = bigger;
+        head[slot] = 0;
+    }
+
+    // ---------------- 사망 ----------------
+
+    // 벽(WALL) 또는 자기 몸(SELF)
+    void kill(int slot, byte cause) {
+        kill(slot, cause, -1);
+    }
+
+    // 머리끼리 충돌: 둘 다 죽음
+    void headOn(int a, int b) {
+        kill(a, GameEvent.HEAD_ON, b);
+        kill(b, GameEvent.HEAD_ON, a);
+    }
+
+    // victim의 머리가 killer의 몸통에 부딪힘 → 킬 점수 +5, 몸도 5칸 길어짐
+    void killedBy(int victim, int killer) {
+        kill(victim, GameEvent.BODY, killer);
+        score[killer] += 5;
+        grow(killer, 5);
+    }
+
+    private void kill(int slot, byte cause, int other) {
+        alive[slot] = false;
+        killers[deathCount] = other;
+        causes[deathCount] = cause;
+        deaths[deathCount++] = slot;
+    }
+}
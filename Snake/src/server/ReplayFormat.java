@@ -0,0 +1,57 @@
+package server;
+
+// 리플레이 파일(.snkr) 바이너리 포맷 정의
+// 서버의 ReplayRecorder가 쓰고, 리플레이 재생 쪽에서 같은 상수로 읽음
+//
+// [헤더]  MAGIC(int) VERSION(short) seed(long) boardW(short) boardH(short) tickMs(short) startMillis(long)
+// [레코드] type(byte) + 타입별 내용, 파일 끝까지 반복 (type 0 = 기록 끝)
+//   TICK  : 내용 없음. 이 위치에서 updateGame() 한 번 실행
+//   JOIN  : id(int) nameLen(short) name(UTF-8) rgb(int) x(short) y(short) dir(byte)
+//   LEAVE : id(int)
+//   MOVE  : id(int) dir(byte)
+//   BEND  : id(int) ticks(byte) dir(byte)  지연 보정으로 그 지렁이를 ticks틱 전에 dir로 꺾은 것으로 고침 (PlayerTable.bendHead)
+//   KEYFRAME : length(int, 이 뒤 내용의 바이트 수) tick(int) nextSeed(long)
+//              itemCount(int) { x(short) y(short) type(byte) ttl(short, 남은 틱 / 0 = 사라지지 않음) }*itemCount  (ItemField)
+//              count(int) count번 반복 { id(int) nameLen(short) name rgb(int) dir(byte) flags(byte) score(int)
+//                                       boost(short, 남은 부스트 틱) bodyLen(int) (x(short) y(short))*bodyLen }
+//              flags: bit0 = 생존, bit1 = 방금 사과 먹음
+//              키프레임 위치에서 서버는 RNG를 nextSeed로 교체하므로, 재생기는 키프레임만으로 그 시점부터 이어서 시뮬레이션 가능
+// id는 서버의 플레이어 슬롯 번호 (퇴장 후 다음 입장자가 재사용). 재생기도 같은 순서로 입장/퇴장시키면 같은 슬롯이 배정됨
+// 레코드는 기록된 순서대로 적용하면 원래 경기를 그대로 재현함
+// (버전 1은 id가 입장 순번이고 판정 순서가 닉네임순이라 버전 2 재생기로는 재현되지 않음)
+// 버전 3은 BEND 추가 (버전 2 파일에는 BEND가 없을 뿐이라 그대로 재생 가능)
+// 버전 4는 사과 하나 대신 아이템 목록 (사과 수/부스트/축소/남은 먹이 규칙이 RNG 사용 순서를 바꾸므로 버전 3 이하는 재현되지 않음)
+public final class ReplayFormat {
+
+    public static final int MAGIC = 0x534E4B52; // "SNKR"
+    public static final short VERSION = 4;
+    public static final short MIN_VERSION = 4; // 재생할 수 있는 가장 오래된 버전
+    public static final int HEADER_SIZE = 4 + 2 + 8 + 2 + 2 + 2 + 8;
+
+    public static final byte END = 0;
+    public static final byte TICK = 1;
+    public static final byte JOIN = 2;
+    public static final byte LEAVE = 3;
+    public static final byte MOVE = 4;
+    public static final byte KEYFRAME = 5;
+    public static final byte BEND = 6;
+
+    public static final byte FLAG_ALIVE = 1;
+    public static final byte FLAG_JUST_ATE = 2;
+
+    // 방향 문자열 <-> 1바이트 코드
+    public static final String[] DIRECTIONS = { "UP", "DOWN", "LEFT", "RIGHT" };
+
+    private ReplayFormat() {}
+
+    public static byte directionCode(String direction) {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            if (DIRECTIONS[i].equals(direction)) return (byte) i;
+        }
+        return 3; // 알 수 없는 값은 기본 방향(RIGHT)으로 취급
+    }
+
+    public static String directionName(byte code) {
+        return DIRECTIONS[code & 3];
+    }
+}
@@ -0,0 +1,294 @@
+package server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// ReplayRecorder가 남긴 .snkr 파일을 읽어서 경기를 다시 시뮬레이션
+// 서버와 같은 GameLogic을 server 없이 돌리고, 결과는 평소처럼 STATE 문자열로 꺼냄
+//
+// 파일은 WINDOW_SIZE 단위로 읽기 전용 매핑해서 필요한 구간만 읽음 (파일 전체를 힙에 올리지 않음)
+// 처음 열 때 한 번 훑어서 키프레임 위치 목록(index)을 만들고,
+// seek(tick)은 가장 가까운 이전 키프레임에서 복원한 뒤 남은 틱만 다시 시뮬레이션 → 키프레임 간격에 비례
+public class ReplayPlayer {
+
+    private static final int WINDOW_SIZE = 8 * 1024 * 1024;
+
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final long fileLength;
+
+    private final long seed;
+    private final int tickRateMs;
+
+    // 키프레임 인덱스 (틱 번호, 파일 위치) - 틱 순서대로 저장됨
+    private final List<long[]> keyframes = new ArrayList<>();
+    private int totalTicks = 0;
+
+    // 현재 읽기 위치
+    private MappedByteBuffer window;
+    private long windowBase;
+    private long position;
+
+    private GameLogic sim;
+    private int currentTick;
+
+    public ReplayPlayer(File file) throws IOException {
+        raf = new RandomAccessFile(file, "r");
+        channel = raf.getChannel();
+        fileLength = channel.size();
+
+        position = 0;
+        if (fileLength < ReplayFormat.HEADER_SIZE || readWindow(ReplayFormat.HEADER_SIZE).getInt() != ReplayFormat.MAGIC) {
+            close();
+            throw new IOException("리플레이 파일이 아닙니다: " + file.getName());
+        }
+        short version = window.getShort();
+        if (version < ReplayFormat.MIN_VERSION || version > ReplayFormat.VERSION) {
+            close();
+            throw new IOException("지원하지 않는 리플레이 버전입니다: " + version);
+        }
+        seed = window.getLong();
+        window.getShort(); // boardW
+        window.getShort(); // boardH
+        tickRateMs = window.getShort();
+        window.getLong(); // startMillis
+        position = ReplayFormat.HEADER_SIZE;
+
+        buildIndex();
+        restart();
+    }
+
+    public int getTotalTicks() {
+        return totalTicks;
+    }
+
+    public int getTickRateMs() {
+        return tickRateMs;
+    }
+
+    public synchronized int getCurrentTick() {
+        return currentTick;
+    }
+
+    public synchronized String currentState() {
+        return sim.currentStateString();
+    }
+
+    // 한 틱 진행. 더 이상 기록이 없으면 false
+    // 현재 아이템 전체 목록 ("ITEMS 버전 -1|..."). STATE의 A:에는 사과 하나만 있으므로 화면은 이것으로 그림
+    public synchronized String currentItems() {
+        return sim.itemsLine();
+    }
+
+    public synchronized boolean step() {
+        while (position < fileLength) {
+            ByteBufferView r = record();
+            if (r == null) return false;
+            if (r.type == ReplayFormat.TICK) {
+                sim.updateGame();
+                currentTick++;
+                return true;
+            }
+            apply(r);
+        }
+        return false;
+    }
+
+    // 지정한 틱으로 이동: 이전 키프레임에서 복원 후 남은 틱만 시뮬레이션
+    public synchronized void seek(int tick) {
+        tick = Math.max(0, Math.min(tick, totalTicks));
+
+        long[] base = null;
+        for (long[] kf : keyframes) {
+            if (kf[0] > tick) break;
+            base = kf;
+        }
+
+        // 앞으로 가는 중이고 현재 위치가 키프레임보다 가까우면 그대로 이어서 진행
+        boolean continueForward = tick >= currentTick && (base == null || base[0] <= currentTick);
+        if (!continueForward) {
+            if (base == null) {
+                restart();
+            } else {
+                position = base[1];
+                restoreKeyframe(record());
+            }
+        }
+        while (currentTick < tick && step()) {
+            // 남은 틱 재시뮬레이션
+        }
+    }
+
+    public void close() {
+        try { raf.close(); } catch (IOException ignored) {}
+    }
+
+    // 파일 처음(헤더 직후)부터 다시 시작
+    private void restart() {
+        sim = new GameLogic(null, seed, false);
+        currentTick = 0;
+        position = ReplayFormat.HEADER_SIZE;
+    }
+
+    // 처음 열 때 레코드를 훑으며 키프레임 위치와 전체 틱 수 계산
+    private void buildIndex() {
+        int ticks = 0;
+        while (position < fileLength) {
+            long recordStart = position;
+            ByteBufferView r = record();
+            if (r == null) break;
+            if (r.type == ReplayFormat.TICK) {
+                ticks++;
+            } else if (r.type == ReplayFormat.KEYFRAME) {
+                keyframes.add(new long[] { ticks, recordStart });
+            }
+        }
+        totalTicks = ticks;
+    }
+
+    // 레코드 하나 읽기. 반환된 버퍼는 레코드 내용 위치에 놓여 있고, position은 다음 레코드로 이동
+    // 기록 끝(END), 서버가 비정상 종료되어 남은 빈 공간, 중간에 끊긴 레코드는 모두 null
+    private ByteBufferView record() {
+        if (position >= fileLength) return null;
+        byte type = readWindow(1).get();
+        long bodyStart = position + 1;
+        int bodyLength;
+        switch (type) {
+            case ReplayFormat.TICK: bodyLength = 0; break;
+            case ReplayFormat.LEAVE: bodyLength = 4; break;
+            case ReplayFormat.MOVE: bodyLength = 5; break;
+            case ReplayFormat.BEND: bodyLength = 6; break;
+            case ReplayFormat.JOIN: {
+                if (bodyStart + 6 > fileLength) return null;
+                position = bodyStart + 4;
+                bodyLength = 4 + 2 + readWindow(2).getShort() + 4 + 2 + 2 + 1;
+                break;
+            }
+            case ReplayFormat.KEYFRAME: {
+                if (bodyStart + 4 > fileLength) return null;
+                position = bodyStart;
+                bodyLength = readWindow(4).getInt();
+                bodyStart += 4;
+                break;
+            }
+            default: return null;
+        }
+        if (bodyStart + bodyLength > fileLength) return null;
+        position = bodyStart;
+        ByteBufferView r = new ByteBufferView(type, readWindow(bodyLength));
+        position = bodyStart + bodyLength;
+        return r;
+    }
+
+    private void apply(ByteBufferView r) {
+        MappedByteBuffer b = r.buffer;
+        switch (r.type) {
+            case ReplayFormat.JOIN: {
+                b.getInt(); // 슬롯 (같은 순서로 입장시키면 같은 슬롯이 배정됨)
+                String name = readName(b);
+                int rgb = b.getInt();
+                int x = b.getShort();
+                int y = b.getShort();
+                sim.addReplayPlayer(name, rgb, x, y, b.get());
+                break;
+            }
+            case ReplayFormat.LEAVE: {
+                sim.removeReplayPlayer(b.getInt());
+                break;
+            }
+            case ReplayFormat.MOVE: {
+                int slot = b.getInt();
+                sim.forceDirection(slot, b.get());
+                break;
+            }
+            case ReplayFormat.BEND: {
+                int slot = b.getInt();
+                int ticks = b.get();
+                sim.bendReplay(slot, ticks, b.get());
+                break;
+            }
+            case ReplayFormat.KEYFRAME: {
+                b.getInt(); // tick
+                sim.reseed(b.getLong());
+                break;
+            }
+        }
+    }
+
+    private void restoreKeyframe(ByteBufferView r) {
+        MappedByteBuffer b = r.buffer;
+        int tick = b.getInt();
+        long nextSeed = b.getLong();
+        int itemCount = b.getInt();
+        int[] itemCells = new int[itemCount];
+        byte[] itemTypes = new byte[itemCount];
+        long[] itemExpires = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemCells[i] = PlayerTable.pack(b.getShort(), b.getShort());
+            itemTypes[i] = b.get();
+            int ttl = b.getShort();
+            itemExpires[i] = ttl > 0 ? tick + ttl : 0;
+        }
+        int count = b.getInt();
+
+        PlayerTable restored = new PlayerTable();
+        for (int i = 0; i < count; i++) {
+            int slot = b.getInt();
+            String name = readName(b);
+            int rgb = b.getInt();
+            byte dir = b.get();
+            byte flags = b.get();
+            int score = b.getInt();
+            int boost = b.getShort();
+            int[] cells = new int[b.getInt()];
+            for (int j = 0; j < cells.length; j++) {
+                cells[j] = PlayerTable.pack(b.getShort(), b.getShort());
+            }
+            restored.restore(slot, name, rgb, dir, (flags & ReplayFormat.FLAG_ALIVE) != 0,
+                    (flags & ReplayFormat.FLAG_JUST_ATE) != 0, score, cells);
+            if (boost > 0) restored.boostUntil[slot] = tick + boost;
+        }
+
+        sim = new GameLogic(null, seed, false);
+        sim.restore(tick, nextSeed, ItemField.restore(itemCells, itemTypes, itemExpires), restored);
+        currentTick = tick;
+    }
+
+    private static String readName(MappedByteBuffer b) {
+        byte[] nameBytes = new byte[b.getShort()];
+        b.get(nameBytes);
+        return new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    // position부터 length 바이트를 읽을 수 있는 창을 준비 (필요할 때만 다시 매핑)
+    private MappedByteBuffer readWindow(int length) {
+        long end = Math.min(position + length, fileLength);
+        if (window == null || position < windowBase || end > windowBase + window.capacity()) {
+            try {
+                windowBase = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowBase,
+                        Math.min(Math.max(WINDOW_SIZE, length), fileLength - windowBase));
+            } catch (IOException e) {
+                throw new IllegalStateException("리플레이 파일 읽기 오류: " + e.getMessage(), e);
+            }
+        }
+        window.position((int) (position - windowBase));
+        return window;
+    }
+
+    private static class ByteBufferView {
+        final byte type;
+        final MappedByteBuffer buffer;
+
+        ByteBufferView(byte type, MappedByteBuffer buffer) {
+            this.type = type;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+// 방 하나의 경기를 리플레이 파일로 기록 (append-only)
+// STATE 문자열 대신 입력(MOVE), 입장(JOIN), 퇴장(LEAVE), 틱 경계(TICK), RNG 시드만 기록
+// → 같은 시드로 같은 입력을 같은 순서로 적용하면 경기 전체가 그대로 재현됨
+//
+// 파일은 SEGMENT_SIZE 단위로 메모리 매핑(MappedByteBuffer)해서 씀
+// 게임 스레드에서는 매핑된 메모리에 몇 바이트 쓰는 것이 전부이고, 실제 디스크 반영은 OS가 처리
+// 세그먼트가 가득 차면 현재 끝 위치부터 다음 구간을 새로 매핑
+//
+// GameLogic의 synchronized 메소드(admitPendingJoins/removePlayer/updateGame) 안에서만 호출되므로 별도 동기화 없음
+public class ReplayRecorder {
+
+    private static final int SEGMENT_SIZE = 4 * 1024 * 1024; // 4MB씩 매핑
+    private static final int MAX_NAME_BYTES = 255;
+    private static final int MAX_NAME_TRIES = 100; // 같은 초에 시작한 방이 이보다 많으면 기록 포기
+    // 키프레임 간격 (틱). 재생 시 탐색 비용이 이 간격에 비례
+    private static final int KEYFRAME_INTERVAL = Integer.getInteger("snake.replay.keyframe", 250);
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentBase = 0; // 현재 세그먼트가 파일의 어디서부터 시작하는지
+    private boolean closed = false;
+
+    // 슬롯별 마지막으로 기록한 방향 (파일 안에서도 id = GameLogic의 슬롯 번호)
+    private byte[] lastDir = new byte[16];
+
+    private ReplayRecorder(File file, long seed, int tickRateMs) throws IOException {
+        this.file = file;
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+
+        segment.putInt(ReplayFormat.MAGIC);
+        segment.putShort(ReplayFormat.VERSION);
+        segment.putLong(seed);
+        segment.putShort((short) GameLogic.BOARD_WIDTH);
+        segment.putShort((short) GameLogic.BOARD_HEIGHT);
+        segment.putShort((short) tickRateMs);
+        segment.putLong(System.currentTimeMillis());
+    }
+
+    // replays/match-yyyyMMdd-HHmmss.snkr 파일을 만들어 기록 시작
+    // 같은 초에 시작한 다른 방/노드(같은 작업 폴더)와 겹치지 않도록 파일은 새로 만들 수 있을 때만 사용 (createNewFile은 원자적)
+    // 이미 있으면 match-...-2.snkr, -3 ... 순서로 시도. 파일을 만들 수 없으면 null (리플레이 없이 게임은 정상 진행)
+    public static ReplayRecorder open(long seed, int tickRateMs) {
+        File dir = new File(System.getProperty("snake.replay.dir", "replays"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.warn("리플레이 폴더 생성 실패", "dir", dir.getAbsolutePath());
+            return null;
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        try {
+            File file = null;
+            for (int n = 1; n <= MAX_NAME_TRIES && file == null; n++) {
+                File candidate = new File(dir, "match-" + stamp + (n > 1 ? "-" + n : "") + ".snkr");
+                if (candidate.createNewFile()) file = candidate;
+            }
+            if (file == null) {
+                Log.warn("리플레이 파일 이름이 모두 사용 중이라 기록하지 않습니다", "dir", dir.getAbsolutePath(), "stamp", stamp);
+                return null;
+            }
+            ReplayRecorder recorder = new ReplayRecorder(file, seed, tickRateMs);
+            Log.info("리플레이 기록 시작", "file", file.getPath());
+            return recorder;
+        } catch (IOException e) {
+            Log.error("리플레이 파일 생성 오류", e);
+            return null;
+        }
+    }
+
+    // 틱 경계. 이 레코드 위치에서 updateGame()이 한 번 실행됨
+    public void recordTick() {
+        if (!ensure(1)) return;
+        segment.put(ReplayFormat.TICK);
+    }
+
+    public void recordJoin(int slot, String name, int rgb, int x, int y, byte dir) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int nameLen = Math.min(nameBytes.length, MAX_NAME_BYTES);
+        if (slot >= lastDir.length) lastDir = Arrays.copyOf(lastDir, Math.max(slot + 1, lastDir.length * 2));
+        lastDir[slot] = dir;
+        if (!ensure(1 + 4 + 2 + nameLen + 4 + 2 + 2 + 1)) return;
+
+        segment.put(ReplayFormat.JOIN);
+        segment.putInt(slot);
+        segment.putShort((short) nameLen);
+        segment.put(nameBytes, 0, nameLen);
+        segment.putInt(rgb);
+        segment.putShort((short) x);
+        segment.putShort((short) y);
+        segment.put(dir);
+    }
+
+    public void recordLeave(int slot) {
+        if (!ensure(1 + 4)) return;
+        segment.put(ReplayFormat.LEAVE);
+        segment.putInt(slot);
+    }
+
+    // 틱 시작 시점의 최종 방향만 기록 (틱 사이에 여러 번 눌러도 실제 적용되는 건 마지막 방향)
+    // 방향이 바뀐 경우에만 6바이트 기록
+    public void recordDirection(int slot, byte dir) {
+        if (dir == lastDir[slot] || !ensure(1 + 4 + 1)) return;
+        lastDir[slot] = dir;
+        segment.put(ReplayFormat.MOVE);
+        segment.putInt(slot);
+        segment.put(dir);
+    }
+
+    // 지연 보정 (LagCompensation). 이번 틱의 MOVE 뒤, TICK 앞에 기록
+    public void recordBend(int slot, int ticks, byte dir) {
+        if (!ensure(1 + 4 + 1 + 1)) return;
+        segment.put(ReplayFormat.BEND);
+        segment.putInt(slot);
+        segment.put((byte) ticks);
+        segment.put(dir);
+    }
+
+    // stretch: 부하가 높을 때(LoadController) 간격 배수. 재생기는 키프레임 위치를 파일에서 찾으므로 간격이 바뀌어도 됨
+    public boolean isKeyframeDue(long tick, int stretch) {
+        return tick % ((long) KEYFRAME_INTERVAL * stretch) == 0;
+    }
+
+    // 전체 상태 스냅샷. 크기를 먼저 계산해서 한 세그먼트 안에 통째로 들어가도록 함
+    // 기록했으면 true. false면 파일에 키프레임이 없으므로 호출한 쪽은 RNG를 nextSeed로 바꾸면 안 됨 (재생기가 따라 바꾸지 못함)
+    public boolean recordKeyframe(long tick, long nextSeed, ItemField items, PlayerTable players) {
+        int size = 4 + 8 + 4 + items.count() * 7 + 4;
+        for (int s = 0; s < players.highWater; s++) {
+            if (!players.used[s]) continue;
+            int nameLen = Math.min(players.names[s].getBytes(StandardCharsets.UTF_8).length, MAX_NAME_BYTES);
+            size += 4 + 2 + nameLen + 4 + 1 + 1 + 4 + 2 + 4 + players.length[s] * 4;
+        }
+        if (size + 5 > SEGMENT_SIZE || !ensure(1 + 4 + size)) return false; // 세그먼트보다 큰 키프레임은 생략
+
+        segment.put(ReplayFormat.KEYFRAME);
+        segment.putInt(size);
+        segment.putInt((int) tick);
+        segment.putLong(nextSeed);
+        segment.putInt(items.count());
+        for (int i = 0; i < items.count(); i++) {
+            int cell = items.cellAt(i);
+            long expire = items.expireAt(i);
+            segment.putShort((short) PlayerTable.cellX(cell));
+            segment.putShort((short) PlayerTable.cellY(cell));
+            segment.put(items.typeAtIndex(i));
+            segment.putShort((short) (expire > 0 ? Math.max(1, expire - tick) : 0));
+        }
+        segment.putInt(players.count);
+        for (int s = 0; s < players.highWater; s++) {
+            if (!players.used[s]) continue;
+            byte[] nameBytes = players.names[s].getBytes(StandardCharsets.UTF_8);
+            int nameLen = Math.min(nameBytes.length, MAX_NAME_BYTES);
+            int flags = (players.alive[s] ? ReplayFormat.FLAG_ALIVE : 0) | (players.justAte[s] ? ReplayFormat.FLAG_JUST_ATE : 0);
+
+            segment.putInt(s);
+            segment.putShort((short) nameLen);
+            segment.put(nameBytes, 0, nameLen);
+            segment.putInt(players.rgb[s]);
+            segment.put(players.direction[s]);
+            segment.put((byte) flags);
+            segment.putInt(players.score[s]);
+            segment.putShort((short) Math.max(0, players.boostUntil[s] - tick));
+            segment.putInt(players.length[s]);
+            for (int i = 0; i < players.length[s]; i++) {
+                int cell = players.cell(s, i);
+                segment.putShort((short) PlayerTable.cellX(cell));
+                segment.putShort((short) PlayerTable.cellY(cell));
+            }
+        }
+        return true;
+    }
+
+    // 남은 공간이 부족하면 현재 끝 위치부터 다음 세그먼트를 매핑
+    private boolean ensure(int bytes) {
+        if (closed) return false;
+        if (segment.remaining() >= bytes) return true;
+        try {
+            segmentBase += segment.position();
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, segmentBase, SEGMENT_SIZE);
+            return true;
+        } catch (IOException e) {
+            Log.error("리플레이 세그먼트 매핑 오류", e);
+            closed = true;
+            return false;
+        }
+    }
+
+    // 서버 종료 시 GameLogic.closeReplay()에서 호출: 매핑하면서 늘어난 파일 끝의 빈 공간을 잘라냄
+    public void close() {
+        if (closed) return;
+        closed = true;
+        long length = segmentBase + segment.position();
+        try {
+            segment.force();
+            channel.truncate(length);
+            raf.close();
+            Log.info("리플레이 저장 완료", "file", file.getPath(), "bytes", length);
+        } catch (IOException e) {
+            Log.error("리플레이 종료 오류", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package server;
+
+// 방 하나의 최근 몇 초 (틱마다 GameSnapshot 하나)
+// 스냅샷은 불변이고 이전 틱과 구간 배열을 공유하므로(GameSnapshot 참고) N초 전체를 N벌 복사하는 것보다 훨씬 작음
+//   - 킬캠: 죽기 직전 몇 틱을 GAMEOVER 전에 보내줌 (PlayerLifecycle)
+//   - 늦게 들어온 클라이언트 따라잡기, 지연 보정 되감기: at(tick) / recent(n)
+// 크기 제한 두 가지
+//   - 틱 수: -Dsnake.rewind.seconds (기본 5초 → 120ms 틱이면 42틱)
+//   - 바이트: -Dsnake.rewind.maxBytes (기본 16MB). 스냅샷마다 새로 만든 부분의 크기(retainedBytes)를 더해두고 넘으면 오래된 것부터 버림
+//     (버린 프레임이 만든 구간 배열을 남은 프레임이 계속 가리킬 수 있으므로 실제 사용량 ≤ 합계 + 스냅샷 한 벌)
+// 게임 스레드가 record, 다른 스레드(PlayerLifecycle 등)가 읽음 → 짧은 synchronized
+class RewindBuffer {
+
+    private final GameSnapshot[] frames;
+    private final long maxBytes;
+    private int start = 0; // 가장 오래된 프레임 위치
+    private int size = 0;
+    private long retainedBytes = 0;
+
+    RewindBuffer(int tickMs) {
+        this(Math.max(1, (int) (Long.getLong("snake.rewind.seconds", 5) * 1000 / tickMs)),
+                Long.getLong("snake.rewind.maxBytes", 16L * 1024 * 1024));
+    }
+
+    RewindBuffer(int capacity, long maxBytes) {
+        this.frames = new GameSnapshot[capacity];
+        this.maxBytes = maxBytes;
+    }
+
+    // 게임 스레드: 틱마다 한 번 (tick은 늘어나는 순서)
+    synchronized void record(GameSnapshot snapshot) {
+        if (size == frames.length) dropOldest();
+        frames[(start + size) % frames.length] = snapshot;
+        size++;
+        retainedBytes += snapshot.retainedBytes;
+        while (retainedBytes > maxBytes && size > 1) {
+            dropOldest();
+        }
+    }
+
+    // 가장 최근 스냅샷 (이전 틱과 구조를 공유할 기준). 없으면 null
+    synchronized GameSnapshot latest() {
+        return size == 0 ? null : frames[(start + size - 1) % frames.length];
+    }
+
+    // 그 틱의 스냅샷. 버퍼 범위 밖이면 null
+    synchronized GameSnapshot at(long tick) {
+        for (int i = size - 1; i >= 0; i--) {
+            GameSnapshot frame = frames[(start + i) % frames.length];
+            if (frame.tick == tick) return frame;
+            if (frame.tick < tick) return null;
+        }
+        return null;
+    }
+
+    // 최근 n틱 (오래된 것부터)
+    synchronized GameSnapshot[] recent(int n) {
+        int count = Math.min(n, size);
+        GameSnapshot[] result = new GameSnapshot[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = frames[(start + size - count + i) % frames.length];
+        }
+        return result;
+    }
+
+    // 방을 통째로 바꿨을 때 (방 옮기기 복원 등) 이전 방의 프레임을 버림
+    synchronized void clear() {
+        while (size > 0) {
+            dropOldest();
+        }
+    }
+
+    // ex) "rewind frames=42/42 ticks=1200..1241 retained=310KB"
+    synchronized String report() {
+        if (size == 0) return "rewind frames=0/" + frames.length;
+        return "rewind frames=" + size + "/" + frames.length + " ticks=" + frames[start].tick + ".."
+                + frames[(start + size - 1) % frames.length].tick + " retained=" + retainedBytes / 1024 + "KB";
+    }
+
+    private void dropOldest() {
+        retainedBytes -= frames[start].retainedBytes;
+        frames[start] = null;
+        start = (start + 1) % frames.length;
+        size--;
+    }
+}
@@ -0,0 +1,168 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// 방 하나의 전체 게임 상태 체크포인트 (서버 프로세스 사이 방 옮기기용, RoomMigration 참고)
+// 리플레이 키프레임과 같은 정보 + 입력 방향/봇 표시를 담고, 몸통은 칸마다 좌표 대신 "앞 칸에서 어느 쪽" 1바이트로 줄임
+//
+// MAGIC(int) VERSION(short) tick(long) nextSeed(long)
+// itemCount(int) { x(short) y(short) type(byte) ttl(short, 남은 틱 / 0 = 사라지지 않음) }*itemCount
+// count(int) count번 반복 { slot(int) nameLen(short) name(UTF-8) rgb(int) dir(byte) flags(byte) score(int)
+//                          boost(short, 남은 부스트 틱) bodyLen(int) headX(short) headY(short) step(byte)*(bodyLen-1) }
+//   dir  : 다음 틱 이동 방향 (입력받은 nextDirection)
+//   flags: bit0 생존, bit1 방금 사과 먹음, bit2 봇
+//   step : 0 = 앞 칸과 같은 칸(킬 보상으로 늘어난 꼬리), 1~4 = 앞 칸에서 UP/DOWN/LEFT/RIGHT 방향 + 1,
+//          STEP_JUMP = 이어지지 않는 칸 → 뒤에 x(short) y(short)
+// RNG 내부 상태는 꺼낼 수 없으므로 리플레이 키프레임처럼 체크포인트 시점에 nextSeed로 바꿔 심고 그 값을 저장
+// → 1000칸짜리 지렁이 500마리가 약 500KB, 만들고 푸는 데 각각 수십 ms (한 틱 안쪽)
+final class RoomCheckpoint {
+
+    static final int MAGIC = 0x534E4B43; // "SNKC"
+    static final short VERSION = 2; // 2: 사과 하나 대신 아이템 목록, 부스트
+
+    private static final byte FLAG_BOT = 4;
+    private static final byte STEP_JUMP = 5;
+
+    final long tick;
+    final long nextSeed;
+    final ItemField items;
+    final PlayerTable players; // handler 없이 채운 표 (새 서버에서 다시 접속한 플레이어가 이름으로 되찾음)
+
+    private RoomCheckpoint(long tick, long nextSeed, ItemField items, PlayerTable players) {
+        this.tick = tick;
+        this.nextSeed = nextSeed;
+        this.items = items;
+        this.players = players;
+    }
+
+    // GameLogic 락 안에서 호출
+    static byte[] encode(long tick, long nextSeed, ItemField items, PlayerTable p) {
+        int size = 4 + 2 + 8 + 8 + 4 + items.count() * 7 + 4;
+        byte[][] names = new byte[p.highWater][];
+        for (int s = 0; s < p.highWater; s++) {
+            if (!p.used[s]) continue;
+            names[s] = p.names[s].getBytes(StandardCharsets.UTF_8);
+            size += 4 + 2 + names[s].length + 4 + 1 + 1 + 4 + 2 + 4 + 4 + p.length[s] * 5; // 이어지지 않는 칸은 최대 5바이트
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(size);
+        b.putInt(MAGIC);
+        b.putShort(VERSION);
+        b.putLong(tick);
+        b.putLong(nextSeed);
+        b.putInt(items.count());
+        for (int i = 0; i < items.count(); i++) {
+            int cell = items.cellAt(i);
+            long expire = items.expireAt(i);
+            b.putShort((short) PlayerTable.cellX(cell));
+            b.putShort((short) PlayerTable.cellY(cell));
+            b.put(items.typeAtIndex(i));
+            b.putShort((short) (expire > 0 ? Math.max(1, expire - tick) : 0));
+        }
+        b.putInt(p.count);
+        for (int s = 0; s < p.highWater; s++) {
+            if (!p.used[s]) continue;
+            int flags = (p.alive[s] ? ReplayFormat.FLAG_ALIVE : 0) | (p.justAte[s] ? ReplayFormat.FLAG_JUST_ATE : 0)
+                    | (p.bot[s] ? FLAG_BOT : 0);
+            b.putInt(s);
+            b.putShort((short) names[s].length);
+            b.put(names[s]);
+            b.putInt(p.rgb[s]);
+            b.put(p.nextDirection[s]);
+            b.put((byte) flags);
+            b.putInt(p.score[s]);
+            b.putShort((short) Math.max(0, p.boostUntil[s] - tick));
+            b.putInt(p.length[s]);
+
+            int previous = p.cell(s, 0);
+            b.putShort((short) PlayerTable.cellX(previous));
+            b.putShort((short) PlayerTable.cellY(previous));
+            for (int i = 1, n = p.length[s]; i < n; i++) {
+                int cell = p.cell(s, i);
+                int step = step(previous, cell);
+                b.put((byte) step);
+                if (step == STEP_JUMP) {
+                    b.putShort((short) PlayerTable.cellX(cell));
+                    b.putShort((short) PlayerTable.cellY(cell));
+                }
+                previous = cell;
+            }
+        }
+        byte[] bytes = new byte[b.position()];
+        b.flip();
+        b.get(bytes);
+        return bytes;
+    }
+
+    // 형식이 맞지 않으면 IllegalArgumentException
+    static RoomCheckpoint decode(byte[] bytes) {
+        ByteBuffer b = ByteBuffer.wrap(bytes);
+        if (b.getInt() != MAGIC) throw new IllegalArgumentException("체크포인트가 아닙니다");
+        short version = b.getShort();
+        if (version != VERSION) throw new IllegalArgumentException("지원하지 않는 체크포인트 버전: " + version);
+
+        long tick = b.getLong();
+        long nextSeed = b.getLong();
+        int itemCount = b.getInt();
+        int[] itemCells = new int[itemCount];
+        byte[] itemTypes = new byte[itemCount];
+        long[] itemExpires = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemCells[i] = PlayerTable.pack(b.getShort(), b.getShort());
+            itemTypes[i] = b.get();
+            int ttl = b.getShort();
+            itemExpires[i] = ttl > 0 ? tick + ttl : 0;
+        }
+        int count = b.getInt();
+
+        PlayerTable restored = new PlayerTable();
+        for (int i = 0; i < count; i++) {
+            int slot = b.getInt();
+            byte[] name = new byte[b.getShort()];
+            b.get(name);
+            int rgb = b.getInt();
+            byte dir = b.get();
+            byte flags = b.get();
+            int score = b.getInt();
+            int boost = b.getShort();
+            int[] cells = new int[b.getInt()];
+            if (cells.length > 0) {
+                cells[0] = PlayerTable.pack(b.getShort(), b.getShort());
+            }
+            for (int j = 1; j < cells.length; j++) {
+                byte step = b.get();
+                cells[j] = step == STEP_JUMP ? PlayerTable.pack(b.getShort(), b.getShort()) : apply(cells[j - 1], step);
+            }
+            restored.restore(slot, new String(name, StandardCharsets.UTF_8), rgb, dir,
+                    (flags & ReplayFormat.FLAG_ALIVE) != 0, (flags & ReplayFormat.FLAG_JUST_ATE) != 0, score, cells);
+            restored.bot[slot] = (flags & FLAG_BOT) != 0;
+            if (boost > 0) restored.boostUntil[slot] = tick + boost;
+        }
+        return new RoomCheckpoint(tick, nextSeed, ItemField.restore(itemCells, itemTypes, itemExpires), restored);
+    }
+
+    // from → to 가 한 칸 이동(또는 제자리)이면 그 코드, 아니면 STEP_JUMP
+    private static int step(int from, int to) {
+        if (from == to) return 0;
+        int dx = PlayerTable.cellX(to) - PlayerTable.cellX(from);
+        int dy = PlayerTable.cellY(to) - PlayerTable.cellY(from);
+        if (dx == 0 && dy == -1) return PlayerTable.UP + 1;
+        if (dx == 0 && dy == 1) return PlayerTable.DOWN + 1;
+        if (dx == -1 && dy == 0) return PlayerTable.LEFT + 1;
+        if (dx == 1 && dy == 0) return PlayerTable.RIGHT + 1;
+        return STEP_JUMP;
+    }
+
+    private static int apply(int from, byte step) {
+        int x = PlayerTable.cellX(from), y = PlayerTable.cellY(from);
+        switch (step - 1) {
+            case PlayerTable.UP: y--; break;
+            case PlayerTable.DOWN: y++; break;
+            case PlayerTable.LEFT: x--; break;
+            case PlayerTable.RIGHT: x++; break;
+            default: break; // 0: 같은 칸
+        }
+        return PlayerTable.pack(x, y);
+    }
+}
@@ -0,0 +1,111 @@
+package server;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import protocol.Protocol;
+import transport.Connection;
+import transport.TcpTransport;
+
+// 배포 등으로 서버를 내려야 할 때 진행 중인 방을 같은 PC의 다른 서버 프로세스로 옮김
+// 실행: java -cp bin server.RoomMigration <원래 서버 포트> <새 서버 호스트:포트>
+//   → 원래 서버에 "MIGRATE 호스트 포트" 관리 요청을 보내고 결과 한 줄을 출력
+//
+// 원래 서버 (send, 관리 접속의 ClientHandler 스레드)
+//   1. GameLogic.freezeForMigration(): 틱을 멈추고 RoomCheckpoint 생성 (멈춘 동안에도 같은 화면은 계속 전송)
+//   2. 새 서버에 "RESTORE <base64>" 한 줄 → "RESTORED" 응답을 TRANSFER_TIMEOUT_MS까지 기다림
+//   3. 성공: 방을 비우고(handOver) 플레이어마다 "REDIRECT 호스트 포트 이름", 입장 대기자/관전자에게는 "REDIRECT 호스트 포트"
+//      실패: 그대로 이어서 진행 (멈춰 있던 시간만큼만 늦어짐)
+// 새 서버 (receive): 빈 방이면 체크포인트로 교체하고, 플레이어들이 이름으로 자기 지렁이를 되찾을 때까지 멈춰서 기다림
+// 체크포인트는 틱 사이에 뜨므로 플레이어 입장에서는 한두 틱 멈췄다가 새 서버에서 그대로 이어짐
+final class RoomMigration {
+
+    private static final int TRANSFER_TIMEOUT_MS = 5000;
+
+    private RoomMigration() {
+    }
+
+    static String send(ServerMain server, GameLogic game, String host, int port) {
+        long start = System.nanoTime();
+        byte[] checkpoint = game.freezeForMigration();
+        long frozen = System.nanoTime();
+
+        String reply;
+        Connection target = null;
+        try {
+            target = TcpTransport.connect(host, port, TRANSFER_TIMEOUT_MS);
+            target.writeLine(Protocol.RESTORE + " " + Base64.getEncoder().encodeToString(checkpoint));
+            reply = readReply(target, Protocol.RESTORE);
+        } catch (IOException e) {
+            reply = "RESTORE FAIL " + e.getMessage();
+        } finally {
+            if (target != null) target.close();
+        }
+        if (!Protocol.RESTORED.equals(reply)) {
+            game.unfreeze();
+            Log.warn("방 옮기기 실패, 이 서버에서 계속 진행", "target", host + ":" + port, "reply", reply);
+            return Protocol.MIGRATE + " FAIL " + reply;
+        }
+
+        // 옮겨진 플레이어는 새 서버에서 같은 이름으로 자기 지렁이를 되찾음
+        List<ClientHandler> moved = game.handOver();
+        Set<ClientHandler> withSnake = new HashSet<>(moved);
+        for (ClientHandler client : moved) {
+            client.sendMessage(Protocol.REDIRECT + host + " " + port + " " + client.getClientName());
+        }
+        for (ClientHandler client : server.getClients()) {
+            if (!withSnake.contains(client)) client.sendMessage(Protocol.REDIRECT + host + " " + port);
+        }
+        server.publishToSpectators(Protocol.REDIRECT + host + " " + port);
+
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        Log.info("방 옮기기 완료", "target", host + ":" + port, "players", moved.size(), "ms", ms);
+        Log.info("체크포인트", "bytes", checkpoint.length, "encodeMs", (frozen - start) / 1_000_000);
+        return Protocol.MIGRATED + moved.size() + " " + ms;
+    }
+
+    static String receive(GameLogic game, String base64) {
+        long start = System.nanoTime();
+        RoomCheckpoint checkpoint = RoomCheckpoint.decode(Base64.getDecoder().decode(base64));
+        String busy = game.restoreMigrated(checkpoint);
+        if (busy != null) {
+            Log.warn("옮겨오는 방을 받을 수 없음", "reason", busy);
+            return Protocol.RESTORE + " FAIL " + busy;
+        }
+        Log.info("방을 옮겨 받음", "tick", checkpoint.tick, "players", checkpoint.players.count,
+                "decodeMs", (System.nanoTime() - start) / 1_000_000);
+        return Protocol.RESTORED;
+    }
+
+    // 응답 줄 (prefix로 시작하는 첫 줄)
+    private static String readReply(Connection connection, String prefix) throws IOException {
+        String line;
+        while ((line = connection.readLine()) != null) {
+            if (line.startsWith(prefix)) return line;
+        }
+        throw new IOException("응답 없이 연결이 끊어졌습니다");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("사용법: java -cp bin server.RoomMigration <원래 서버 포트> <새 서버 호스트:포트>");
+            return;
+        }
+        int source = Integer.parseInt(args[0]);
+        String target = args[1];
+        int colon = target.lastIndexOf(':');
+        String host = colon < 0 ? "127.0.0.1" : target.substring(0, colon);
+        String port = colon < 0 ? target : target.substring(colon + 1);
+
+        Connection connection = TcpTransport.connect("127.0.0.1", source, TRANSFER_TIMEOUT_MS * 2);
+        try {
+            connection.writeLine(Protocol.MIGRATE + " " + host + " " + port);
+            System.out.println(readReply(connection, Protocol.MIGRATE));
+        } finally {
+            connection.close();
+        }
+    }
+}
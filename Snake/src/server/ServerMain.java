@@ -1,63 +1,305 @@
 package server;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Vector;
 
+import protocol.Protocol;
+import protocol.StateCompressor;
+import transport.Connection;
+import transport.Transport;
+
 public class ServerMain {
 
-    private ServerSocket serverSocket;
-    private int port = 5000; 
+    // 접속 받는 방법: -Dsnake.transport=tcp(기본)|nio, 벤치마크/시험은 LoopbackTransport를 생성자로 넘김
+    private Transport transport;
+    // 여러 노드를 한 PC에서 띄울 때는 -Dsnake.port로 나눔 (UDP 채널도 같은 번호)
+    private int port = Integer.getInteger("snake.port", 5000);
     
     // 접속한 모든 ClientHandler를 저장
     private Vector<ClientHandler> clientHandlers = new Vector<>();
     private GameLogic gamelogic;
 
+    // 관전자는 clientHandlers에 넣지 않고 중계 스레드가 따로 전송
+    // (지연은 링 버퍼 1024 프레임 안쪽이어야 함 → 120ms 틱 기준 약 2분)
+    private SpectatorRelay spectatorRelay = new SpectatorRelay(
+            Integer.getInteger("snake.relay.threads", 2),
+            Long.getLong("snake.relay.delayMs", 0));
+
+    // +deflate 클라이언트용 STATE 압축 (직렬화 스레드와 broadcast가 같이 쓰므로 사용 시 동기화)
+    private final StateCompressor compressor = new StateCompressor();
+
+    // STATE 전용 UDP 채널 (열지 못하면 null → 모두 TCP)
+    private UdpStateChannel udpChannel;
+
+    // 접속 폭주 대비 입구 제한 (최대 접속 수, IP별 접속 속도)
+    private final AdmissionControl admission = new AdmissionControl();
+
+    // 채팅 전용 중계 (틱 단위로 묶어서 전송, 플레이어별 속도 제한)
+    private final ChatRelay chat = new ChatRelay(this);
+
+    // 사망한 플레이어 처리 (GAMEOVER 전송, 관전 전환)
+    private final PlayerLifecycle lifecycle = new PlayerLifecycle(this);
+
+    // 전체/오늘 최고 점수 (디스크 기록은 전용 스레드)
+    private final HighScoreStore highScores = new HighScoreStore();
+
+    // 게임 이벤트 집계 (이벤트 버스 구독자, FramePipeline 보고에 함께 출력)
+    private final EventStats eventStats = new EventStats();
+
+    // 클라이언트들이 알려주는 RTT/입력 지연 집계 (FramePipeline 보고에 함께 출력)
+    private final LatencyStats latency = new LatencyStats();
+
+    // 게임 상태 직렬화/전송 단계 (전송 스레드 수: -Dsnake.senders)
+    private FramePipeline framePipeline = new FramePipeline(this, Integer.getInteger("snake.senders", 2));
+
+    public ServerMain() {
+    }
+
+    // 같은 JVM 안에서 서버를 띄울 때 (LoopbackTransport 등)
+    public ServerMain(Transport transport) {
+        this.transport = transport;
+    }
+
     public void startServer() {
         try {
-            serverSocket = new ServerSocket(port);
-            System.out.println("지렁이 게임 서버가 " + port + " 포트에서 시작되었습니다.");
+            if (transport == null) {
+                transport = Transport.open(System.getProperty("snake.transport", "tcp"), port);
+            }
+            Log.info("지렁이 게임 서버 시작", "port", transport.getPort(), "transport", transport.getClass().getSimpleName());
 
+            framePipeline.start();
+            chat.start();
+            lifecycle.start();
+            highScores.start();
             gamelogic = new GameLogic(this);
+            // 사람 플레이어가 죽거나 나갈 때의 점수 → 최고 점수 (잃으면 안 되므로 밀리면 게임 스레드가 잠깐 기다림)
+            gamelogic.getEvents().subscribe("highscores", GameEventBus.Backpressure.BLOCK, e -> {
+                if (e.human && (e.type == GameEvent.DEATH || e.type == GameEvent.LEAVE)) {
+                    highScores.submit(e.name, e.value);
+                }
+            });
+            gamelogic.getEvents().subscribe("stats", GameEventBus.Backpressure.DROP, eventStats);
+            // 서버 종료(Ctrl+C 등) 시 리플레이 파일 마무리, 남은 점수 기록
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                gamelogic.closeReplay();
+                highScores.close(1000);
+                Log.flush(1000); // 남은 로그 쓰기
+            }));
             Thread gameLoopThread = new Thread(gamelogic, "GameLoop-Thread");
             
             gameLoopThread.start(); // GameLogic.run() 실행 시작
+            spectatorRelay.start();
+
+            // 클러스터 모드: -Dsnake.router=호스트:포트 이면 로비 라우터에 이 노드를 등록하고 부하를 보고
+            String router = System.getProperty("snake.router");
+            if (router != null && transport.getPort() >= 0) {
+                new ClusterAgent(this, router, transport.getPort()).start();
+            }
+
+            if (transport.getPort() >= 0) { // 메모리 연결에는 UDP 채널이 없음
+                try {
+                    udpChannel = new UdpStateChannel(Integer.getInteger("snake.udp.port", transport.getPort()));
+                    udpChannel.start();
+                } catch (IOException e) {
+                    Log.warn("UDP 채널을 열 수 없어 TCP만 사용합니다", "error", e.getMessage());
+                }
+            }
             
             // 클라이언트 접속을 항상 기다림
             while (true) {
-                System.out.println("클라이언트 접속 대기 중...");
-                Socket socket = serverSocket.accept(); 
-                System.out.println("클라이언트 접속 성공: " + socket.getInetAddress());
+                Connection connection = transport.accept(); 
+
+                // 받을 수 없는 접속은 스레드를 만들지 않고 "BUSY <이유>"만 보내고 닫음
+                String busy = admission.tryAdmit(connection.getAddress());
+                if (busy != null) {
+                    AdmissionControl.reject(connection, busy);
+                    Log.info("접속 거절", "reason", busy, "addr", connection.getAddress());
+                    continue;
+                }
+                Log.info("클라이언트 접속", "addr", connection.getAddress());
 
-                ClientHandler handler = new ClientHandler(socket, this, gamelogic); // 클라이언트별 전담 스레드 생성
+                ClientHandler handler = new ClientHandler(connection, this, gamelogic); // 클라이언트별 전담 스레드 생성
                 addClient(handler); // 리스트에 추가
                 handler.start(); // 스레드 시작
             }
 
         } catch (IOException e) {
-            System.out.println("서버 오류: " + e.getMessage());
+            Log.error("서버 오류", e);
         }
     }
 
     // 모든 클라이언트에게 메시지 전송 (Broadcast)
+    // 게임 상태(STATE)는 FramePipeline이, CHAT은 ChatRelay가 따로 보내고, 여기는 그 밖의 일반 메시지용
     public synchronized void broadcast(String message) {
-        for (ClientHandler client : clientHandlers) {
-            client.sendMessage(message);
+        Frame frame = encodeFrame(message, null, null, System.nanoTime());
+        long now = System.currentTimeMillis();
+        for (ClientHandler client : getClients()) {
+            sendFrame(client, frame, now);
+        }
+        spectatorRelay.publish(message); // 관전자 수와 관계없이 한 번만
+    }
+
+    // 한 메시지를 클라이언트별 전송 방식(일반/압축/UDP)에 맞게 미리 만들어둔 결과
+    // 프레임당 한 번만 만들고 모든 클라이언트(전송 스레드)가 공유
+    static final class Frame {
+        final String line;
+        final String rleLine;      // 몸통 구간 형식 STATE (+rle 클라이언트가 있을 때만)
+        final String compressed;   // 압축 요청한 클라이언트가 있을 때만
+        final ByteBuffer datagram; // UDP 클라이언트가 있고 UDP로 보낼 수 있는 크기일 때만
+        final ItemField.View items; // STATE 프레임일 때만. ITEMS 줄은 클라이언트가 가진 버전에 따라 다름 (항상 TCP)
+        final long createdAtNanos;
+
+        Frame(String line, String rleLine, String compressed, ByteBuffer datagram, ItemField.View items,
+                long createdAtNanos) {
+            this.line = line;
+            this.rleLine = rleLine;
+            this.compressed = compressed;
+            this.datagram = datagram;
+            this.items = items;
+            this.createdAtNanos = createdAtNanos;
+        }
+    }
+
+    // 구간 형식을 원하는 클라이언트가 있는지 (직렬화 스레드가 rleLine을 만들지 정할 때)
+    boolean anyWantsRle() {
+        for (ClientHandler client : getClients()) {
+            if (client.isRleState()) return true;
+        }
+        return false;
+    }
+
+    Frame encodeFrame(String message, String rleMessage, ItemField.View items, long createdAtNanos) {
+        String compressed = null;
+        ByteBuffer datagram = null;
+        if (message.startsWith(Protocol.STATE)) {
+            boolean wantsCompression = false;
+            boolean wantsUdp = false;
+            for (ClientHandler client : getClients()) {
+                if (client.isCompressState()) wantsCompression = true;
+                UdpStateChannel.Session session = client.getUdpSession();
+                if (session != null && session.isSending()) wantsUdp = true;
+            }
+            if (wantsCompression) {
+                synchronized (compressor) {
+                    compressed = compressor.compress(message);
+                }
+            }
+            if (wantsUdp && udpChannel != null) {
+                datagram = udpChannel.encode(message); // 너무 크면 null → TCP로
+            }
+        }
+        return new Frame(message, rleMessage, compressed, datagram, items, createdAtNanos);
+    }
+
+    // 클라이언트 한 명에게 프레임 전송: UDP 세션 → 구간 형식 → 압축 → 일반 순서로 가능한 방식 선택
+    // 아이템이 바뀌었으면 그 앞에 ITEMS (TCP)
+    void sendFrame(ClientHandler client, Frame frame, long nowMillis) {
+        String joined = client.takeJoinedLine();
+        if (joined != null) {
+            client.sendMessage(joined); // 자기 지렁이가 든 첫 STATE보다 먼저 (TCP)
+        }
+        if (frame.items != null) {
+            client.sendItems(frame.items);
+        }
+        if (frame.datagram != null) {
+            UdpStateChannel.Session session = client.getUdpSession();
+            if (session != null && session.isSending() && udpChannel.checkAlive(session, nowMillis)) {
+                udpChannel.send(session, frame.datagram);
+                return;
+            }
+        }
+        if (frame.rleLine != null && client.isRleState()) {
+            client.sendMessage(frame.rleLine);
+            return;
         }
+        if (frame.compressed != null && client.isCompressState()) {
+            client.sendMessage(frame.compressed);
+            return;
+        }
+        client.sendMessage(frame.line);
+    }
+
+    // 전송 스레드가 락 없이 순회할 수 있도록 현재 목록을 배열로 복사
+    ClientHandler[] getClients() {
+        return clientHandlers.toArray(new ClientHandler[0]);
+    }
+
+    void publishToSpectators(String message) {
+        spectatorRelay.publish(message);
+    }
+
+    FramePipeline getFramePipeline() {
+        return framePipeline;
+    }
+
+    GameLogic getGameLogic() {
+        return gamelogic;
+    }
+
+    AdmissionControl getAdmission() {
+        return admission;
+    }
+
+    EventStats getEventStats() {
+        return eventStats;
+    }
+
+    LatencyStats getLatency() {
+        return latency;
+    }
+
+    HighScoreStore getHighScores() {
+        return highScores;
+    }
+
+    PlayerLifecycle getLifecycle() {
+        return lifecycle;
+    }
+
+    ChatRelay getChat() {
+        return chat;
+    }
+
+    // 플레이어 목록에서 빼고 관전 중계에 등록
+    public void addSpectator(ClientHandler spectator) {
+        removeClient(spectator);
+        spectator.sendMessage(gamelogic.itemsLine()); // 그 뒤 변경분은 관전 중계가 보냄
+        spectatorRelay.subscribe(spectator);
+        Log.info("관전자 접속", "spectators", spectatorRelay.getSpectatorCount());
+    }
+
+    // 클라이언트의 "UDP" 요청 처리. 클라이언트에게 보낼 응답 반환
+    public String openUdp(ClientHandler client) {
+        if (udpChannel == null) return "UDP OFF";
+        return udpChannel.open(client);
+    }
+
+    public void closeUdp(ClientHandler client) {
+        if (udpChannel != null) udpChannel.close(client.getUdpSession());
+    }
+
+    public void removeSpectator(ClientHandler spectator) {
+        spectatorRelay.unsubscribe(spectator);
+        Log.info("관전자 퇴장", "spectators", spectatorRelay.getSpectatorCount());
+    }
+
+    // ClientHandler가 끝날 때 호출 (접속 수 반납)
+    void releaseConnection() {
+        admission.release();
     }
 
-    // Vector에 클라이언트 추가 (동기화)
-    public synchronized void addClient(ClientHandler client) {
+    // Vector에 클라이언트 추가 (Vector 자체가 동기화되므로 broadcast 락을 기다리지 않음 → 느린 클라이언트가 있어도 accept가 멈추지 않음)
+    public void addClient(ClientHandler client) {
         clientHandlers.add(client);
-        System.out.println("새 클라이언트 접속. 현재 인원: " + clientHandlers.size());
+        Log.debug("클라이언트 목록 추가", "clients", clientHandlers.size());
     }
 
-    // Vector에서 클라이언트 제거 (동기화)
-    public synchronized void removeClient(ClientHandler client) {
+    // Vector에서 클라이언트 제거 (Vector 자체가 동기화)
+    public void removeClient(ClientHandler client) {
     	if (client == null) return;
         clientHandlers.remove(client);
-        System.out.println("클라이언트 퇴장. 현재 인원: " + clientHandlers.size());
+        Log.info("클라이언트 퇴장", "name", client.getClientName(), "clients", clientHandlers.size());
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,162 @@
+package server;
+
+import java.util.Arrays;
+
+// 새 지렁이를 넣을 자리 고르기 (예전에는 모두 (10,10)에 오른쪽 방향으로 입장 → 연달아 들어오면 바로 충돌)
+//
+// 입장 자리 후보 = 머리 칸 (x, y). 오른쪽을 향하므로 몸통은 (x-2..x, y), 앞쪽 3칸 (x+1..x+3, y)까지 비어 있어야 함
+// 후보마다 점수 = (빈 상자 반경 r) 우선, 같으면 (가장 가까운 다른 머리까지 거리)가 먼 쪽
+//   빈 상자: 열 [x-2-r, x+3+r] × 행 [y-r, y+r] 가 보드 안이고 몸통이 하나도 없음 (r = 0..MAX_RADIUS)
+//   상자 안 몸통 수는 누적합 표(summed-area table)로 O(1)에 계산
+//   머리까지 거리는 머리들에서 시작하는 BFS(맨해튼 거리 변환)
+//
+// 틱마다 미리 만들지 않고, 그 틱에 첫 입장이 있을 때 한 번만 보드 전체를 다시 만듦 (O(보드 크기))
+// 같은 틱에 이어지는 입장(수백 명이 몰려 들어오는 경우)은 방금 넣은 지렁이 주변만 갱신:
+//   누적합은 새 몸통 칸의 오른쪽 아래만, 머리 거리는 새 머리에서 줄어드는 칸만, 점수는 영향받는 칸만 다시 계산
+// GameLogic의 synchronized 메소드 안에서만 호출
+class SpawnPlanner {
+
+    private static final int MAX_RADIUS = 6;
+    private static final int NO_HEAD = 4095;
+
+    private final int w;
+    private final int h;
+    private final int[] sat;      // (w+1) × (h+1), sat[(y+1)*(w+1) + (x+1)] = (0,0)~(x,y) 몸통 칸 수
+    private final int[] headDist; // 가장 가까운 머리까지 맨해튼 거리
+    private final int[] score;    // 후보가 아니면 -1
+    private final int[] queue;
+    private long builtForTick = -1;
+    private int scanStart = 0;    // 같은 점수끼리는 매번 다른 곳부터 고르도록 스캔 시작 위치를 돌림
+
+    SpawnPlanner(int w, int h) {
+        this.w = w;
+        this.h = h;
+        this.sat = new int[(w + 1) * (h + 1)];
+        this.headDist = new int[w * h];
+        this.score = new int[w * h];
+        this.queue = new int[w * h];
+    }
+
+    // 가장 좋은 머리 칸을 골라서 예약(이후 입장에서 피함)하고 pack(x, y)로 반환. 넣을 곳이 없으면 -1
+    int plan(PlayerTable p, long tick) {
+        if (tick != builtForTick) {
+            rebuild(p);
+            builtForTick = tick;
+        }
+
+        int best = -1;
+        int bestScore = -1;
+        int cells = w * h;
+        for (int k = 0; k < cells; k++) {
+            int idx = (scanStart + k) % cells;
+            if (score[idx] > bestScore) {
+                bestScore = score[idx];
+                best = idx;
+            }
+        }
+        if (best < 0) return -1;
+        scanStart = (best + 1) % cells;
+
+        int x = best % w, y = best / w;
+        reserve(x, y);
+        return PlayerTable.pack(x, y);
+    }
+
+    private void rebuild(PlayerTable p) {
+        // 1. 누적합 표 (먼저 칸별 개수를 넣고 누적)
+        Arrays.fill(sat, 0);
+        Arrays.fill(headDist, NO_HEAD);
+        int tail = 0;
+        for (int s = 0; s < p.highWater; s++) {
+            if (!p.used[s]) continue;
+            for (int i = 0, n = p.length[s]; i < n; i++) {
+                int cell = p.cell(s, i);
+                int x = PlayerTable.cellX(cell), y = PlayerTable.cellY(cell);
+                if (x >= 0 && x < w && y >= 0 && y < h) sat[(y + 1) * (w + 1) + (x + 1)]++;
+            }
+            int head = p.headCell(s);
+            int hx = PlayerTable.cellX(head), hy = PlayerTable.cellY(head);
+            if (hx >= 0 && hx < w && hy >= 0 && hy < h && headDist[hy * w + hx] != 0) {
+                headDist[hy * w + hx] = 0;
+                queue[tail++] = hy * w + hx;
+            }
+        }
+        for (int y = 1; y <= h; y++) {
+            for (int x = 1; x <= w; x++) {
+                int i = y * (w + 1) + x;
+                sat[i] += sat[i - 1] + sat[i - (w + 1)] - sat[i - (w + 1) - 1];
+            }
+        }
+
+        // 2. 머리 거리 (모든 머리에서 동시에 BFS)
+        spreadHeadDistance(tail);
+
+        // 3. 후보 점수
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                score[y * w + x] = evaluate(x, y);
+            }
+        }
+    }
+
+    // 방금 정한 자리의 몸통 3칸과 머리를 반영 (보드 전체가 아니라 영향받는 부분만)
+    private void reserve(int x, int y) {
+        // 누적합: (x-2..x, y) 세 칸이 채워지면 그 오른쪽 아래 구간만 늘어남 (열마다 포함되는 새 칸 수 1~3)
+        for (int row = y + 1; row <= h; row++) {
+            int base = row * (w + 1);
+            for (int col = x - 1; col <= w; col++) sat[base + col] += Math.min(col - x + 2, 3);
+        }
+
+        // 새 머리에서 거리가 줄어드는 칸만 BFS로 갱신하면서 점수 재계산
+        headDist[y * w + x] = 0;
+        queue[0] = y * w + x;
+        int changedEnd = spreadHeadDistance(1);
+        for (int k = 0; k < changedEnd; k++) {
+            int idx = queue[k];
+            score[idx] = evaluate(idx % w, idx / w);
+        }
+
+        // 새 몸통 칸을 상자에 포함할 수 있는 후보들 (상자는 머리 기준 왼쪽 2+r, 오른쪽 3+r, 위아래 r)
+        int fromX = Math.max(0, x - 2 - 3 - MAX_RADIUS), toX = Math.min(w - 1, x + 2 + MAX_RADIUS);
+        int fromY = Math.max(0, y - MAX_RADIUS), toY = Math.min(h - 1, y + MAX_RADIUS);
+        for (int cy = fromY; cy <= toY; cy++) {
+            for (int cx = fromX; cx <= toX; cx++) {
+                score[cy * w + cx] = evaluate(cx, cy);
+            }
+        }
+    }
+
+    // queue[0, tail)에 거리가 정해진 시작 칸을 넣고 호출. 거리가 줄어든 칸들이 queue에 남음 (끝 위치 반환)
+    private int spreadHeadDistance(int tail) {
+        for (int head = 0; head < tail; head++) {
+            int idx = queue[head];
+            int x = idx % w, y = idx / w;
+            int next = headDist[idx] + 1;
+            if (x > 0 && headDist[idx - 1] > next) { headDist[idx - 1] = next; queue[tail++] = idx - 1; }
+            if (x < w - 1 && headDist[idx + 1] > next) { headDist[idx + 1] = next; queue[tail++] = idx + 1; }
+            if (y > 0 && headDist[idx - w] > next) { headDist[idx - w] = next; queue[tail++] = idx - w; }
+            if (y < h - 1 && headDist[idx + w] > next) { headDist[idx + w] = next; queue[tail++] = idx + w; }
+        }
+        return tail;
+    }
+
+    // 머리 칸 (x, y)의 점수. 몸통 3칸 + 앞 3칸도 확보되지 않으면 -1
+    private int evaluate(int x, int y) {
+        int radius = -1;
+        for (int r = 0; r <= MAX_RADIUS; r++) {
+            int left = x - 2 - r, right = x + 3 + r, top = y - r, bottom = y + r;
+            if (left < 0 || right >= w || top < 0 || bottom >= h) break;
+            if (count(left, top, right, bottom) != 0) break;
+            radius = r;
+        }
+        if (radius < 0) return -1;
+        return radius * (NO_HEAD + 1) + headDist[y * w + x];
+    }
+
+    // 열 [x1, x2] × 행 [y1, y2] 안의 몸통 칸 수
+    private int count(int x1, int y1, int x2, int y2) {
+        int stride = w + 1;
+        return sat[(y2 + 1) * stride + (x2 + 1)] - sat[y1 * stride + (x2 + 1)]
+                - sat[(y2 + 1) * stride + x1] + sat[y1 * stride + x1];
+    }
+}
@@ -0,0 +1,117 @@
+package server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 관전자(SPECTATE) 전용 중계
+// 게임 스레드의 broadcast는 프레임을 링 버퍼에 한 번 넣기만 하고(publish),
+// 실제 전송은 중계 스레드들이 나눠 맡은 관전자들에게 지연(delayMs) 후 보냄
+// → 관전자가 몇 명이든 게임 스레드의 broadcast 비용은 일정함
+//
+// 링 버퍼는 생산자 1개(publish는 synchronized) / 소비자 여러 개
+// 중계 스레드가 너무 밀려서 덮어쓰인 프레임은 건너뛰고 최신 프레임부터 다시 보냄 (STATE는 최신 것만 의미 있음)
+public class SpectatorRelay {
+
+    private static final int CAPACITY = 1024; // 2의 제곱수
+
+    private final String[] frames = new String[CAPACITY];
+    private final long[] publishedAt = new long[CAPACITY];
+    private volatile long published = 0; // 지금까지 넣은 프레임 수 (다음 프레임 번호)
+
+    private final long delayMs;
+    private final Worker[] workers;
+    private final Object signal = new Object();
+    private int nextWorker = 0;
+
+    public SpectatorRelay(int threads, long delayMs) {
+        this.delayMs = delayMs;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker("SpectatorRelay-" + i);
+        }
+    }
+
+    public void start() {
+        for (Worker worker : workers) {
+            worker.start();
+        }
+        Log.info("관전 중계 시작", "threads", workers.length, "delayMs", delayMs);
+    }
+
+    // broadcast와 FramePipeline 직렬화 스레드에서 호출: 링 버퍼에 넣고 중계 스레드를 깨우기만 함
+    public synchronized void publish(String frame) {
+        long seq = published;
+        int slot = (int) (seq & (CAPACITY - 1));
+        frames[slot] = frame;
+        publishedAt[slot] = System.currentTimeMillis();
+        published = seq + 1; // volatile 쓰기 → 위 두 값이 중계 스레드에 보임
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    // 관전자는 중계 스레드에 번갈아 배정
+    public synchronized void subscribe(ClientHandler spectator) {
+        workers[nextWorker].spectators.add(spectator);
+        nextWorker = (nextWorker + 1) % workers.length;
+    }
+
+    public void unsubscribe(ClientHandler spectator) {
+        for (Worker worker : workers) {
+            worker.spectators.remove(spectator);
+        }
+    }
+
+    public int getSpectatorCount() {
+        int count = 0;
+        for (Worker worker : workers) {
+            count += worker.spectators.size();
+        }
+        return count;
+    }
+
+    private class Worker extends Thread {
+        final List<ClientHandler> spectators = new CopyOnWriteArrayList<>();
+        private long cursor = 0; // 다음에 보낼 프레임 번호
+
+        Worker(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    long seq = cursor;
+                    if (seq >= published) {
+                        synchronized (signal) {
+                            while (cursor >= published) signal.wait();
+                        }
+                        continue;
+                    }
+                    if (published - seq > CAPACITY) {
+                        cursor = published - 1; // 덮어쓰였으면 최신 프레임으로 건너뜀
+                        continue;
+                    }
+
+                    int slot = (int) (seq & (CAPACITY - 1));
+                    String frame = frames[slot];
+                    long dueAt = publishedAt[slot] + delayMs;
+                    if (published - seq > CAPACITY) continue; // 읽는 도중 덮어쓰임
+
+                    long wait = dueAt - System.currentTimeMillis();
+                    if (wait > 0) {
+                        Thread.sleep(wait);
+                    }
+                    for (ClientHandler spectator : spectators) {
+                        spectator.sendMessage(frame);
+                    }
+                    cursor = seq + 1;
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+    }
+}
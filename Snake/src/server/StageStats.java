@@ -0,0 +1,30 @@
+package server;
+
+// 파이프라인 단계 하나의 소요 시간 집계 (평균/최대, 보고할 때마다 초기화)
+class StageStats {
+
+    private final String name;
+    private long count;
+    private long totalNs;
+    private long maxNs;
+
+    StageStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long ns) {
+        count++;
+        totalNs += ns;
+        if (ns > maxNs) maxNs = ns;
+    }
+
+    // ex) "serialize avg=0.21ms max=0.80ms"
+    synchronized String reportAndReset() {
+        String report = String.format("%s avg=%.2fms max=%.2fms", name,
+                count == 0 ? 0.0 : totalNs / 1e6 / count, maxNs / 1e6);
+        count = 0;
+        totalNs = 0;
+        maxNs = 0;
+        return report;
+    }
+}
@@ -0,0 +1,30 @@
+package server;
+
+// 토큰 버킷: 초당 perSecond개씩 채워지고 최대 burst개까지 쌓임. 하나 꺼낼 수 있을 때만 허용
+// (IP별 접속 속도 제한, 플레이어별 채팅 속도 제한에 사용). 동기화는 쓰는 쪽에서
+class TokenBucket {
+
+    private final double ratePerMs;
+    private final double burst;
+    private double tokens;
+    private long updatedAt;
+
+    TokenBucket(double perSecond, double burst, long now) {
+        this.ratePerMs = perSecond / 1000.0;
+        this.burst = burst;
+        this.tokens = burst;
+        this.updatedAt = now;
+    }
+
+    boolean tryTake(long now) {
+        tokens = Math.min(burst, tokens + (now - updatedAt) * ratePerMs);
+        updatedAt = now;
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    long getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,164 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+// STATE 전용 UDP 채널 (선택 사항)
+// TCP는 패킷 하나가 유실되면 뒤의 STATE가 모두 밀리지만(head-of-line blocking), STATE는 최신 것만 의미가 있으므로
+// JOIN 후 TCP로 "UDP"를 요청한 클라이언트에게는 STATE를 UDP로 보냄. JOIN/CHAT/GAMEOVER는 계속 TCP
+//
+// 협상:  C->S(TCP) "UDP"  /  S->C(TCP) "UDP <포트> <토큰>"  /  C->S(UDP) HELLO(토큰) 를 받으면 UDP 전송 시작
+// 데이터그램: HELLO = [1][토큰 long]
+//            STATE = [2][순번 int][STATE 문자열 UTF-8]   (클라이언트는 이미 받은 순번 이하는 버림 → 순서 뒤바뀜 처리)
+//            ACK   = [3][토큰 long][순번 int]
+// ACK가 STALE_MS 동안 없으면 그 클라이언트는 "UDP OFF"를 보내고 TCP로 되돌림
+//
+// 테스트용: -Dsnake.udp.lossRate=0.2 -Dsnake.udp.reorderRate=0.1 로 유실/순서 뒤바뀜 흉내
+public class UdpStateChannel {
+
+    public static final byte HELLO = 1;
+    public static final byte STATE = 2;
+    public static final byte ACK = 3;
+    public static final int MAX_PAYLOAD = 65507 - 5; // UDP 최대 크기 - 헤더
+
+    private static final long STALE_MS = 3000;
+
+    private final DatagramChannel channel;
+    private final int port;
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final Random tokens = new SecureRandom();
+    private int sequence = 0;
+
+    // 유실/순서 뒤바뀜 시뮬레이션
+    private final double lossRate = Double.parseDouble(System.getProperty("snake.udp.lossRate", "0"));
+    private final double reorderRate = Double.parseDouble(System.getProperty("snake.udp.reorderRate", "0"));
+    private final Random simulation = new Random();
+    private ByteBuffer heldBack;
+    private SocketAddress heldBackTo;
+
+    // 클라이언트 한 명의 UDP 상태
+    public static class Session {
+        final long token;
+        final ClientHandler handler;
+        volatile SocketAddress address; // HELLO를 받기 전에는 null
+        volatile long lastAckAt;
+        volatile int lastAckSeq = -1;
+        volatile boolean active = true;
+
+        Session(long token, ClientHandler handler) {
+            this.token = token;
+            this.handler = handler;
+        }
+
+        public boolean isSending() {
+            return active && address != null;
+        }
+    }
+
+    public UdpStateChannel(int port) throws IOException {
+        this.channel = DatagramChannel.open();
+        this.channel.bind(new InetSocketAddress(port));
+        this.port = port;
+    }
+
+    public void start() {
+        Thread receiver = new Thread(() -> receiveLoop(), "UdpState-Receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        Log.info("UDP 상태 채널 시작", "port", port);
+    }
+
+    // TCP로 "UDP" 요청을 받으면 토큰 발급. 반환값은 클라이언트에게 보낼 응답
+    public String open(ClientHandler handler) {
+        long token = tokens.nextLong();
+        Session session = new Session(token, handler);
+        sessions.put(token, session);
+        handler.setUdpSession(session);
+        return "UDP " + port + " " + token;
+    }
+
+    public void close(Session session) {
+        if (session != null) sessions.remove(session.token);
+    }
+
+    // 한 프레임의 데이터그램을 만듦 (broadcast 한 번에 한 번, 모든 UDP 클라이언트가 공유)
+    // 너무 커서 UDP로 못 보내면 null → 호출한 쪽에서 TCP로 전송
+    public synchronized ByteBuffer encode(String stateLine) {
+        byte[] payload = stateLine.getBytes(StandardCharsets.UTF_8);
+        if (payload.length > MAX_PAYLOAD) return null;
+        ByteBuffer datagram = ByteBuffer.allocate(1 + 4 + payload.length);
+        datagram.put(STATE).putInt(sequence++).put(payload);
+        datagram.flip();
+        return datagram;
+    }
+
+    // ACK가 끊긴 세션은 TCP로 되돌림. 계속 UDP로 보낼 수 있으면 true
+    public boolean checkAlive(Session session, long now) {
+        if (!session.active) return false;
+        if (now - session.lastAckAt > STALE_MS) {
+            session.active = false;
+            session.handler.sendMessage("UDP OFF");
+            Log.info("UDP 응답 없음 → TCP로 전환", "name", session.handler.getClientName());
+            return false;
+        }
+        return true;
+    }
+
+    // 여러 전송 스레드에서 호출 (유실/순서 뒤바뀜 시뮬레이션 상태 공유 때문에 동기화)
+    public synchronized void send(Session session, ByteBuffer datagram) {
+        ByteBuffer copy = datagram.duplicate();
+        try {
+            if (lossRate > 0 && simulation.nextDouble() < lossRate) return; // 유실 흉내
+            if (reorderRate > 0 && heldBack == null && simulation.nextDouble() < reorderRate) {
+                heldBack = copy; // 다음 데이터그램 뒤에 보내서 순서 뒤바뀜 흉내
+                heldBackTo = session.address;
+                return;
+            }
+            channel.send(copy, session.address);
+            if (heldBack != null) {
+                channel.send(heldBack, heldBackTo);
+                heldBack = null;
+            }
+        } catch (IOException e) {
+            Log.warn("UDP 전송 오류", "error", e.getMessage());
+        }
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        while (channel.isOpen()) {
+            try {
+                buf.clear();
+                SocketAddress from = channel.receive(buf);
+                buf.flip();
+                if (buf.remaining() < 9) continue;
+
+                byte type = buf.get();
+                Session session = sessions.get(buf.getLong());
+                if (session == null || !session.active) continue;
+
+                if (type == HELLO) {
+                    if (session.address == null) {
+                        session.lastAckAt = System.currentTimeMillis();
+                        session.address = from; // 이제부터 UDP로 STATE 전송
+                        Log.info("UDP 연결", "name", session.handler.getClientName(), "from", from);
+                    }
+                } else if (type == ACK && buf.remaining() >= 4) {
+                    int seq = buf.getInt();
+                    if (seq > session.lastAckSeq) session.lastAckSeq = seq;
+                    session.lastAckAt = System.currentTimeMillis();
+                }
+            } catch (IOException e) {
+                if (channel.isOpen()) Log.warn("UDP 수신 오류", "error", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+
+// 한 줄 단위 텍스트 프로토콜 연결 하나 (서버의 ClientHandler, 클라이언트의 NetworkClient가 사용)
+// TCP 소켓이든 메모리 파이프든 "줄 읽기 / 줄 쓰기 / 닫기"만 같으면 같은 코드로 동작
+public interface Connection {
+
+    // 다음 줄 (줄바꿈 제외). 상대가 닫았으면 null. 읽는 스레드는 하나뿐이어야 함
+    String readLine() throws IOException;
+
+    // 한 줄 전송 (줄바꿈은 여기서 붙임). 여러 스레드가 동시에 불러도 줄이 섞이지 않음
+    // line 안에 줄바꿈이 있으면 여러 줄이 한 번에 전송됨 (채팅 묶음 등)
+    void writeLine(String line) throws IOException;
+
+    // 접속 제한(IP별)에 쓰는 상대 주소 (메모리 연결은 루프백 주소)
+    InetAddress getAddress();
+
+    // 여러 번 불러도 됨. 막혀 있는 readLine은 null 또는 IOException으로 끝남
+    void close();
+}
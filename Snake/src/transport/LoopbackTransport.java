@@ -0,0 +1,123 @@
+package transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// 같은 JVM 안의 메모리 연결 (커널 소켓 없음)
+// 벤치마크/통합 시험에서 서버와 가상 클라이언트 수천 개를 한 프로세스에서 돌릴 때 사용
+//   LoopbackTransport transport = new LoopbackTransport();
+//   new ServerMain(transport) ... / Connection client = transport.connect();
+// 연결 하나 = 방향별 줄 큐 두 개. 큐는 크기가 정해져 있어서 읽는 쪽이 밀리면 쓰는 쪽이 기다림 (소켓 버퍼와 같은 역압)
+public class LoopbackTransport implements Transport {
+
+    private static final int PIPE_CAPACITY = Integer.getInteger("snake.loopback.capacity", 1024); // 방향별 줄 수
+    private static final String EOF = new String("EOF"); // 닫힘 표시 (내용이 아니라 객체로 비교)
+
+    private final BlockingQueue<Connection> pending = new LinkedBlockingQueue<>();
+    private volatile boolean closed = false;
+
+    // 클라이언트 쪽 끝을 돌려주고, 서버 쪽 끝은 accept()로 나감
+    public Connection connect() throws IOException {
+        if (closed) throw new IOException("서버가 닫혀 있습니다");
+        BlockingQueue<String> toServer = new ArrayBlockingQueue<>(PIPE_CAPACITY);
+        BlockingQueue<String> toClient = new ArrayBlockingQueue<>(PIPE_CAPACITY);
+        PipeConnection serverSide = new PipeConnection(toServer, toClient);
+        PipeConnection clientSide = new PipeConnection(toClient, toServer);
+        serverSide.peer = clientSide;
+        clientSide.peer = serverSide;
+        pending.add(serverSide);
+        return clientSide;
+    }
+
+    @Override
+    public Connection accept() throws IOException {
+        try {
+            Connection connection = pending.take();
+            if (closed) throw new IOException("닫힌 transport");
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("accept 중단", e);
+        }
+    }
+
+    @Override
+    public int getPort() {
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        pending.add(new PipeConnection(null, null)); // accept 대기를 깨움
+    }
+
+    static class PipeConnection implements Connection {
+        private final BlockingQueue<String> incoming;
+        private final BlockingQueue<String> outgoing;
+        private final Object writeLock = new Object(); // 큐가 차서 기다리는 동안에도 잡고 있음 (close는 이 락 없이 큐를 비워서 풀어줌)
+        private PipeConnection peer;
+        private volatile boolean closed = false;
+
+        PipeConnection(BlockingQueue<String> incoming, BlockingQueue<String> outgoing) {
+            this.incoming = incoming;
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            if (closed) return null;
+            try {
+                String line = incoming.take();
+                if (line == EOF) {
+                    incoming.offer(EOF); // 다시 읽어도 계속 끝
+                    return null;
+                }
+                return line;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("읽기 중단", e);
+            }
+        }
+
+        // TCP와 같게: 여러 줄이 든 문자열은 줄마다 나눠서 받는 쪽에서 readLine으로 하나씩 읽힘
+        // 줄을 나눠 넣는 동안 writeLock을 잡음 → 다른 스레드(전송 스레드, 채팅 등)의 줄이 사이에 끼지 않음
+        @Override
+        public void writeLine(String line) throws IOException {
+            if (closed || peer.closed) throw new IOException("연결이 끊어졌습니다");
+            try {
+                synchronized (writeLock) {
+                    if (line.indexOf('\n') < 0) {
+                        outgoing.put(line);
+                        return;
+                    }
+                    for (String part : line.split("\n", -1)) {
+                        outgoing.put(part);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("쓰기 중단", e);
+            }
+        }
+
+        @Override
+        public InetAddress getAddress() {
+            return InetAddress.getLoopbackAddress();
+        }
+
+        // 양쪽 읽기를 모두 끝냄 (큐가 가득 차 있으면 비우고 EOF를 넣음 → 막혀 있던 쓰기도 풀림)
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            outgoing.clear();
+            outgoing.offer(EOF);
+            incoming.clear();
+            incoming.offer(EOF);
+        }
+    }
+}
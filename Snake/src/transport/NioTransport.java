@@ -0,0 +1,314 @@
+package transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Selector 기반 (-Dsnake.transport=nio)
+// 소켓 입출력은 셀렉터 스레드 하나가 비블로킹 채널로 모두 처리하고, ClientHandler 스레드는 연결별 줄 큐만 봄
+//   - 읽기: 셀렉터 스레드가 읽은 바이트에서 '\n'을 찾아 줄을 잘라 큐에 넣음 (UTF-8에서 '\n' 바이트는 다른 글자의 일부가 될 수 없음)
+//           큐가 READ_QUEUE_LINES만큼 쌓이면 그 연결은 읽기를 멈춤 (소켓 버퍼가 차서 상대가 기다림) → 절반 아래로 줄면 다시 읽음
+//   - 쓰기: writeLine은 채널에 바로 써 보고, 다 못 쓴 나머지는 출력 큐에 넣고 바로 돌아옴 → 셀렉터가 OP_WRITE로 이어서 씀
+//           상대의 TCP 창이 차도 전송 스레드는 막히지 않음
+//           보내지 못한 바이트가 -Dsnake.nio.maxPendingKb(기본 1024)를 넘으면 너무 느린 연결로 보고 닫음 (IOException)
+// 클라이언트 쪽 connect()도 같은 방식 (프로세스당 셀렉터 스레드 하나를 같이 씀)
+public class NioTransport implements Transport {
+
+    private static final int READ_BUFFER = 8192;
+    private static final int READ_QUEUE_LINES = 1024;
+    private static final long MAX_PENDING_BYTES = Long.getLong("snake.nio.maxPendingKb", 1024) * 1024;
+    private static final String EOF = new String("EOF"); // 닫힘 표시 (내용이 아니라 객체로 비교)
+
+    private static Loop clientLoop; // connect()용, 처음 접속할 때 만듦
+
+    private final ServerSocketChannel server;
+    private final Loop loop;
+
+    public NioTransport(int port) throws IOException {
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress(port));
+        this.loop = new Loop("Nio-Selector");
+    }
+
+    // 접속 받기는 블로킹 그대로 (서버의 접속 스레드 하나), 받은 채널은 셀렉터에 등록
+    @Override
+    public Connection accept() throws IOException {
+        SocketChannel channel = server.accept();
+        return loop.register(channel);
+    }
+
+    @Override
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+        }
+        loop.close();
+    }
+
+    public static Connection connect(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        Loop loop;
+        synchronized (NioTransport.class) {
+            if (clientLoop == null) clientLoop = new Loop("Nio-Client-Selector");
+            loop = clientLoop;
+        }
+        return loop.register(channel);
+    }
+
+    // 셀렉터 스레드 하나: 등록된 모든 연결의 읽기/쓰기
+    private static final class Loop extends Thread {
+        private final Selector selector;
+        private final ConcurrentLinkedQueue<NioConnection> registrations = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER); // 셀렉터 스레드만 사용
+        private volatile boolean running = true;
+
+        Loop(String name) throws IOException {
+            super(name);
+            this.selector = Selector.open();
+            setDaemon(true);
+            start();
+        }
+
+        // register는 select 중이면 기다리므로, 셀렉터 스레드가 다음 바퀴에 직접 등록
+        NioConnection register(SocketChannel channel) throws IOException {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            NioConnection connection = new NioConnection(this, channel);
+            registrations.add(connection);
+            selector.wakeup();
+            return connection;
+        }
+
+        void wakeup() {
+            selector.wakeup();
+        }
+
+        void close() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                } catch (IOException e) {
+                    break;
+                }
+                NioConnection added;
+                while ((added = registrations.poll()) != null) {
+                    added.attach(selector);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (!key.isValid()) continue;
+                    if (key.isReadable()) connection.readReady(readBuffer);
+                    if (key.isValid() && key.isWritable()) connection.writeReady();
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                ((NioConnection) key.attachment()).close();
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    static class NioConnection implements Connection {
+        private final Loop loop;
+        private final SocketChannel channel;
+        private volatile SelectionKey key; // 셀렉터 스레드가 등록한 뒤에 생김
+        private volatile boolean closed = false;
+
+        // 읽기 (partial은 셀렉터 스레드만 사용)
+        private final BlockingQueue<String> incoming = new LinkedBlockingQueue<>();
+        private final ByteArrayOutputStream partial = new ByteArrayOutputStream(); // 아직 '\n'을 못 만난 앞부분
+        private final Object pauseLock = new Object(); // 읽기 멈춤/재개 판단이 엇갈려 멈춘 채로 남지 않게
+        private volatile boolean readPaused = false;
+
+        // 쓰기 (writeLock으로 보호: 쓰는 스레드들과 셀렉터 스레드)
+        private final Object writeLock = new Object();
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private long pendingBytes = 0;
+
+        NioConnection(Loop loop, SocketChannel channel) {
+            this.loop = loop;
+            this.channel = channel;
+        }
+
+        // 셀렉터 스레드: 등록. 그사이 쌓인 출력이 있으면 OP_WRITE도 같이
+        void attach(Selector selector) {
+            if (closed) return;
+            try {
+                synchronized (writeLock) { // writeLine이 key를 보기 전/후 어느 쪽이든 OP_WRITE가 빠지지 않게
+                    int ops = SelectionKey.OP_READ | (pending.isEmpty() ? 0 : SelectionKey.OP_WRITE);
+                    key = channel.register(selector, ops, this);
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            String line;
+            try {
+                line = incoming.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("읽기 중단", e);
+            }
+            if (line == EOF) {
+                incoming.offer(EOF); // 다시 읽어도 계속 끝
+                return null;
+            }
+            if (readPaused) {
+                synchronized (pauseLock) {
+                    if (readPaused && incoming.size() < READ_QUEUE_LINES / 2) {
+                        readPaused = false;
+                        if (key.isValid()) key.interestOpsOr(SelectionKey.OP_READ);
+                        loop.wakeup();
+                    }
+                }
+            }
+            return line;
+        }
+
+        // 셀렉터 스레드: 읽을 수 있는 만큼 읽어서 줄로 자름
+        void readReady(ByteBuffer buffer) {
+            buffer.clear();
+            int n;
+            try {
+                n = channel.read(buffer);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                if (partial.size() > 0) {
+                    incoming.add(partial.toString(StandardCharsets.UTF_8)); // 줄바꿈 없이 끝난 마지막 줄
+                    partial.reset();
+                }
+                shutdown(); // 상대가 닫음: 이미 받은 줄은 다 읽을 수 있게 남김
+                return;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    String line = partial.toString(StandardCharsets.UTF_8);
+                    partial.reset();
+                    incoming.add(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+                } else {
+                    partial.write(b);
+                }
+            }
+            synchronized (pauseLock) {
+                if (incoming.size() >= READ_QUEUE_LINES) {
+                    readPaused = true;
+                    key.interestOpsAnd(~SelectionKey.OP_READ);
+                }
+            }
+        }
+
+        // 여러 스레드가 불러도 한 줄은 통째로 나감 (writeLock 안에서 출력 큐에 한 덩어리로)
+        @Override
+        public void writeLine(String line) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            boolean slow = false;
+            synchronized (writeLock) {
+                if (closed) throw new IOException("연결이 끊어졌습니다");
+                if (pending.isEmpty()) {
+                    channel.write(bytes); // 비블로킹: 소켓 버퍼에 들어가는 만큼만
+                    if (!bytes.hasRemaining()) return;
+                }
+                if (pendingBytes + bytes.remaining() > MAX_PENDING_BYTES) {
+                    slow = true;
+                } else {
+                    pending.add(bytes);
+                    pendingBytes += bytes.remaining();
+                }
+            }
+            if (slow) {
+                close();
+                throw new IOException("상대가 너무 느려서 연결을 닫습니다 (보내지 못한 바이트 > " + MAX_PENDING_BYTES + ")");
+            }
+            SelectionKey k = key;
+            if (k != null && k.isValid()) { // 아직 등록 전이면 attach가 OP_WRITE를 붙임
+                k.interestOpsOr(SelectionKey.OP_WRITE);
+                loop.wakeup();
+            }
+        }
+
+        // 셀렉터 스레드: 쌓인 출력을 쓸 수 있는 만큼 씀. 다 비우면 OP_WRITE 해제
+        void writeReady() {
+            synchronized (writeLock) {
+                try {
+                    while (!pending.isEmpty()) {
+                        ByteBuffer head = pending.peek();
+                        pendingBytes -= channel.write(head);
+                        if (head.hasRemaining()) return; // 소켓 버퍼가 다시 참
+                        pending.poll();
+                    }
+                    key.interestOpsAnd(~SelectionKey.OP_WRITE);
+                    return;
+                } catch (IOException e) {
+                    // 아래에서 닫음
+                }
+            }
+            close();
+        }
+
+        @Override
+        public InetAddress getAddress() {
+            return channel.socket().getInetAddress();
+        }
+
+        // 여러 번 불러도 됨. 아직 안 읽은 줄은 버리고, 읽기 대기 중인 readLine은 null로 끝남
+        @Override
+        public void close() {
+            shutdown();
+            incoming.clear();
+            incoming.offer(EOF);
+        }
+
+        private void shutdown() {
+            synchronized (writeLock) {
+                if (closed) return;
+                closed = true;
+                pending.clear();
+                pendingBytes = 0;
+            }
+            SelectionKey k = key;
+            if (k != null) k.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            incoming.offer(EOF);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package transport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+// 예전 방식 그대로: java.net.Socket + BufferedReader/PrintWriter (문자셋은 양쪽 모두 UTF-8로 고정)
+public class TcpTransport implements Transport {
+
+    private final ServerSocket serverSocket;
+
+    public TcpTransport(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+    }
+
+    @Override
+    public Connection accept() throws IOException {
+        return new TcpConnection(serverSocket.accept());
+    }
+
+    @Override
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // 클라이언트 쪽 접속
+    public static Connection connect(String host, int port) throws IOException {
+        return new TcpConnection(new Socket(host, port));
+    }
+
+    // 서버끼리의 짧은 요청용: 접속/응답 대기에 시간 제한 (넘으면 IOException)
+    public static Connection connect(String host, int port, int timeoutMs) throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), timeoutMs);
+        socket.setSoTimeout(timeoutMs);
+        return new TcpConnection(socket);
+    }
+
+    static class TcpConnection implements Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        TcpConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true); // autoFlush
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void writeLine(String line) throws IOException {
+            out.println(line);
+            if (out.checkError()) throw new IOException("연결이 끊어졌습니다");
+        }
+
+        @Override
+        public InetAddress getAddress() {
+            return socket.getInetAddress();
+        }
+
+        @Override
+        public void close() {
+            try { socket.close(); } catch (IOException ignored) {}
+            try { in.close(); } catch (IOException ignored) {}
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package transport;
+
+import java.io.IOException;
+
+// 서버가 접속을 받는 방법 (-Dsnake.transport=tcp|nio, 테스트/벤치마크는 LoopbackTransport를 직접 넘김)
+public interface Transport {
+
+    // 다음 접속이 올 때까지 대기. 닫히면 IOException
+    Connection accept() throws IOException;
+
+    // 외부에서 접속 가능한 포트 (UDP 채널을 같은 번호로 열 때 사용). 네트워크가 아니면 -1
+    int getPort();
+
+    void close();
+
+    // 이름으로 선택: "nio" → NioTransport, 그 밖에는 TcpTransport
+    static Transport open(String name, int port) throws IOException {
+        if ("nio".equalsIgnoreCase(name)) return new NioTransport(port);
+        return new TcpTransport(port);
+    }
+}